@@ -0,0 +1,3 @@
+-- Extensions the app needs but cannot create as a non-superuser. Runs once when the
+-- database is first initialised; on an existing database run it as the owner or a superuser.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,14 @@
+#!/bin/sh
+# Clone the primary on first start, then run as a hot standby
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    until pg_isready -h "$PRIMARY_HOST" -p 5432; do
+        sleep 1
+    done
+    PGPASSWORD="$REPLICATION_PASSWORD" pg_basebackup -h "$PRIMARY_HOST" -U "$REPLICATION_USER" \
+        -D "$PGDATA" -X stream -R
+    chmod 0700 "$PGDATA"
+fi
+
+exec postgres -c hot_standby=on
@@ -0,0 +1,23 @@
+package com.backend.reactive;
+
+import com.backend.exception.GlobalExceptionHandler;
+import com.backend.service.OTPService;
+import com.backend.service.PasetoService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Non-blocking variant of the attendance API for high-concurrency kiosk deployments.
+ * Runs next to the servlet app on the same database; OTP, token handling and
+ * error responses are the servlet app's own classes.
+ */
+@SpringBootApplication
+@Import({OTPService.class, PasetoService.class, GlobalExceptionHandler.class})
+public class ReactiveBackendApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveBackendApplication.class, args);
+	}
+
+}
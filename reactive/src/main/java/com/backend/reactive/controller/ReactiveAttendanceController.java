@@ -0,0 +1,77 @@
+package com.backend.reactive.controller;
+
+import com.backend.dto.ApiResponse;
+import com.backend.dto.CheckInRequest;
+import com.backend.dto.CheckOutRequest;
+import com.backend.reactive.dto.AttendanceResponse;
+import com.backend.reactive.service.ReactiveAttendanceService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The servlet app's /api/attendance contract for check-in, check-out, current and history
+ */
+@RestController
+@RequestMapping("/api/attendance")
+public class ReactiveAttendanceController {
+
+    private final ReactiveAttendanceService attendanceService;
+
+    public ReactiveAttendanceController(ReactiveAttendanceService attendanceService) {
+        this.attendanceService = attendanceService;
+    }
+
+    @PostMapping("/check-in")
+    public Mono<ResponseEntity<ApiResponse<AttendanceResponse>>> checkIn(
+            @Valid @RequestBody CheckInRequest request,
+            @RequestAttribute("userId") Long userId) {
+        return attendanceService.checkIn(userId, request.getOtpCode())
+                .map(response -> ResponseEntity.ok(ApiResponse.success("Check-in successful", response)))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(badRequest(e)));
+    }
+
+    @PostMapping("/check-out")
+    public Mono<ResponseEntity<ApiResponse<AttendanceResponse>>> checkOut(
+            @Valid @RequestBody CheckOutRequest request,
+            @RequestAttribute("userId") Long userId) {
+        return attendanceService.checkOut(userId, request.getOtpCode())
+                .map(response -> ResponseEntity.ok(ApiResponse.success("Check-out successful", response)))
+                .onErrorResume(RuntimeException.class, e -> Mono.just(badRequest(e)));
+    }
+
+    @GetMapping("/current")
+    public Mono<ResponseEntity<ApiResponse<AttendanceResponse>>> getCurrentAttendance(
+            @RequestAttribute("userId") Long userId) {
+        return attendanceService.getCurrentAttendance(userId)
+                .map(response -> ResponseEntity.ok(ApiResponse.success("Current attendance retrieved", response)))
+                .defaultIfEmpty(ResponseEntity.ok(ApiResponse.success("No active attendance", null)));
+    }
+
+    @GetMapping("/history")
+    public Mono<ResponseEntity<ApiResponse<List<AttendanceResponse>>>> getHistory(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestAttribute("userId") Long userId) {
+
+        LocalDateTime start = startDate != null ?
+                LocalDateTime.parse(startDate) :
+                LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+
+        LocalDateTime end = endDate != null ?
+                LocalDateTime.parse(endDate) :
+                LocalDateTime.now();
+
+        return attendanceService.getUserAttendanceHistory(userId, start, end)
+                .collectList()
+                .map(history -> ResponseEntity.ok(ApiResponse.success("Attendance history retrieved", history)));
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> badRequest(RuntimeException e) {
+        return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+    }
+}
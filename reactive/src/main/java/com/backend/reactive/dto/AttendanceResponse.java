@@ -0,0 +1,63 @@
+package com.backend.reactive.dto;
+
+import com.backend.reactive.entity.AttendanceRecord;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Same JSON shape as the servlet app's com.backend.dto.AttendanceResponse
+ */
+public class AttendanceResponse {
+
+    private final Long id;
+    private final String fullName;
+    private final LocalDateTime checkInTime;
+    private final LocalDateTime checkOutTime;
+    private final String status;
+    private final String duration;
+
+    public AttendanceResponse(Long id, String fullName, LocalDateTime checkInTime,
+                              LocalDateTime checkOutTime, String status, String duration) {
+        this.id = id;
+        this.fullName = fullName;
+        this.checkInTime = checkInTime;
+        this.checkOutTime = checkOutTime;
+        this.status = status;
+        this.duration = duration;
+    }
+
+    public static AttendanceResponse fromRecord(AttendanceRecord record) {
+        String duration = "-";
+        if (record.getCheckOutTime() != null) {
+            long minutes = Duration.between(record.getCheckInTime(), record.getCheckOutTime()).toMinutes();
+            duration = String.format("%d:%02d", minutes / 60, minutes % 60);
+        }
+        return new AttendanceResponse(record.getId(), record.getFullName(), record.getCheckInTime(),
+                record.getCheckOutTime(), record.getStatus(), duration);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public LocalDateTime getCheckInTime() {
+        return checkInTime;
+    }
+
+    public LocalDateTime getCheckOutTime() {
+        return checkOutTime;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getDuration() {
+        return duration;
+    }
+}
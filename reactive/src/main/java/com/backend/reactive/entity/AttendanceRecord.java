@@ -0,0 +1,126 @@
+package com.backend.reactive.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the attendances table owned by the servlet app
+ */
+@Table("attendances")
+public class AttendanceRecord {
+
+    public static final String CHECKED_IN = "CHECKED_IN";
+    public static final String CHECKED_OUT = "CHECKED_OUT";
+
+    @Id
+    private Long id;
+
+    @Column("user_id")
+    private Long userId;
+
+    @Column("full_name")
+    private String fullName;
+
+    @Column("check_in_time")
+    private LocalDateTime checkInTime;
+
+    @Column("check_out_time")
+    private LocalDateTime checkOutTime;
+
+    @Column("duration_minutes")
+    private Integer durationMinutes;
+
+    @Column("otp_code")
+    private String otpCode;
+
+    @Column("status")
+    private String status;
+
+    @Column("created_at")
+    private LocalDateTime createdAt;
+
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column("synced_to_sheets")
+    private Boolean syncedToSheets = false;
+
+    public AttendanceRecord() {
+    }
+
+    /**
+     * A new check-in, stamped the same way the JPA entity stamps it
+     */
+    public static AttendanceRecord checkIn(Long userId, String fullName, String otpCode) {
+        LocalDateTime now = LocalDateTime.now();
+        AttendanceRecord record = new AttendanceRecord();
+        record.userId = userId;
+        record.fullName = fullName;
+        record.otpCode = otpCode;
+        record.checkInTime = now;
+        record.status = CHECKED_IN;
+        record.createdAt = now;
+        record.updatedAt = now;
+        return record;
+    }
+
+    /**
+     * Close this attendance; it is left unsynced for the Sheets backfill
+     */
+    public void checkOut() {
+        LocalDateTime now = LocalDateTime.now();
+        checkOutTime = now;
+        durationMinutes = (int) Duration.between(checkInTime, now).toMinutes();
+        status = CHECKED_OUT;
+        updatedAt = now;
+        syncedToSheets = false;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public LocalDateTime getCheckInTime() {
+        return checkInTime;
+    }
+
+    public LocalDateTime getCheckOutTime() {
+        return checkOutTime;
+    }
+
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public String getOtpCode() {
+        return otpCode;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Boolean getSyncedToSheets() {
+        return syncedToSheets;
+    }
+}
@@ -0,0 +1,71 @@
+package com.backend.reactive.filter;
+
+import com.backend.service.PasetoService;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * WebFlux counterpart of PasetoAuthenticationFilter: validates the bearer
+ * access token and exposes userId and username as exchange attributes.
+ */
+@Component
+public class ReactivePasetoAuthenticationFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final PasetoService pasetoService;
+
+    public ReactivePasetoAuthenticationFilter(PasetoService pasetoService) {
+        this.pasetoService = pasetoService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (isPublicEndpoint(path)) {
+            return chain.filter(exchange);
+        }
+
+        String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER_PREFIX) || header.length() == BEARER_PREFIX.length()) {
+            return sendUnauthorizedResponse(exchange.getResponse(), "Missing or invalid Authorization header");
+        }
+        String token = header.substring(BEARER_PREFIX.length());
+
+        // Token checks are CPU-only, so they run inline on the event loop
+        try {
+            if (!pasetoService.isAccessToken(token)) {
+                return sendUnauthorizedResponse(exchange.getResponse(), "Invalid access token");
+            }
+            exchange.getAttributes().put("userId", pasetoService.getUserIdFromToken(token));
+            exchange.getAttributes().put("username", pasetoService.getUsernameFromToken(token));
+        } catch (Exception e) {
+            return sendUnauthorizedResponse(exchange.getResponse(), "Authentication failed: " + e.getMessage());
+        }
+
+        return chain.filter(exchange);
+    }
+
+    private boolean isPublicEndpoint(String path) {
+        return path.startsWith("/api/auth/") || path.equals("/");
+    }
+
+    private Mono<Void> sendUnauthorizedResponse(ServerHttpResponse response, String message) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = String.format("{\"success\": false, \"message\": \"%s\", \"data\": null}", message)
+                .getBytes(StandardCharsets.UTF_8);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,41 @@
+package com.backend.reactive.repository;
+
+import com.backend.reactive.entity.AttendanceRecord;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * The servlet AttendanceRepository's queries, in SQL
+ */
+public interface AttendanceRecordRepository extends ReactiveCrudRepository<AttendanceRecord, Long> {
+
+    @Query("SELECT * FROM attendances WHERE user_id = :userId AND status = 'CHECKED_IN' "
+            + "AND check_out_time IS NULL ORDER BY check_in_time DESC LIMIT 1")
+    Mono<AttendanceRecord> findActiveByUserId(Long userId);
+
+    @Query("SELECT * FROM attendances WHERE user_id = :userId AND check_in_time::date = CAST(:date AS date) LIMIT 1")
+    Mono<AttendanceRecord> findByUserIdAndDate(Long userId, LocalDateTime date);
+
+    Flux<AttendanceRecord> findByUserIdAndCheckInTimeBetween(Long userId, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT full_name FROM users WHERE id = :userId")
+    Mono<String> findUserFullName(Long userId);
+
+    /**
+     * Bump the version behind the servlet app's /history and /current ETags
+     */
+    @Modifying
+    @Query("UPDATE users SET attendance_version = attendance_version + 1 WHERE id = :userId")
+    Mono<Integer> bumpAttendanceVersion(Long userId);
+
+    /**
+     * Send a cache invalidation to the servlet nodes; delivered when the transaction commits
+     */
+    @Query("SELECT 1 FROM (SELECT pg_notify(:channel, :payload)) AS sent")
+    Mono<Integer> notifyInvalidation(String channel, String payload);
+}
@@ -0,0 +1,140 @@
+package com.backend.reactive.service;
+
+import com.backend.reactive.dto.AttendanceResponse;
+import com.backend.reactive.entity.AttendanceRecord;
+import com.backend.reactive.repository.AttendanceRecordRepository;
+import com.backend.service.OTPService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Check-in rules of the servlet AttendanceService on R2DBC. Rows are written
+ * unsynced; the servlet app's backfill worker exports them to Google Sheets.
+ * Every write bumps the user's attendance version and notifies the servlet
+ * nodes' caches, as the servlet app's own writes do.
+ */
+@Service
+public class ReactiveAttendanceService {
+
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_INVALID_OTP = "invalid_otp";
+    private static final String OUTCOME_REJECTED = "rejected";
+    private static final String OUTCOME_ERROR = "error";
+
+    private final AttendanceRecordRepository attendanceRecordRepository;
+    private final OTPService otpService;
+    private final TransactionalOperator transactionalOperator;
+    private final MeterRegistry meterRegistry;
+    private final String invalidationChannel;
+
+    public ReactiveAttendanceService(AttendanceRecordRepository attendanceRecordRepository,
+                                     OTPService otpService,
+                                     TransactionalOperator transactionalOperator,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.cache.invalidation.channel:cache_invalidation}") String invalidationChannel) {
+        this.attendanceRecordRepository = attendanceRecordRepository;
+        this.otpService = otpService;
+        this.transactionalOperator = transactionalOperator;
+        this.meterRegistry = meterRegistry;
+        this.invalidationChannel = invalidationChannel;
+    }
+
+    public Mono<AttendanceResponse> checkIn(Long userId, String otpCode) {
+        Mono<AttendanceResponse> checkIn = Mono.defer(() -> {
+            if (!otpService.verifyOTP(otpCode)) {
+                return Mono.error(new AttendanceException(OUTCOME_INVALID_OTP, "Invalid OTP code"));
+            }
+            return attendanceRecordRepository.findByUserIdAndDate(userId, LocalDateTime.now()).hasElement()
+                    .flatMap(checkedInToday -> checkedInToday
+                            ? Mono.<Boolean>error(new AttendanceException(OUTCOME_REJECTED,
+                                    "You have already checked in today. Only one check-in per day is allowed."))
+                            : attendanceRecordRepository.findActiveByUserId(userId).hasElement())
+                    .flatMap(active -> active
+                            ? Mono.<String>error(new AttendanceException(OUTCOME_REJECTED,
+                                    "You are already checked in. Please check out first."))
+                            : attendanceRecordRepository.findUserFullName(userId)
+                                    .switchIfEmpty(Mono.error(() -> new RuntimeException("User not found"))))
+                    .flatMap(fullName -> attendanceRecordRepository.save(
+                            AttendanceRecord.checkIn(userId, fullName, otpCode)))
+                    .flatMap(this::announce)
+                    .map(AttendanceResponse::fromRecord);
+        });
+        return timed("attendance.checkin", transactionalOperator.transactional(checkIn));
+    }
+
+    public Mono<AttendanceResponse> checkOut(Long userId, String otpCode) {
+        Mono<AttendanceResponse> checkOut = Mono.defer(() -> {
+            if (!otpService.verifyOTP(otpCode)) {
+                return Mono.error(new AttendanceException(OUTCOME_INVALID_OTP, "Invalid OTP code"));
+            }
+            return attendanceRecordRepository.findActiveByUserId(userId)
+                    .switchIfEmpty(Mono.error(() -> new AttendanceException(OUTCOME_REJECTED,
+                            "No active check-in found. Please check in first.")))
+                    .flatMap(attendance -> {
+                        attendance.checkOut();
+                        return attendanceRecordRepository.save(attendance);
+                    })
+                    .flatMap(this::announce)
+                    .map(AttendanceResponse::fromRecord);
+        });
+        return timed("attendance.checkout", transactionalOperator.transactional(checkOut));
+    }
+
+    public Flux<AttendanceResponse> getUserAttendanceHistory(Long userId, LocalDateTime start, LocalDateTime end) {
+        return attendanceRecordRepository.findByUserIdAndCheckInTimeBetween(userId, start, end)
+                .map(AttendanceResponse::fromRecord);
+    }
+
+    public Mono<AttendanceResponse> getCurrentAttendance(Long userId) {
+        return attendanceRecordRepository.findActiveByUserId(userId)
+                .map(AttendanceResponse::fromRecord);
+    }
+
+    /**
+     * Bump the user's attendance version and queue an invalidation in the same
+     * transaction. The payload matches the servlet app's CacheInvalidation format.
+     */
+    private Mono<AttendanceRecord> announce(AttendanceRecord attendance) {
+        String payload = "ATTENDANCE:" + attendance.getId() + ":" + attendance.getUserId() + ":reactive";
+        return attendanceRecordRepository.bumpAttendanceVersion(attendance.getUserId())
+                .then(attendanceRecordRepository.notifyInvalidation(invalidationChannel, payload))
+                .thenReturn(attendance);
+    }
+
+    /**
+     * Time the whole pipeline under the servlet app's timer names, tagged by outcome
+     */
+    private Mono<AttendanceResponse> timed(String name, Mono<AttendanceResponse> pipeline) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return pipeline
+                    .doOnSuccess(response -> sample.stop(meterRegistry.timer(name, "outcome", OUTCOME_SUCCESS)))
+                    .doOnError(e -> sample.stop(meterRegistry.timer(name, "outcome",
+                            e instanceof AttendanceException ? ((AttendanceException) e).getOutcome() : OUTCOME_ERROR)));
+        });
+    }
+
+    /**
+     * A check-in or check-out refused by the rules, with its metric outcome
+     */
+    public static class AttendanceException extends RuntimeException {
+
+        private final String outcome;
+
+        AttendanceException(String outcome, String message) {
+            super(message);
+            this.outcome = outcome;
+        }
+
+        public String getOutcome() {
+            return outcome;
+        }
+    }
+}
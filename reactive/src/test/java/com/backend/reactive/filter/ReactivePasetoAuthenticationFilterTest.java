@@ -0,0 +1,63 @@
+package com.backend.reactive.filter;
+
+import com.backend.service.PasetoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RestController;
+
+class ReactivePasetoAuthenticationFilterTest {
+
+	private PasetoService pasetoService;
+	private WebTestClient client;
+
+	@BeforeEach
+	void setUp() {
+		pasetoService = new PasetoService(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(pasetoService, "secretKeyString", "reactive-filter-test-secret");
+		ReflectionTestUtils.setField(pasetoService, "accessTokenExpiration", 900L);
+		ReflectionTestUtils.setField(pasetoService, "refreshTokenExpiration", 3600L);
+
+		client = WebTestClient.bindToController(new WhoAmIController())
+				.webFilter(new ReactivePasetoAuthenticationFilter(pasetoService))
+				.build();
+	}
+
+	@Test
+	void rejectsMissingToken() {
+		client.get().uri("/api/attendance/whoami").exchange()
+				.expectStatus().isUnauthorized()
+				.expectBody().jsonPath("$.success").isEqualTo(false);
+	}
+
+	@Test
+	void rejectsRefreshTokens() {
+		client.get().uri("/api/attendance/whoami")
+				.header("Authorization", "Bearer " + pasetoService.generateRefreshToken(7L, "alice"))
+				.exchange()
+				.expectStatus().isUnauthorized()
+				.expectBody().jsonPath("$.message").isEqualTo("Invalid access token");
+	}
+
+	@Test
+	void exposesUserIdForValidAccessTokens() {
+		client.get().uri("/api/attendance/whoami")
+				.header("Authorization", "Bearer " + pasetoService.generateAccessToken(7L, "alice"))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(String.class).isEqualTo("7:alice");
+	}
+
+	@RestController
+	static class WhoAmIController {
+
+		@GetMapping("/api/attendance/whoami")
+		String whoAmI(@RequestAttribute("userId") Long userId, @RequestAttribute("username") String username) {
+			return userId + ":" + username;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.backend.cache;
+
+import com.backend.dto.AttendanceAnalyticsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Month analytics by month. A month is closed once the grace period after its end
+ * has passed and none of its sessions is still open (AttendanceAnalyticsService
+ * decides); closed months cannot change through the API, so they are kept until
+ * evicted by size. Open months (the current one, or one with a session not yet
+ * checked out) expire after a short TTL instead of being evicted on every check-in.
+ */
+@Component
+public class AttendanceAnalyticsCache {
+
+    private final Cache<YearMonth, AttendanceAnalyticsResponse> months;
+    private final Duration closeGrace;
+
+    public AttendanceAnalyticsCache(MeterRegistry meterRegistry,
+                                    @Value("${app.analytics.cache.max-months:120}") long maxMonths,
+                                    @Value("${app.analytics.cache.open-month-ttl-seconds:60}") long openMonthTtlSeconds,
+                                    @Value("${app.analytics.month-close-grace-hours:24}") long closeGraceHours) {
+        this.closeGrace = Duration.ofHours(closeGraceHours);
+        long openMonthTtlNanos = Duration.ofSeconds(openMonthTtlSeconds).toNanos();
+        this.months = Caffeine.newBuilder()
+                .maximumSize(maxMonths)
+                .expireAfter(new Expiry<YearMonth, AttendanceAnalyticsResponse>() {
+                    @Override
+                    public long expireAfterCreate(YearMonth month, AttendanceAnalyticsResponse value, long currentTime) {
+                        return value.isClosed() ? Long.MAX_VALUE : openMonthTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(YearMonth month, AttendanceAnalyticsResponse value,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(month, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(YearMonth month, AttendanceAnalyticsResponse value,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, months, "attendance.analytics");
+    }
+
+    /**
+     * Cached analytics for a month, computed once by the loader
+     */
+    public AttendanceAnalyticsResponse get(YearMonth month, Supplier<AttendanceAnalyticsResponse> loader) {
+        return months.get(month, ignored -> loader.get());
+    }
+
+    /**
+     * Whether a month ended more than the grace period ago. Sessions left open may
+     * still change it; the caller checks for those.
+     */
+    public boolean isClosed(YearMonth month) {
+        return isClosed(month, LocalDateTime.now(), closeGrace);
+    }
+
+    static boolean isClosed(YearMonth month, LocalDateTime now, Duration closeGrace) {
+        return !now.isBefore(month.plusMonths(1).atDay(1).atStartOfDay().plus(closeGrace));
+    }
+
+    /**
+     * Time until a cached month expires, if it is cached
+     */
+    Optional<Duration> expiresAfter(YearMonth month) {
+        return months.policy().expireVariably().flatMap(policy -> policy.getExpiresAfter(month));
+    }
+}
@@ -0,0 +1,41 @@
+package com.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Small cache of /history and /current responses. Keys include the user's
+ * attendance version, so a write makes the old entries unreachable and they
+ * simply age out; nothing needs to be evicted.
+ */
+@Component
+public class AttendanceResponseCache {
+
+    private final Cache<String, Object> responses;
+
+    public AttendanceResponseCache(MeterRegistry meterRegistry,
+                                   @Value("${app.cache.attendance-response.max-entries:10000}") long maxEntries,
+                                   @Value("${app.cache.attendance-response.ttl-minutes:5}") long ttlMinutes) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "attendance.response");
+    }
+
+    /**
+     * Cached response for a key, computed once by the loader. The loader must not return null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Supplier<T> loader) {
+        return (T) responses.get(key, ignored -> loader.get());
+    }
+}
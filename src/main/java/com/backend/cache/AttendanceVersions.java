@@ -0,0 +1,81 @@
+package com.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-user attendance version: users.attendance_version, bumped in the same
+ * transaction as every check-in and check-out. Current versions are cached
+ * locally and evicted through the CacheInvalidationBus, so conditional reads
+ * of /history and /current can be answered without a query.
+ */
+@Component
+public class AttendanceVersions implements InvalidationListener {
+
+    private static final String BUMP_SQL = "UPDATE users SET attendance_version = attendance_version + 1 WHERE id = ?";
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    private final Cache<Long, Long> versions;
+
+    public AttendanceVersions(ObjectProvider<JdbcTemplate> jdbcTemplate,
+                              @Value("${app.cache.attendance-version.max-entries:100000}") long maxEntries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofHours(1))
+                .build();
+    }
+
+    /**
+     * Increment a user's version. Call inside the transaction that writes their attendance.
+     */
+    public void bump(Long userId) {
+        if (userId != null) {
+            jdbcTemplate.getObject().update(BUMP_SQL, userId);
+        }
+    }
+
+    /**
+     * Increment the versions of several users in one JDBC batch
+     */
+    public void bump(Collection<Long> userIds) {
+        List<Object[]> args = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            args.add(new Object[] {userId});
+        }
+        jdbcTemplate.getObject().batchUpdate(BUMP_SQL, args);
+    }
+
+    /**
+     * Current version of a user's attendance, 0 if the user does not exist
+     */
+    public long current(Long userId) {
+        // Caffeine blocks an eviction of a key until its load finishes, so a stale load is never kept
+        return versions.get(userId, id -> {
+            List<Long> rows = jdbcTemplate.getObject().queryForList(
+                    "SELECT attendance_version FROM users WHERE id = ?", Long.class, id);
+            return rows.isEmpty() ? 0L : rows.get(0);
+        });
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.getType() == CacheInvalidation.Type.ATTENDANCE && invalidation.getUserId() != null) {
+            versions.invalidate(invalidation.getUserId());
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        versions.invalidateAll();
+    }
+}
@@ -0,0 +1,68 @@
+package com.backend.cache;
+
+/**
+ * A row change that local caches may need to evict. Sent between nodes as a
+ * NOTIFY payload of the form TYPE:entityId:userId:origin.
+ */
+public final class CacheInvalidation {
+
+    public enum Type {
+        USER,
+        ATTENDANCE
+    }
+
+    private final Type type;
+    private final Long entityId;
+    private final Long userId;
+    private final String origin;
+
+    public CacheInvalidation(Type type, Long entityId, Long userId, String origin) {
+        this.type = type;
+        this.entityId = entityId;
+        this.userId = userId;
+        this.origin = origin;
+    }
+
+    public String toPayload() {
+        return type.name() + ":" + format(entityId) + ":" + format(userId) + ":" + origin;
+    }
+
+    /**
+     * Parse a NOTIFY payload, or return null if it is not a valid message
+     */
+    public static CacheInvalidation fromPayload(String payload) {
+        String[] parts = payload.split(":", 4);
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            return new CacheInvalidation(Type.valueOf(parts[0]), parse(parts[1]), parse(parts[2]), parts[3]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String format(Long value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static Long parse(String value) {
+        return value.isEmpty() ? null : Long.valueOf(value);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+}
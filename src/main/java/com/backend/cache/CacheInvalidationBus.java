@@ -0,0 +1,235 @@
+package com.backend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cross-node cache invalidation over Postgres LISTEN/NOTIFY.
+ *
+ * Changes are sent with pg_notify on the writing transaction, so other nodes
+ * only hear about committed rows; the writing node evicts its own caches after
+ * commit. Each node holds one dedicated LISTEN connection to the primary and
+ * reconnects with backoff if it drops. Notifications sent while disconnected
+ * are lost, so every (re)subscribe flushes all local caches.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ObjectProvider<InvalidationListener> listeners;
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final AtomicBoolean connected = new AtomicBoolean();
+    private final Counter sent;
+    private final Counter received;
+    private final Counter flushes;
+
+    @Value("${app.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.invalidation.channel:cache_invalidation}")
+    private String channel;
+
+    @Value("${app.cache.invalidation.poll-timeout-ms:500}")
+    private int pollTimeoutMillis;
+
+    @Value("${app.cache.invalidation.keepalive-seconds:30}")
+    private long keepaliveSeconds;
+
+    @Value("${app.cache.invalidation.max-backoff-seconds:30}")
+    private long maxBackoffSeconds;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public CacheInvalidationBus(ObjectProvider<InvalidationListener> listeners,
+                                ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                DataSourceProperties dataSourceProperties,
+                                MeterRegistry meterRegistry) {
+        this.listeners = listeners;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.sent = Counter.builder("cache.invalidation.messages").tag("direction", "sent").register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.messages").tag("direction", "received").register(meterRegistry);
+        this.flushes = Counter.builder("cache.invalidation.flushes")
+                .description("Full local cache flushes after a possible notification gap")
+                .register(meterRegistry);
+        Gauge.builder("cache.invalidation.connected", connected, c -> c.get() ? 1 : 0)
+                .description("Whether this node is listening for invalidations")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    /**
+     * Announce a row change. Inside a transaction the NOTIFY is sent on the same
+     * connection and delivered on commit, and local caches are evicted after commit.
+     */
+    public void publish(CacheInvalidation.Type type, Long entityId, Long userId) {
+        CacheInvalidation invalidation = new CacheInvalidation(type, entityId, userId, nodeId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(invalidation);
+                }
+            });
+        } else {
+            dispatch(invalidation);
+        }
+
+        if (enabled) {
+            try {
+                jdbcTemplate.getObject().query("SELECT pg_notify(?, ?)", resultSet -> null,
+                        channel, invalidation.toPayload());
+                sent.increment();
+            } catch (Exception e) {
+                // Other nodes miss this change until their entries expire; never fail the write for it
+                System.err.println("Failed to publish cache invalidation " + invalidation.toPayload()
+                        + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public boolean isConnected() {
+        return connected.get();
+    }
+
+    /**
+     * Handle a payload received from the channel
+     */
+    void handle(String payload) {
+        CacheInvalidation invalidation = CacheInvalidation.fromPayload(payload);
+        if (invalidation == null) {
+            System.err.println("Ignoring malformed cache invalidation: " + payload);
+            return;
+        }
+        if (nodeId.equals(invalidation.getOrigin())) {
+            // Already evicted locally after commit
+            return;
+        }
+        received.increment();
+        dispatch(invalidation);
+    }
+
+    /**
+     * Evict everything on this node
+     */
+    void flush() {
+        flushes.increment();
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.invalidateAll();
+            } catch (Exception e) {
+                System.err.println("Cache flush failed in " + listener.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void dispatch(CacheInvalidation invalidation) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onInvalidation(invalidation);
+            } catch (Exception e) {
+                System.err.println("Cache invalidation failed in " + listener.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void listen() {
+        long backoffMillis = 1000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                connected.set(true);
+                backoffMillis = 1000;
+                // Anything sent before LISTEN took effect was missed
+                flush();
+
+                receive(connection);
+            } catch (SQLException e) {
+                if (running) {
+                    System.err.println("Cache invalidation listener disconnected: " + e.getMessage()
+                            + ", retrying in " + backoffMillis + " ms");
+                }
+            } finally {
+                connected.set(false);
+            }
+
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoffMillis = Math.min(backoffMillis * 2, maxBackoffSeconds * 1000);
+        }
+    }
+
+    /**
+     * Poll for notifications until the connection fails or the bus stops.
+     * A periodic round trip detects connections that died without an error.
+     */
+    private void receive(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long keepaliveNanos = keepaliveSeconds * 1_000_000_000L;
+        long lastCheck = System.nanoTime();
+
+        while (running && !Thread.currentThread().isInterrupted()) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+            if (notifications != null) {
+                for (PGNotification notification : notifications) {
+                    handle(notification.getParameter());
+                }
+            }
+
+            if (System.nanoTime() - lastCheck > keepaliveNanos) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.setQueryTimeout(5);
+                    statement.execute("SELECT 1");
+                }
+                lastCheck = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.backend.cache;
+
+import com.backend.entity.Attendance;
+import com.backend.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that publishes an invalidation for every User and
+ * Attendance row written, and bumps the users table version or the user's
+ * attendance version. Runs at flush, so the NOTIFY and the bumps join the
+ * transaction.
+ */
+@Component
+public class EntityInvalidationListener {
+
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final TableVersions tableVersions;
+    private final AttendanceVersions attendanceVersions;
+
+    public EntityInvalidationListener(CacheInvalidationBus cacheInvalidationBus,
+                                      TableVersions tableVersions,
+                                      AttendanceVersions attendanceVersions) {
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.tableVersions = tableVersions;
+        this.attendanceVersions = attendanceVersions;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (entity instanceof User) {
+            User user = (User) entity;
+            tableVersions.bump(TableVersions.USERS);
+            cacheInvalidationBus.publish(CacheInvalidation.Type.USER, user.getId(), user.getId());
+        } else if (entity instanceof Attendance) {
+            Attendance attendance = (Attendance) entity;
+            attendanceVersions.bump(attendance.getUserId());
+            cacheInvalidationBus.publish(CacheInvalidation.Type.ATTENDANCE, attendance.getId(), attendance.getUserId());
+        }
+    }
+}
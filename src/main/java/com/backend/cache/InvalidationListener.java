@@ -0,0 +1,17 @@
+package com.backend.cache;
+
+/**
+ * A local cache that is kept coherent by the CacheInvalidationBus
+ */
+public interface InvalidationListener {
+
+    /**
+     * Evict entries affected by a row change, made on this node or another
+     */
+    void onInvalidation(CacheInvalidation invalidation);
+
+    /**
+     * Evict everything. Called when notifications may have been missed.
+     */
+    void invalidateAll();
+}
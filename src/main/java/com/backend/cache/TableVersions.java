@@ -0,0 +1,71 @@
+package com.backend.cache;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads and bumps the table_versions counters. Current versions are cached
+ * locally and evicted through the CacheInvalidationBus, so an unchanged list
+ * can be answered with 304 without touching the database.
+ */
+@Component
+public class TableVersions implements InvalidationListener {
+
+    public static final String USERS = "users";
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplate;
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    // Bumped on every eviction so a read that raced with a write is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public TableVersions(ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Increment a table's version. Call inside the transaction that writes the table.
+     */
+    public void bump(String table) {
+        jdbcTemplate.getObject().update("INSERT INTO table_versions (table_name, version) VALUES (?, 1) "
+                + "ON CONFLICT (table_name) DO UPDATE SET version = table_versions.version + 1", table);
+    }
+
+    /**
+     * Current version of a table, 0 if it was never written
+     */
+    public long current(String table) {
+        Long cached = versions.get(table);
+        if (cached != null) {
+            return cached;
+        }
+        long before = generation.get();
+        List<Long> rows = jdbcTemplate.getObject().queryForList(
+                "SELECT version FROM table_versions WHERE table_name = ?", Long.class, table);
+        long version = rows.isEmpty() ? 0L : rows.get(0);
+        versions.put(table, version);
+        if (generation.get() != before) {
+            versions.remove(table);
+        }
+        return version;
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.getType() == CacheInvalidation.Type.USER) {
+            generation.incrementAndGet();
+            versions.remove(USERS);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        versions.clear();
+    }
+}
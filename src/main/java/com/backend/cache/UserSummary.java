@@ -0,0 +1,43 @@
+package com.backend.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable view of a user without the password hash, as held by UserSummaryCache
+ */
+public final class UserSummary {
+
+    private final Long id;
+    private final String username;
+    private final String email;
+    private final String fullName;
+    private final LocalDateTime createdAt;
+
+    public UserSummary(Long id, String username, String email, String fullName, LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.fullName = fullName;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,61 @@
+package com.backend.cache;
+
+import com.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded cache of user summaries for the hot lookups by id: check-in, /api/users/me
+ * and token refresh. Entries expire after a TTL and are evicted early through the
+ * CacheInvalidationBus whenever a user row is written on any node. Hit rates are
+ * exported as cache_gets_total{cache="user.summary"}.
+ */
+@Component
+public class UserSummaryCache implements InvalidationListener {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, UserSummary> summaries;
+
+    public UserSummaryCache(UserRepository userRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.cache.user-summary.max-entries:50000}") long maxEntries,
+                            @Value("${app.cache.user-summary.ttl-minutes:10}") long ttlMinutes) {
+        this.userRepository = userRepository;
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, "user.summary");
+    }
+
+    /**
+     * Summary of a user, loaded once per TTL. Unknown ids are not cached.
+     */
+    public Optional<UserSummary> find(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        // Caffeine blocks an eviction of a key until its load finishes, so a stale load is never kept
+        return Optional.ofNullable(summaries.get(userId, id -> userRepository.findSummaryById(id).orElse(null)));
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.getType() == CacheInvalidation.Type.USER && invalidation.getEntityId() != null) {
+            summaries.invalidate(invalidation.getEntityId());
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        summaries.invalidateAll();
+    }
+}
@@ -0,0 +1,116 @@
+package com.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The response formats the API speaks: JSON, CBOR and Smile. Message converters
+ * pick one per request from the Accept header; code that writes responses
+ * itself (streaming, filter errors) uses negotiate() to pick the same one.
+ */
+@Component
+public class ResponseFormats {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper jsonMapper;
+    private final CBORMapper cborMapper;
+    private final SmileMapper smileMapper;
+
+    // Boot configures JSON and CBOR mappers but not Smile, so Smile gets Jackson's defaults
+    @Autowired
+    public ResponseFormats(ObjectMapper jsonMapper, CBORMapper cborMapper) {
+        this(jsonMapper, cborMapper, SmileMapper.builder().build());
+    }
+
+    public ResponseFormats(ObjectMapper jsonMapper, CBORMapper cborMapper, SmileMapper smileMapper) {
+        this.jsonMapper = jsonMapper;
+        this.cborMapper = cborMapper;
+        this.smileMapper = smileMapper;
+    }
+
+    public CBORMapper getCborMapper() {
+        return cborMapper;
+    }
+
+    public SmileMapper getSmileMapper() {
+        return smileMapper;
+    }
+
+    /**
+     * Format for a request, from its Accept header
+     */
+    public MediaType negotiate(HttpServletRequest request) {
+        return negotiate(request.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    /**
+     * Format for an Accept header: the entry with the highest quality that is CBOR,
+     * Smile or JSON (wildcards mean JSON). JSON if there is none or it is malformed.
+     */
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        // Stable, so equal qualities keep the client's order
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return MediaType.APPLICATION_JSON;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return MediaType.APPLICATION_CBOR;
+            }
+            if (mediaType.isCompatibleWith(APPLICATION_SMILE)) {
+                return APPLICATION_SMILE;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Mapper that writes a negotiated format
+     */
+    public ObjectMapper mapperFor(MediaType format) {
+        if (MediaType.APPLICATION_CBOR.equals(format)) {
+            return cborMapper;
+        }
+        if (APPLICATION_SMILE.equals(format)) {
+            return smileMapper;
+        }
+        return jsonMapper;
+    }
+
+    /**
+     * Short name of a negotiated format, for ETags and metrics
+     */
+    public static String nameOf(MediaType format) {
+        if (MediaType.APPLICATION_CBOR.equals(format)) {
+            return "cbor";
+        }
+        if (APPLICATION_SMILE.equals(format)) {
+            return "smile";
+        }
+        return "json";
+    }
+}
@@ -1,6 +1,7 @@
 package com.backend.config;
 
 import com.backend.filter.PasetoAuthenticationFilter;
+import com.backend.filter.ServerTimingFilter;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,9 +13,24 @@ import org.springframework.web.filter.CorsFilter;
 public class SecurityConfig {
     
     private final PasetoAuthenticationFilter pasetoAuthenticationFilter;
+    private final ServerTimingFilter serverTimingFilter;
     
-    public SecurityConfig(PasetoAuthenticationFilter pasetoAuthenticationFilter) {
+    public SecurityConfig(PasetoAuthenticationFilter pasetoAuthenticationFilter,
+                          ServerTimingFilter serverTimingFilter) {
         this.pasetoAuthenticationFilter = pasetoAuthenticationFilter;
+        this.serverTimingFilter = serverTimingFilter;
+    }
+    
+    /**
+     * Register request phase timing ahead of every other filter so it covers authentication
+     */
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilterRegistration() {
+        FilterRegistrationBean<ServerTimingFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(serverTimingFilter);
+        registrationBean.addUrlPatterns("/api/*");
+        registrationBean.setOrder(-1);
+        return registrationBean;
     }
     
     /**
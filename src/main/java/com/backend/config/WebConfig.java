@@ -0,0 +1,42 @@
+package com.backend.config;
+
+import com.backend.datasource.ReadYourWritesInterceptor;
+import com.backend.filter.AdminAccessInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
+    private final AdminAccessInterceptor adminAccessInterceptor;
+    private final ResponseFormats responseFormats;
+    
+    public WebConfig(ReadYourWritesInterceptor readYourWritesInterceptor,
+                     AdminAccessInterceptor adminAccessInterceptor,
+                     ResponseFormats responseFormats) {
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+        this.adminAccessInterceptor = adminAccessInterceptor;
+        this.responseFormats = responseFormats;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(adminAccessInterceptor);
+        registry.addInterceptor(readYourWritesInterceptor).addPathPatterns("/api/**");
+    }
+    
+    /**
+     * Answer Accept: application/cbor and application/x-jackson-smile with the same
+     * mappers the streaming writer and the auth filter use
+     */
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(responseFormats.getCborMapper()))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(responseFormats.getSmileMapper()));
+    }
+}
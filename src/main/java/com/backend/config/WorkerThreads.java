@@ -0,0 +1,74 @@
+package com.backend.config;
+
+import org.springframework.boot.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads for the app's own background workers. With spring.threads.virtual.enabled
+ * on a Java 21+ runtime (the same switch that moves Tomcat onto virtual threads)
+ * workers are virtual threads; otherwise they are daemon platform threads.
+ */
+@Component
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    public WorkerThreads(Environment environment) {
+        this(Threading.VIRTUAL.isActive(environment));
+    }
+
+    private WorkerThreads(boolean virtual) {
+        this.virtual = virtual;
+    }
+
+    /**
+     * Daemon platform threads regardless of configuration
+     */
+    public static WorkerThreads platform() {
+        return new WorkerThreads(false);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * An unstarted worker thread
+     */
+    public Thread newThread(String name, Runnable task) {
+        Thread thread = threadFactory(name).newThread(task);
+        thread.setName(name);
+        return thread;
+    }
+
+    /**
+     * An executor for blocking tasks. Platform mode uses a fixed pool of the given size;
+     * virtual mode starts a virtual thread per task, so only the callers' own limits
+     * (quota limiter, connection pool) bound concurrency.
+     */
+    public ExecutorService newExecutor(String namePrefix, int platformThreads) {
+        if (virtual) {
+            return Executors.newCachedThreadPool(threadFactory(namePrefix));
+        }
+        return Executors.newFixedThreadPool(platformThreads, threadFactory(namePrefix));
+    }
+
+    private ThreadFactory threadFactory(String namePrefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,180 @@
+package com.backend.controller;
+
+import com.backend.dto.ApiResponse;
+import com.backend.dto.AttendanceAnalyticsResponse;
+import com.backend.dto.JfrRecordingResponse;
+import com.backend.dto.MonthRebuildResponse;
+import com.backend.dto.UserHistoryResponse;
+import com.backend.service.AttendanceAnalyticsService;
+import com.backend.service.AttendanceService;
+import com.backend.service.JfrRecordingService;
+import com.backend.service.SheetsMonthRebuildService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Admin", description = "Operational APIs (admin users only)")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AdminController {
+
+    private static final int MAX_BATCH_USERS = 100;
+    private static final int MAX_ROWS_PER_USER = 1000;
+
+    private final SheetsMonthRebuildService sheetsMonthRebuildService;
+    private final JfrRecordingService jfrRecordingService;
+    private final AttendanceAnalyticsService attendanceAnalyticsService;
+    private final AttendanceService attendanceService;
+
+    public AdminController(SheetsMonthRebuildService sheetsMonthRebuildService,
+                           JfrRecordingService jfrRecordingService,
+                           AttendanceAnalyticsService attendanceAnalyticsService,
+                           AttendanceService attendanceService) {
+        this.sheetsMonthRebuildService = sheetsMonthRebuildService;
+        this.jfrRecordingService = jfrRecordingService;
+        this.attendanceAnalyticsService = attendanceAnalyticsService;
+        this.attendanceService = attendanceService;
+    }
+
+    @PostMapping("/sheets/rebuild")
+    @Operation(
+        summary = "Rebuild a month's sheets",
+        description = "Regenerate the YYYY-MM and Summary-YYYY-MM sheets from the database. " +
+                      "With dryRun=true, only report how the sheets differ from the database."
+    )
+    public ResponseEntity<ApiResponse<MonthRebuildResponse>> rebuildMonth(
+            @RequestParam int year,
+            @RequestParam int month,
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+
+        if (month < 1 || month > 12) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Month must be between 1 and 12"));
+        }
+
+        try {
+            MonthRebuildResponse response = sheetsMonthRebuildService.rebuildMonth(year, month, dryRun);
+            String message = dryRun ? "Dry run completed" : "Month sheets rebuilt";
+            return ResponseEntity.ok(ApiResponse.success(message, response));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body(ApiResponse.error("Failed to rebuild sheets: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/analytics/attendance")
+    @Operation(
+        summary = "Monthly attendance analytics",
+        description = "Worked hours, late arrivals, overtime and attendance rate per user and for everyone " +
+                      "together, for one month (the current month by default). Closed months are cached; " +
+                      "the current month may be up to a minute old."
+    )
+    public ResponseEntity<ApiResponse<AttendanceAnalyticsResponse>> attendanceAnalytics(
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Integer month) {
+
+        YearMonth current = YearMonth.now();
+        if (month != null && (month < 1 || month > 12)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Month must be between 1 and 12"));
+        }
+        YearMonth requested = YearMonth.of(year != null ? year : current.getYear(),
+                month != null ? month : current.getMonthValue());
+        if (requested.isAfter(current)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Month must not be in the future"));
+        }
+
+        AttendanceAnalyticsResponse response = attendanceAnalyticsService.getMonth(requested);
+        return ResponseEntity.ok(ApiResponse.success("Attendance analytics retrieved", response));
+    }
+
+    @GetMapping("/attendance/history")
+    @Operation(
+        summary = "Attendance history of several users",
+        description = "History of up to 100 users for one range in a single query, grouped by user in the " +
+                      "order given. Each user gets at most limitPerUser rows; pass a user's nextStartDate " +
+                      "as startDate to continue that user."
+    )
+    public ResponseEntity<ApiResponse<List<UserHistoryResponse>>> usersAttendanceHistory(
+            @RequestParam List<Long> userIds,
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(defaultValue = "100") int limitPerUser) {
+
+        // Duplicates would share one result list and be truncated twice
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_USERS) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("userIds must name between 1 and " + MAX_BATCH_USERS + " users"));
+        }
+        if (limitPerUser < 1 || limitPerUser > MAX_ROWS_PER_USER) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("limitPerUser must be between 1 and " + MAX_ROWS_PER_USER));
+        }
+
+        List<UserHistoryResponse> histories = attendanceService.getUsersAttendanceHistory(ids,
+                LocalDateTime.parse(startDate), LocalDateTime.parse(endDate), limitPerUser);
+        return ResponseEntity.ok(ApiResponse.success("Attendance history retrieved", histories));
+    }
+
+    @PostMapping("/jfr/start")
+    @Operation(
+        summary = "Start a JFR recording",
+        description = "Start a time-boxed Java Flight Recorder recording. It stops by itself after " +
+                      "durationSeconds; call /jfr/stop to download it. settings is 'default' or 'profile'."
+    )
+    public ResponseEntity<ApiResponse<JfrRecordingResponse>> startJfr(
+            @RequestParam(defaultValue = "60") long durationSeconds,
+            @RequestParam(defaultValue = "profile") String settings) throws IOException {
+
+        JfrRecordingResponse response = jfrRecordingService.start(durationSeconds, settings);
+        return ResponseEntity.ok(ApiResponse.success("JFR recording started", response));
+    }
+
+    @GetMapping("/jfr")
+    @Operation(summary = "Get JFR recording status")
+    public ResponseEntity<ApiResponse<JfrRecordingResponse>> getJfrStatus() {
+        JfrRecordingResponse response = jfrRecordingService.status();
+        if (response == null) {
+            return ResponseEntity.ok(ApiResponse.success("No JFR recording", null));
+        }
+        return ResponseEntity.ok(ApiResponse.success("JFR recording status retrieved", response));
+    }
+
+    @PostMapping("/jfr/stop")
+    @Operation(
+        summary = "Stop and download the JFR recording",
+        description = "Stop the recording if it is still running and stream the .jfr file"
+    )
+    public ResponseEntity<StreamingResponseBody> stopJfr() throws IOException {
+        Path file = jfrRecordingService.stop();
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                Files.copy(file, outputStream);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                .body(body);
+    }
+}
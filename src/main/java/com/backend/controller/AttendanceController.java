@@ -1,18 +1,34 @@
 package com.backend.controller;
 
+import com.backend.cache.AttendanceResponseCache;
+import com.backend.cache.AttendanceVersions;
+import com.backend.config.ResponseFormats;
 import com.backend.dto.*;
+import com.backend.fields.FieldSet;
 import com.backend.service.AttendanceService;
+import com.backend.service.IdempotencyService;
 import com.backend.service.OTPService;
+import com.backend.streaming.StreamingResponseWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import tools.jackson.core.type.TypeReference;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32;
 
 @RestController
 @RequestMapping("/api/attendance")
@@ -22,88 +38,264 @@ public class AttendanceController {
     
     private final AttendanceService attendanceService;
     private final OTPService otpService;
+    private final IdempotencyService idempotencyService;
+    private final AttendanceVersions attendanceVersions;
+    private final AttendanceResponseCache responseCache;
+    private final StreamingResponseWriter streamingResponseWriter;
+    private final ResponseFormats responseFormats;
     
-    public AttendanceController(AttendanceService attendanceService, OTPService otpService) {
+    private static final TypeReference<ApiResponse<AttendanceResponse>> ATTENDANCE_RESPONSE_TYPE =
+            new TypeReference<ApiResponse<AttendanceResponse>>() {};
+    
+    public AttendanceController(AttendanceService attendanceService,
+                                OTPService otpService,
+                                IdempotencyService idempotencyService,
+                                AttendanceVersions attendanceVersions,
+                                AttendanceResponseCache responseCache,
+                                StreamingResponseWriter streamingResponseWriter,
+                                ResponseFormats responseFormats) {
         this.attendanceService = attendanceService;
         this.otpService = otpService;
+        this.idempotencyService = idempotencyService;
+        this.attendanceVersions = attendanceVersions;
+        this.responseCache = responseCache;
+        this.streamingResponseWriter = streamingResponseWriter;
+        this.responseFormats = responseFormats;
     }
     
     @PostMapping("/check-in")
     @Operation(
         summary = "Check in with OTP",
-        description = "Record attendance check-in using OTP code from offline robot"
+        description = "Record attendance check-in using OTP code from offline robot. " +
+                      "Send an Idempotency-Key header to make retries safe: the first response is replayed."
     )
     public ResponseEntity<ApiResponse<AttendanceResponse>> checkIn(
             @Valid @RequestBody CheckInRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             HttpServletRequest httpRequest) {
         
         try {
             Long userId = (Long) httpRequest.getAttribute("userId");
-            AttendanceResponse response = attendanceService.checkIn(userId, request.getOtpCode());
-            return ResponseEntity.ok(ApiResponse.success("Check-in successful", response));
+            if (idempotencyKey == null) {
+                return doCheckIn(userId, request.getOtpCode());
+            }
+            return idempotencyService.execute(userId, idempotencyKey,
+                    IdempotencyService.fingerprint("check-in", request.getOtpCode()),
+                    ATTENDANCE_RESPONSE_TYPE, () -> doCheckIn(userId, request.getOtpCode()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
     
+    private ResponseEntity<ApiResponse<AttendanceResponse>> doCheckIn(Long userId, String otpCode) {
+        try {
+            AttendanceResponse response = attendanceService.checkIn(userId, otpCode);
+            return ResponseEntity.ok(ApiResponse.success("Check-in successful", response));
+        } catch (AttendanceService.AttendanceRejectedException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (RuntimeException e) {
+            return retryLater(e);
+        }
+    }
+    
     @PostMapping("/check-out")
     @Operation(
         summary = "Check out with OTP",
-        description = "Record attendance check-out using OTP code from offline robot"
+        description = "Record attendance check-out using OTP code from offline robot. " +
+                      "Send an Idempotency-Key header to make retries safe: the first response is replayed."
     )
     public ResponseEntity<ApiResponse<AttendanceResponse>> checkOut(
             @Valid @RequestBody CheckOutRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             HttpServletRequest httpRequest) {
         
         try {
             Long userId = (Long) httpRequest.getAttribute("userId");
-            AttendanceResponse response = attendanceService.checkOut(userId, request.getOtpCode());
-            return ResponseEntity.ok(ApiResponse.success("Check-out successful", response));
+            if (idempotencyKey == null) {
+                return doCheckOut(userId, request.getOtpCode());
+            }
+            return idempotencyService.execute(userId, idempotencyKey,
+                    IdempotencyService.fingerprint("check-out", request.getOtpCode()),
+                    ATTENDANCE_RESPONSE_TYPE, () -> doCheckOut(userId, request.getOtpCode()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
     
+    private ResponseEntity<ApiResponse<AttendanceResponse>> doCheckOut(Long userId, String otpCode) {
+        try {
+            AttendanceResponse response = attendanceService.checkOut(userId, otpCode);
+            return ResponseEntity.ok(ApiResponse.success("Check-out successful", response));
+        } catch (AttendanceService.AttendanceRejectedException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (RuntimeException e) {
+            return retryLater(e);
+        }
+    }
+    
+    /**
+     * A failure that may pass on retry (database, group-commit queue, timeout). As a 5xx
+     * it is not stored under the Idempotency-Key, so a retry with the same key runs again.
+     */
+    private ResponseEntity<ApiResponse<AttendanceResponse>> retryLater(RuntimeException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+    
     @GetMapping("/current")
     @Operation(
         summary = "Get current attendance",
-        description = "Get current user's active attendance session"
+        description = "Get current user's active attendance session. " +
+                      "Send If-None-Match to get 304 while the user has not checked in or out."
     )
-    public ResponseEntity<ApiResponse<AttendanceResponse>> getCurrentAttendance(HttpServletRequest request) {
+    public ResponseEntity<ApiResponse<AttendanceResponse>> getCurrentAttendance(HttpServletRequest request,
+                                                                                WebRequest webRequest) {
         Long userId = (Long) request.getAttribute("userId");
-        AttendanceResponse response = attendanceService.getCurrentAttendance(userId);
         
-        if (response == null) {
-            return ResponseEntity.ok(ApiResponse.success("No active attendance", null));
+        VersionedView view = versioned(userId, "current", request);
+        if (webRequest.checkNotModified(view.eTag)) {
+            return null;
         }
         
-        return ResponseEntity.ok(ApiResponse.success("Current attendance retrieved", response));
+        Optional<AttendanceResponse> response = responseCache.get(view.key,
+                () -> Optional.ofNullable(attendanceService.getCurrentAttendance(userId)));
+        
+        ApiResponse<AttendanceResponse> body = response
+                .map(current -> ApiResponse.success("Current attendance retrieved", current))
+                .orElseGet(() -> ApiResponse.success("No active attendance", null));
+        return conditional(view.eTag).body(body);
     }
     
     @GetMapping("/history")
     @Operation(
         summary = "Get attendance history",
-        description = "Get user's attendance history for a date range"
+        description = "Get user's attendance history for a date range. " +
+                      "Pass \"fields\" (e.g. fields=checkInTime,checkOutTime) to get only those fields, or " +
+                      "\"granularity\" (day, week or month) to get one aggregated row per bucket instead of " +
+                      "every check-in. Send If-None-Match to get 304 while the user has not checked in or out."
     )
-    public ResponseEntity<ApiResponse<List<AttendanceResponse>>> getHistory(
+    public ResponseEntity<ApiResponse<List<?>>> getHistory(
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate,
-            HttpServletRequest request) {
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String granularity,
+            HttpServletRequest request,
+            WebRequest webRequest) {
         
         Long userId = (Long) request.getAttribute("userId");
+        LocalDateTime start = historyStart(startDate);
+        LocalDateTime end = historyEnd(endDate);
+        FieldSet selected = fields != null ? FieldSet.parse(fields, AttendanceResponse.FIELDS) : null;
+        HistoryGranularity buckets = granularity != null ? HistoryGranularity.fromParam(granularity) : null;
+        if (selected != null && buckets != null) {
+            throw new RuntimeException("fields cannot be combined with granularity");
+        }
         
-        LocalDateTime start = startDate != null ? 
-                LocalDateTime.parse(startDate) : 
-                LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+        String bucketsKey = buckets != null ? ":granularity=" + buckets.truncUnit() : "";
+        VersionedView view = versioned(userId,
+                "history:" + start + ":" + historyEndKey(endDate, end) + fieldsKey(selected) + bucketsKey, request);
+        if (webRequest.checkNotModified(view.eTag)) {
+            return null;
+        }
         
-        LocalDateTime end = endDate != null ? 
+        List<?> history = responseCache.get(view.key, () -> {
+            if (buckets != null) {
+                return attendanceService.getUserAttendanceBuckets(userId, start, end, buckets);
+            }
+            return selected == null
+                    ? attendanceService.getUserAttendanceHistory(userId, start, end)
+                    : attendanceService.getUserAttendanceHistory(userId, start, end, selected);
+        });
+        return conditional(view.eTag).body(ApiResponse.success("Attendance history retrieved", history));
+    }
+    
+    @GetMapping(value = "/history", params = "stream=true")
+    @Operation(
+        summary = "Stream attendance history",
+        description = "Same envelope as /history, ordered by check-in time, written row by row so " +
+                      "long ranges do not build the whole list in memory. Accepts \"fields\" like /history."
+    )
+    public void streamHistory(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String granularity,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            WebRequest webRequest) throws IOException {
+        
+        if (granularity != null) {
+            // Bucketed history is a handful of rows; there is nothing to stream
+            throw new RuntimeException("granularity cannot be combined with stream=true");
+        }
+        Long userId = (Long) request.getAttribute("userId");
+        LocalDateTime start = historyStart(startDate);
+        LocalDateTime end = historyEnd(endDate);
+        FieldSet selected = fields != null ? FieldSet.parse(fields, AttendanceResponse.FIELDS) : null;
+        
+        VersionedView view = versioned(userId,
+                "history-stream:" + start + ":" + historyEndKey(endDate, end) + fieldsKey(selected), request);
+        if (webRequest.checkNotModified(view.eTag)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, view.eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        
+        streamingResponseWriter.write(request, response, "Attendance history retrieved", consumer -> {
+            if (selected == null) {
+                attendanceService.streamUserAttendanceHistory(userId, start, end, consumer::accept);
+            } else {
+                attendanceService.streamUserAttendanceHistory(userId, start, end, selected, consumer::accept);
+            }
+        });
+    }
+    
+    private LocalDateTime historyStart(String startDate) {
+        return startDate != null ? 
+                LocalDateTime.parse(startDate) : 
+                LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+    }
+    
+    private LocalDateTime historyEnd(String endDate) {
+        return endDate != null ? 
                 LocalDateTime.parse(endDate) : 
                 LocalDateTime.now();
-        
-        List<AttendanceResponse> history = attendanceService.getUserAttendanceHistory(userId, start, end);
-        return ResponseEntity.ok(ApiResponse.success("Attendance history retrieved", history));
+    }
+    
+    /**
+     * An open-ended range only changes with a write, so "now" is part of the key, not its value
+     */
+    private String historyEndKey(String endDate, LocalDateTime end) {
+        return endDate != null ? end.toString() : "now";
+    }
+    
+    private String fieldsKey(FieldSet fields) {
+        return fields != null ? ":fields=" + fields : "";
+    }
+    
+    /**
+     * Key and ETag for a view of a user's attendance at its current version.
+     * The ETag names the negotiated format, since JSON, CBOR and Smile bodies differ byte for byte.
+     */
+    private VersionedView versioned(Long userId, String view, HttpServletRequest request) {
+        long version = attendanceVersions.current(userId);
+        String format = ResponseFormats.nameOf(responseFormats.negotiate(request));
+        // The view (query params) is hashed to keep the header short; the cache key keeps it whole
+        CRC32 crc = new CRC32();
+        crc.update(view.getBytes(StandardCharsets.UTF_8));
+        return new VersionedView(userId + ":" + version + ":" + view,
+                "\"" + userId + "-" + version + "-" + Long.toHexString(crc.getValue()) + "-" + format + "\"");
+    }
+    
+    private ResponseEntity.BodyBuilder conditional(String eTag) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache().cachePrivate());
     }
     
     @GetMapping("/otp/current")
@@ -119,6 +311,17 @@ public class AttendanceController {
         return ResponseEntity.ok(ApiResponse.success("Current OTP code", info));
     }
     
+    // Response cache key and strong ETag of a versioned view
+    private static class VersionedView {
+        private final String key;
+        private final String eTag;
+        
+        VersionedView(String key, String eTag) {
+            this.key = key;
+            this.eTag = eTag;
+        }
+    }
+    
     // Inner class for OTP info
     public static class OTPInfo {
         private String otpCode;
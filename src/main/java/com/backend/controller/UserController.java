@@ -1,18 +1,34 @@
 package com.backend.controller;
 
+import com.backend.cache.TableVersions;
+import com.backend.cache.UserSummaryCache;
+import com.backend.config.ResponseFormats;
 import com.backend.dto.ApiResponse;
+import com.backend.dto.UserPageResponse;
 import com.backend.dto.UserResponse;
-import com.backend.entity.User;
+import com.backend.fields.FieldSet;
 import com.backend.repository.UserRepository;
+import com.backend.streaming.StreamingResponseWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.Tuple;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/users")
@@ -20,10 +36,31 @@ import java.util.stream.Collectors;
 @SecurityRequirement(name = "Bearer Authentication")
 public class UserController {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_SEARCH_PAGE_SIZE = 50;
+    // Shorter queries have too few trigrams to use the index
+    private static final int MIN_SEARCH_LENGTH = 3;
+    
     private final UserRepository userRepository;
+    private final TableVersions tableVersions;
+    private final UserSummaryCache userSummaryCache;
+    private final StreamingResponseWriter streamingResponseWriter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ResponseFormats responseFormats;
     
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, TableVersions tableVersions,
+                          UserSummaryCache userSummaryCache,
+                          StreamingResponseWriter streamingResponseWriter,
+                          PlatformTransactionManager transactionManager,
+                          ResponseFormats responseFormats) {
         this.userRepository = userRepository;
+        this.tableVersions = tableVersions;
+        this.userSummaryCache = userSummaryCache;
+        this.streamingResponseWriter = streamingResponseWriter;
+        // Streamed queries need a transaction that stays open while the rows are written
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.responseFormats = responseFormats;
     }
     
     @GetMapping("/me")
@@ -34,25 +71,115 @@ public class UserController {
     public ResponseEntity<ApiResponse<UserResponse>> getCurrentUser(HttpServletRequest request) {
         Long userId = (Long) request.getAttribute("userId");
         
-        User user = userRepository.findById(userId)
+        UserResponse userResponse = userSummaryCache.find(userId)
+                .map(UserResponse::fromSummary)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        UserResponse userResponse = UserResponse.fromUser(user);
         return ResponseEntity.ok(ApiResponse.success("User retrieved successfully", userResponse));
     }
     
     @GetMapping
     @Operation(
         summary = "Get all users",
-        description = "Retrieve a list of all registered users (requires authentication)"
+        description = "List users ordered by id, one page at a time (requires authentication). " +
+                "Pass the returned nextCursor as \"after\" for the next page, and \"prefix\" to filter " +
+                "by the start of the full name or username. Pass \"fields\" (e.g. fields=id,fullName) to get " +
+                "only those fields. Send If-None-Match to get 304 while no user changed."
+    )
+    public ResponseEntity<ApiResponse<UserPageResponse>> getAllUsers(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        FieldSet selected = fields != null ? FieldSet.parse(fields, UserResponse.FIELDS) : null;
+        
+        // Any user write bumps the version, so the same version means the same page
+        String eTag = directoryETag(webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        
+        UserPageResponse page = selected == null
+                ? directoryPage(after, limit, prefix)
+                : directoryPage(after, limit, prefix, selected);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(ApiResponse.success("Users retrieved successfully", page));
+    }
+    
+    @GetMapping(params = "stream=true")
+    @Operation(
+        summary = "Stream all users",
+        description = "Every user after \"after\" (optionally filtered by \"prefix\") in one response, " +
+                "written row by row so the directory is never held in memory. Data is the array of users. " +
+                "Accepts \"fields\" like the paged list."
+    )
+    public void streamAllUsers(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) String fields,
+            HttpServletRequest request,
+            HttpServletResponse response,
+            WebRequest webRequest) throws IOException {
+        
+        FieldSet selected = fields != null ? FieldSet.parse(fields, UserResponse.FIELDS) : null;
+        String eTag = directoryETag(webRequest);
+        if (webRequest.checkNotModified(eTag)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        
+        String pattern = likePrefix(prefix);
+        streamingResponseWriter.write(request, response, "Users retrieved successfully",
+                consumer -> readOnlyTransaction.executeWithoutResult(status -> {
+                    if (selected != null) {
+                        try (Stream<Tuple> rows = userRepository.streamDirectoryFields(after, pattern, selected)) {
+                            rows.forEach(row -> consumer.accept(selected.toMap(row)));
+                        }
+                        return;
+                    }
+                    try (Stream<UserResponse> users = pattern == null
+                            ? userRepository.streamDirectory(after)
+                            : userRepository.streamDirectoryByPattern(after, pattern)) {
+                        users.forEach(consumer);
+                    }
+                }));
+    }
+    
+    @GetMapping("/search")
+    @Operation(
+        summary = "Search users by name",
+        description = "Fuzzy search on full name and username (requires authentication). Matches substrings " +
+                "and near spellings, prefix matches first, then by similarity. At least 3 characters."
     )
-    public ResponseEntity<ApiResponse<List<UserResponse>>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        List<UserResponse> userResponses = users.stream()
-                .map(UserResponse::fromUser)
-                .collect(Collectors.toList());
+    public ResponseEntity<ApiResponse<List<UserResponse>>> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         
-        return ResponseEntity.ok(ApiResponse.success("Users retrieved successfully", userResponses));
+        String query = q.trim().toLowerCase(Locale.ROOT);
+        if (query.length() < MIN_SEARCH_LENGTH) {
+            throw new RuntimeException("Search query must be at least " + MIN_SEARCH_LENGTH + " characters");
+        }
+        if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new RuntimeException("page must be 0 or more and size between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        
+        String escaped = escapeLike(query);
+        List<UserResponse> users = userRepository.search(query, "%" + escaped + "%", escaped + "%", size, page * size)
+                .stream()
+                .map(row -> new UserResponse(row.getId(), row.getUsername(), row.getEmail(),
+                        row.getFullName(), row.getCreatedAt()))
+                .toList();
+        
+        return ResponseEntity.ok(ApiResponse.success("Users retrieved successfully", users));
     }
     
     @GetMapping("/{id}")
@@ -61,10 +188,66 @@ public class UserController {
         description = "Retrieve a specific user by their ID (requires authentication)"
     )
     public ResponseEntity<ApiResponse<UserResponse>> getUserById(@PathVariable Long id) {
-        User user = userRepository.findById(id)
+        UserResponse userResponse = userSummaryCache.find(id)
+                .map(UserResponse::fromSummary)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
-        
-        UserResponse userResponse = UserResponse.fromUser(user);
         return ResponseEntity.ok(ApiResponse.success("User retrieved successfully", userResponse));
     }
+    
+    /**
+     * Directory page of full users. One extra row is fetched to learn whether there is a next page.
+     */
+    private UserPageResponse directoryPage(long after, int limit, String prefix) {
+        String pattern = likePrefix(prefix);
+        Limit rows = Limit.of(limit + 1);
+        List<UserResponse> users = pattern == null
+                ? userRepository.findDirectoryPage(after, rows)
+                : userRepository.findDirectoryPageByPattern(after, pattern, rows);
+        
+        Long nextCursor = null;
+        if (users.size() > limit) {
+            users = users.subList(0, limit);
+            nextCursor = users.get(limit - 1).getId();
+        }
+        return new UserPageResponse(users, nextCursor);
+    }
+    
+    /**
+     * Directory page with only the requested fields; the id is always selected for the cursor
+     */
+    private UserPageResponse directoryPage(long after, int limit, String prefix, FieldSet fields) {
+        List<Tuple> rows = userRepository.findDirectoryFields(after, likePrefix(prefix), fields, limit + 1);
+        
+        Long nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = rows.get(limit - 1).get("id", Long.class);
+        }
+        return new UserPageResponse(rows.stream().map(fields::toMap).collect(Collectors.toList()), nextCursor);
+    }
+    
+    /**
+     * LIKE pattern for a name prefix, or null when there is no prefix filter
+     */
+    private static String likePrefix(String prefix) {
+        return prefix == null || prefix.isBlank() ? null : escapeLike(prefix) + "%";
+    }
+    
+    /**
+     * Weak ETag of the user directory for the negotiated format
+     */
+    private String directoryETag(WebRequest webRequest) {
+        String format = ResponseFormats.nameOf(responseFormats.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT)));
+        return "W/\"users-" + tableVersions.current(TableVersions.USERS) + "-" + format + "\"";
+    }
+    
+    /**
+     * Lower-case a value and escape LIKE wildcards with a backslash
+     */
+    private static String escapeLike(String value) {
+        return value.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
 }
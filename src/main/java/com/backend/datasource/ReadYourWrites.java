@@ -0,0 +1,79 @@
+package com.backend.datasource;
+
+import com.backend.cache.CacheInvalidation;
+import com.backend.cache.InvalidationListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes pin. After a user writes, their reads are sent to the primary
+ * for a short window, longer than the replica lag threshold, so they never read
+ * a replica that has not caught up with their own write. Writes made on other
+ * nodes arrive through the cache invalidation bus and pin the user here too.
+ */
+@Component
+public class ReadYourWrites implements InvalidationListener {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> pinnedUsers;
+
+    public ReadYourWrites(@Value("${app.datasource.replica.pin-seconds:10}") long pinSeconds) {
+        this.pinnedUsers = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(pinSeconds))
+                .build();
+    }
+
+    /**
+     * Pin a user to the primary after a write. Also pins the rest of the current request.
+     */
+    public void pin(Long userId) {
+        if (userId != null) {
+            pinnedUsers.put(userId, Boolean.TRUE);
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.getUserId() != null) {
+            pinnedUsers.put(invalidation.getUserId(), Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        // Pins expire on their own, and a missed write is older than the pin window by the time we reconnect
+    }
+
+    public boolean isPinned(Long userId) {
+        return userId != null && pinnedUsers.getIfPresent(userId) != null;
+    }
+
+    /**
+     * Whether reads on this thread must go to the primary
+     */
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    /**
+     * Bind the pin state for the user making the current request
+     */
+    public void bind(Long userId) {
+        if (isPinned(userId)) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        } else {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+
+    public void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
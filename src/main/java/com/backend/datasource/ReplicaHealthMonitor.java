@@ -0,0 +1,79 @@
+package com.backend.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Checks every replica on a fixed delay. A replica is used only while it answers,
+ * is streaming and replaying WAL, and its replay lag is within the threshold;
+ * otherwise reads fall back to the primary.
+ */
+public class ReplicaHealthMonitor {
+
+    // Lag: zero when the replica has replayed everything it received, else time since the last
+    // replayed commit. That alone reads zero on a replica that has stopped receiving, so it
+    // must also have a running WAL receiver and replay must not be paused. The receiver's
+    // status is only visible with pg_read_all_stats; without it a running receiver is enough.
+    private static final String HEALTH_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END, "
+            + "NOT pg_is_in_recovery() OR (NOT pg_is_wal_replay_paused() AND EXISTS ("
+            + "SELECT 1 FROM pg_stat_wal_receiver WHERE COALESCE(status, 'streaming') = 'streaming'))";
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final double maxLagSeconds;
+    private final int queryTimeoutSeconds;
+
+    public ReplicaHealthMonitor(ReplicaRoutingDataSource routingDataSource,
+                                double maxLagSeconds,
+                                int queryTimeoutSeconds,
+                                MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagSeconds = maxLagSeconds;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            Gauge.builder("datasource.replica.lag", replica, ReplicaRoutingDataSource.Replica::getLagSeconds)
+                    .description("Replay lag of the replica at the last health check (-1 if unreachable)")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .description("Whether read-only transactions are routed to the replica")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-interval-ms:5000}")
+    public void checkReplicas() {
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            try (Connection connection = replica.getDataSource().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(queryTimeoutSeconds);
+                try (ResultSet resultSet = statement.executeQuery(HEALTH_QUERY)) {
+                    resultSet.next();
+                    double lag = resultSet.getDouble(1);
+                    boolean streaming = resultSet.getBoolean(2);
+                    boolean healthy = streaming && lag <= maxLagSeconds;
+                    if (replica.isHealthy() && !streaming) {
+                        System.err.println("Replica " + replica.getName() + " is not streaming or replaying WAL, reading from primary");
+                    } else if (replica.isHealthy() && !healthy) {
+                        System.err.println("Replica " + replica.getName() + " is " + lag + "s behind, reading from primary");
+                    }
+                    replica.update(healthy, lag);
+                }
+            } catch (Exception e) {
+                if (replica.isHealthy()) {
+                    System.err.println("Replica " + replica.getName() + " failed its health check: " + e.getMessage());
+                }
+                replica.update(false, -1);
+            }
+        }
+    }
+}
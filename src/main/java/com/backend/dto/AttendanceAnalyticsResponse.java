@@ -0,0 +1,77 @@
+package com.backend.dto;
+
+import java.util.List;
+
+public class AttendanceAnalyticsResponse {
+    
+    private int year;
+    private int month;
+    // Weekdays in the month, up to today for the current month
+    private int workingDays;
+    // Ended months with no open session no longer change and are cached until restart
+    private boolean closed;
+    private AttendanceStats team;
+    private List<AttendanceStats> users;
+    
+    // Constructors
+    public AttendanceAnalyticsResponse() {}
+    
+    public AttendanceAnalyticsResponse(int year, int month, int workingDays, boolean closed,
+                                       AttendanceStats team, List<AttendanceStats> users) {
+        this.year = year;
+        this.month = month;
+        this.workingDays = workingDays;
+        this.closed = closed;
+        this.team = team;
+        this.users = users;
+    }
+    
+    // Getters and Setters
+    public int getYear() {
+        return year;
+    }
+    
+    public void setYear(int year) {
+        this.year = year;
+    }
+    
+    public int getMonth() {
+        return month;
+    }
+    
+    public void setMonth(int month) {
+        this.month = month;
+    }
+    
+    public int getWorkingDays() {
+        return workingDays;
+    }
+    
+    public void setWorkingDays(int workingDays) {
+        this.workingDays = workingDays;
+    }
+    
+    public boolean isClosed() {
+        return closed;
+    }
+    
+    public void setClosed(boolean closed) {
+        this.closed = closed;
+    }
+    
+    public AttendanceStats getTeam() {
+        return team;
+    }
+    
+    public void setTeam(AttendanceStats team) {
+        this.team = team;
+    }
+    
+    public List<AttendanceStats> getUsers() {
+        return users;
+    }
+    
+    public void setUsers(List<AttendanceStats> users) {
+        this.users = users;
+    }
+}
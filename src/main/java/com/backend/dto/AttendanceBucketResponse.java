@@ -0,0 +1,81 @@
+package com.backend.dto;
+
+import com.backend.repository.AttendanceBucket;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class AttendanceBucketResponse {
+    
+    // First day of the day, week (Monday) or month
+    private LocalDate bucketStart;
+    private long daysPresent;
+    // Worked minutes of checked-out sessions
+    private long totalMinutes;
+    private LocalDateTime firstCheckIn;
+    private LocalDateTime lastCheckOut;
+    
+    // Constructors
+    public AttendanceBucketResponse() {}
+    
+    public AttendanceBucketResponse(LocalDate bucketStart, long daysPresent, long totalMinutes,
+                                    LocalDateTime firstCheckIn, LocalDateTime lastCheckOut) {
+        this.bucketStart = bucketStart;
+        this.daysPresent = daysPresent;
+        this.totalMinutes = totalMinutes;
+        this.firstCheckIn = firstCheckIn;
+        this.lastCheckOut = lastCheckOut;
+    }
+    
+    // Factory method to convert an aggregated bucket row to AttendanceBucketResponse
+    public static AttendanceBucketResponse fromBucket(AttendanceBucket bucket) {
+        return new AttendanceBucketResponse(
+            bucket.getBucketStart().toLocalDate(),
+            bucket.getDaysPresent(),
+            bucket.getTotalMinutes(),
+            bucket.getFirstCheckIn(),
+            bucket.getLastCheckOut()
+        );
+    }
+    
+    // Getters and Setters
+    public LocalDate getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDate bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public long getDaysPresent() {
+        return daysPresent;
+    }
+    
+    public void setDaysPresent(long daysPresent) {
+        this.daysPresent = daysPresent;
+    }
+    
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+    
+    public void setTotalMinutes(long totalMinutes) {
+        this.totalMinutes = totalMinutes;
+    }
+    
+    public LocalDateTime getFirstCheckIn() {
+        return firstCheckIn;
+    }
+    
+    public void setFirstCheckIn(LocalDateTime firstCheckIn) {
+        this.firstCheckIn = firstCheckIn;
+    }
+    
+    public LocalDateTime getLastCheckOut() {
+        return lastCheckOut;
+    }
+    
+    public void setLastCheckOut(LocalDateTime lastCheckOut) {
+        this.lastCheckOut = lastCheckOut;
+    }
+}
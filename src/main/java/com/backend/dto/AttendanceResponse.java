@@ -1,11 +1,24 @@
 package com.backend.dto;
 
 import com.backend.entity.Attendance;
+import com.backend.fields.SparseField;
 import java.time.LocalDateTime;
 import java.time.Duration;
+import java.util.List;
 
 public class AttendanceResponse {
     
+    // Fields selectable with ?fields=; duration is only computed when asked for
+    public static final List<SparseField> FIELDS = List.of(
+            SparseField.column("id"),
+            SparseField.column("fullName"),
+            SparseField.column("checkInTime"),
+            SparseField.column("checkOutTime"),
+            SparseField.derived("status",
+                    row -> row.get("status", Attendance.AttendanceStatus.class).name(), "status"),
+            SparseField.derived("duration", row -> formatDuration(row.get("checkInTime", LocalDateTime.class),
+                    row.get("checkOutTime", LocalDateTime.class)), "checkInTime", "checkOutTime"));
+    
     private Long id;
     private String fullName;
     private LocalDateTime checkInTime;
@@ -28,24 +41,27 @@ public class AttendanceResponse {
     
     // Factory method to convert Attendance entity to AttendanceResponse
     public static AttendanceResponse fromAttendance(Attendance attendance) {
-        String duration = "-";
-        if (attendance.getCheckOutTime() != null) {
-            long minutes = Duration.between(attendance.getCheckInTime(), attendance.getCheckOutTime()).toMinutes();
-            long hours = minutes / 60;
-            long mins = minutes % 60;
-            duration = String.format("%d:%02d", hours, mins);
-        }
-        
         return new AttendanceResponse(
             attendance.getId(),
             attendance.getFullName(),
             attendance.getCheckInTime(),
             attendance.getCheckOutTime(),
             attendance.getStatus().name(),
-            duration
+            formatDuration(attendance.getCheckInTime(), attendance.getCheckOutTime())
         );
     }
     
+    // Worked time as h:mm, or "-" while checked in
+    static String formatDuration(LocalDateTime checkInTime, LocalDateTime checkOutTime) {
+        if (checkOutTime == null) {
+            return "-";
+        }
+        long minutes = Duration.between(checkInTime, checkOutTime).toMinutes();
+        long hours = minutes / 60;
+        long mins = minutes % 60;
+        return String.format("%d:%02d", hours, mins);
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
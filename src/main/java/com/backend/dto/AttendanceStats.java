@@ -0,0 +1,98 @@
+package com.backend.dto;
+
+public class AttendanceStats {
+    
+    // Null for the team totals
+    private Long userId;
+    private String fullName;
+    // Days with a check-in; person-days for the team
+    private long daysPresent;
+    private long workedMinutes;
+    // Worked hours per completed day
+    private double averageDailyHours;
+    private long lateArrivals;
+    private long overtimeMinutes;
+    // Days present over working days, 0 to 1
+    private double attendanceRate;
+    
+    // Constructors
+    public AttendanceStats() {}
+    
+    public AttendanceStats(Long userId, String fullName, long daysPresent, long workedMinutes,
+                           double averageDailyHours, long lateArrivals, long overtimeMinutes,
+                           double attendanceRate) {
+        this.userId = userId;
+        this.fullName = fullName;
+        this.daysPresent = daysPresent;
+        this.workedMinutes = workedMinutes;
+        this.averageDailyHours = averageDailyHours;
+        this.lateArrivals = lateArrivals;
+        this.overtimeMinutes = overtimeMinutes;
+        this.attendanceRate = attendanceRate;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+    
+    public long getDaysPresent() {
+        return daysPresent;
+    }
+    
+    public void setDaysPresent(long daysPresent) {
+        this.daysPresent = daysPresent;
+    }
+    
+    public long getWorkedMinutes() {
+        return workedMinutes;
+    }
+    
+    public void setWorkedMinutes(long workedMinutes) {
+        this.workedMinutes = workedMinutes;
+    }
+    
+    public double getAverageDailyHours() {
+        return averageDailyHours;
+    }
+    
+    public void setAverageDailyHours(double averageDailyHours) {
+        this.averageDailyHours = averageDailyHours;
+    }
+    
+    public long getLateArrivals() {
+        return lateArrivals;
+    }
+    
+    public void setLateArrivals(long lateArrivals) {
+        this.lateArrivals = lateArrivals;
+    }
+    
+    public long getOvertimeMinutes() {
+        return overtimeMinutes;
+    }
+    
+    public void setOvertimeMinutes(long overtimeMinutes) {
+        this.overtimeMinutes = overtimeMinutes;
+    }
+    
+    public double getAttendanceRate() {
+        return attendanceRate;
+    }
+    
+    public void setAttendanceRate(double attendanceRate) {
+        this.attendanceRate = attendanceRate;
+    }
+}
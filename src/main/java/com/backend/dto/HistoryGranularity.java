@@ -0,0 +1,27 @@
+package com.backend.dto;
+
+import java.util.Locale;
+
+/**
+ * Bucket size for downsampled history (?granularity=day|week|month)
+ */
+public enum HistoryGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+    
+    public static HistoryGranularity fromParam(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("granularity must be day, week or month");
+        }
+    }
+    
+    /**
+     * Field name for Postgres date_trunc
+     */
+    public String truncUnit() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,75 @@
+package com.backend.dto;
+
+import java.time.Instant;
+
+public class JfrRecordingResponse {
+
+    private long id;
+    private String name;
+    private String state;
+    private String settings;
+    private Instant startTime;
+    private long durationSeconds;
+
+    // Constructors
+    public JfrRecordingResponse() {}
+
+    public JfrRecordingResponse(long id, String name, String state, String settings,
+                                Instant startTime, long durationSeconds) {
+        this.id = id;
+        this.name = name;
+        this.state = state;
+        this.settings = settings;
+        this.startTime = startTime;
+        this.durationSeconds = durationSeconds;
+    }
+
+    // Getters and Setters
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(long durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+}
@@ -0,0 +1,142 @@
+package com.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MonthRebuildResponse {
+
+    private int year;
+    private int month;
+    private boolean dryRun;
+    private int detailRows;
+    private int summaryRows;
+
+    // Dry-run diff: counts plus a bounded sample of the affected rows
+    private int detailRowsToAdd;
+    private int detailRowsToRemove;
+    private int summaryRowsChanged;
+    private List<String> sampleDetailRowsToAdd = new ArrayList<>();
+    private List<String> sampleDetailRowsToRemove = new ArrayList<>();
+    private List<String> sampleSummaryNamesChanged = new ArrayList<>();
+
+    // Constructors
+    public MonthRebuildResponse() {}
+
+    public MonthRebuildResponse(int year, int month, boolean dryRun, int detailRows, int summaryRows) {
+        this.year = year;
+        this.month = month;
+        this.dryRun = dryRun;
+        this.detailRows = detailRows;
+        this.summaryRows = summaryRows;
+    }
+
+    public void addDetailRowToAdd(String row, int sampleSize) {
+        detailRowsToAdd++;
+        if (sampleDetailRowsToAdd.size() < sampleSize) {
+            sampleDetailRowsToAdd.add(row);
+        }
+    }
+
+    public void addDetailRowToRemove(String row, int sampleSize) {
+        detailRowsToRemove++;
+        if (sampleDetailRowsToRemove.size() < sampleSize) {
+            sampleDetailRowsToRemove.add(row);
+        }
+    }
+
+    public void addSummaryNameChanged(String name, int sampleSize) {
+        summaryRowsChanged++;
+        if (sampleSummaryNamesChanged.size() < sampleSize) {
+            sampleSummaryNamesChanged.add(name);
+        }
+    }
+
+    // Getters and Setters
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public int getDetailRows() {
+        return detailRows;
+    }
+
+    public void setDetailRows(int detailRows) {
+        this.detailRows = detailRows;
+    }
+
+    public int getSummaryRows() {
+        return summaryRows;
+    }
+
+    public void setSummaryRows(int summaryRows) {
+        this.summaryRows = summaryRows;
+    }
+
+    public int getDetailRowsToAdd() {
+        return detailRowsToAdd;
+    }
+
+    public void setDetailRowsToAdd(int detailRowsToAdd) {
+        this.detailRowsToAdd = detailRowsToAdd;
+    }
+
+    public int getDetailRowsToRemove() {
+        return detailRowsToRemove;
+    }
+
+    public void setDetailRowsToRemove(int detailRowsToRemove) {
+        this.detailRowsToRemove = detailRowsToRemove;
+    }
+
+    public int getSummaryRowsChanged() {
+        return summaryRowsChanged;
+    }
+
+    public void setSummaryRowsChanged(int summaryRowsChanged) {
+        this.summaryRowsChanged = summaryRowsChanged;
+    }
+
+    public List<String> getSampleDetailRowsToAdd() {
+        return sampleDetailRowsToAdd;
+    }
+
+    public void setSampleDetailRowsToAdd(List<String> sampleDetailRowsToAdd) {
+        this.sampleDetailRowsToAdd = sampleDetailRowsToAdd;
+    }
+
+    public List<String> getSampleDetailRowsToRemove() {
+        return sampleDetailRowsToRemove;
+    }
+
+    public void setSampleDetailRowsToRemove(List<String> sampleDetailRowsToRemove) {
+        this.sampleDetailRowsToRemove = sampleDetailRowsToRemove;
+    }
+
+    public List<String> getSampleSummaryNamesChanged() {
+        return sampleSummaryNamesChanged;
+    }
+
+    public void setSampleSummaryNamesChanged(List<String> sampleSummaryNamesChanged) {
+        this.sampleSummaryNamesChanged = sampleSummaryNamesChanged;
+    }
+}
@@ -0,0 +1,46 @@
+package com.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class UserHistoryResponse {
+    
+    private Long userId;
+    private List<AttendanceResponse> attendances;
+    // Pass as startDate to get this user's next rows; null when the range is exhausted
+    private LocalDateTime nextStartDate;
+    
+    // Constructors
+    public UserHistoryResponse() {}
+    
+    public UserHistoryResponse(Long userId, List<AttendanceResponse> attendances, LocalDateTime nextStartDate) {
+        this.userId = userId;
+        this.attendances = attendances;
+        this.nextStartDate = nextStartDate;
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public List<AttendanceResponse> getAttendances() {
+        return attendances;
+    }
+    
+    public void setAttendances(List<AttendanceResponse> attendances) {
+        this.attendances = attendances;
+    }
+    
+    public LocalDateTime getNextStartDate() {
+        return nextStartDate;
+    }
+    
+    public void setNextStartDate(LocalDateTime nextStartDate) {
+        this.nextStartDate = nextStartDate;
+    }
+}
@@ -0,0 +1,36 @@
+package com.backend.dto;
+
+import java.util.List;
+
+public class UserPageResponse {
+    
+    // UserResponse, or maps of the requested fields when ?fields= is given
+    private List<?> users;
+    // Pass as "after" to fetch the next page; null on the last page
+    private Long nextCursor;
+    
+    // Constructors
+    public UserPageResponse() {}
+    
+    public UserPageResponse(List<?> users, Long nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<?> getUsers() {
+        return users;
+    }
+    
+    public void setUsers(List<?> users) {
+        this.users = users;
+    }
+    
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
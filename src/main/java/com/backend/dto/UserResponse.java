@@ -1,11 +1,22 @@
 package com.backend.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import com.backend.cache.UserSummary;
 import com.backend.entity.User;
+import com.backend.fields.SparseField;
 
 public class UserResponse {
     
+    // Fields selectable with ?fields=
+    public static final List<SparseField> FIELDS = List.of(
+            SparseField.column("id"),
+            SparseField.column("username"),
+            SparseField.column("email"),
+            SparseField.column("fullName"),
+            SparseField.column("createdAt"));
+    
     private Long id;
     private String username;
     private String email;
@@ -34,6 +45,17 @@ public class UserResponse {
         );
     }
     
+    // Factory method to convert a cached UserSummary to UserResponse
+    public static UserResponse fromSummary(UserSummary user) {
+        return new UserResponse(
+            user.getId(),
+            user.getUsername(),
+            user.getEmail(),
+            user.getFullName(),
+            user.getCreatedAt()
+        );
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
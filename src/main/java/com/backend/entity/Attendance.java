@@ -1,9 +1,11 @@
 package com.backend.entity;
 
+import com.backend.cache.EntityInvalidationListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(EntityInvalidationListener.class)
 @Table(name = "attendances")
 public class Attendance {
     
@@ -23,6 +25,10 @@ public class Attendance {
     @Column(name = "check_out_time")
     private LocalDateTime checkOutTime;
     
+    // Worked minutes, set at check-out so analytics can sum a column
+    @Column(name = "duration_minutes")
+    private Integer durationMinutes;
+    
     @Column(name = "otp_code", nullable = false)
     private String otpCode;
     
@@ -103,6 +109,14 @@ public class Attendance {
         this.checkOutTime = checkOutTime;
     }
     
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+    
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+    
     public String getOtpCode() {
         return otpCode;
     }
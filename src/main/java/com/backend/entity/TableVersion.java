@@ -0,0 +1,44 @@
+package com.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Change counter for a table, bumped in the same transaction as every write
+ * to it. Used to build cheap ETags for list endpoints.
+ */
+@Entity
+@Table(name = "table_versions")
+public class TableVersion {
+    
+    @Id
+    @Column(name = "table_name", nullable = false)
+    private String tableName;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    // Constructors
+    public TableVersion() {}
+    
+    public TableVersion(String tableName, Long version) {
+        this.tableName = tableName;
+        this.version = version;
+    }
+    
+    // Getters and Setters
+    public String getTableName() {
+        return tableName;
+    }
+    
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -1,9 +1,11 @@
 package com.backend.entity;
 
+import com.backend.cache.EntityInvalidationListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(EntityInvalidationListener.class)
 @Table(name = "users")
 public class User {
     
@@ -0,0 +1,84 @@
+package com.backend.fields;
+
+import jakarta.persistence.Tuple;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields a client asked for with ?fields=a,b,c. Queries select only the
+ * attributes these fields are read from, and rows are written as maps holding
+ * only these fields, in the requested order.
+ */
+public final class FieldSet {
+
+    private final List<SparseField> fields;
+
+    private FieldSet(List<SparseField> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parse a comma-separated fields parameter against the fields a response offers
+     */
+    public static FieldSet parse(String param, List<SparseField> available) {
+        Map<String, SparseField> byName = available.stream()
+                .collect(Collectors.toMap(SparseField::getName, field -> field));
+        Set<SparseField> selected = new LinkedHashSet<>();
+        for (String name : param.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            SparseField field = byName.get(trimmed);
+            if (field == null) {
+                throw new RuntimeException("Unknown field: " + trimmed + ". Available fields: " +
+                        available.stream().map(SparseField::getName).collect(Collectors.joining(",")));
+            }
+            selected.add(field);
+        }
+        if (selected.isEmpty()) {
+            throw new RuntimeException("fields must name at least one field");
+        }
+        return new FieldSet(new ArrayList<>(selected));
+    }
+
+    /**
+     * JPQL select list for these fields, each attribute aliased by its own name.
+     * Extra attributes (e.g. a cursor column) are selected even if no field needs them.
+     */
+    public String selectClause(String alias, String... extraAttributes) {
+        Set<String> attributes = new LinkedHashSet<>(Arrays.asList(extraAttributes));
+        for (SparseField field : fields) {
+            attributes.addAll(field.getAttributes());
+        }
+        return attributes.stream()
+                .map(attribute -> alias + "." + attribute + " AS " + attribute)
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * The requested fields of a row selected with selectClause
+     */
+    public Map<String, Object> toMap(Tuple row) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (SparseField field : fields) {
+            values.put(field.getName(), field.valueOf(row));
+        }
+        return values;
+    }
+
+    /**
+     * Canonical form, for cache keys and ETags
+     */
+    @Override
+    public String toString() {
+        return fields.stream().map(SparseField::getName).collect(Collectors.joining(","));
+    }
+}
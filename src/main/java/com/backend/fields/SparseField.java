@@ -0,0 +1,49 @@
+package com.backend.fields;
+
+import jakarta.persistence.Tuple;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A field that can be requested with ?fields=: the entity attributes it is read
+ * from and how its value is built from a row holding those attributes.
+ */
+public final class SparseField {
+
+    private final String name;
+    private final List<String> attributes;
+    private final Function<Tuple, Object> value;
+
+    private SparseField(String name, List<String> attributes, Function<Tuple, Object> value) {
+        this.name = name;
+        this.attributes = attributes;
+        this.value = value;
+    }
+
+    /**
+     * A field read as is from the entity attribute of the same name
+     */
+    public static SparseField column(String name) {
+        return new SparseField(name, List.of(name), row -> row.get(name));
+    }
+
+    /**
+     * A field computed from one or more entity attributes, only when it is requested
+     */
+    public static SparseField derived(String name, Function<Tuple, Object> value, String... attributes) {
+        return new SparseField(name, List.of(attributes), value);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    List<String> getAttributes() {
+        return attributes;
+    }
+
+    Object valueOf(Tuple row) {
+        return value.apply(row);
+    }
+}
@@ -0,0 +1,36 @@
+package com.backend.filter;
+
+import com.backend.controller.AdminController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Second admin check bound to the handler rather than the path, so a URI the
+ * authentication filter reads differently from request mapping still cannot
+ * reach AdminController
+ */
+@Component
+public class AdminAccessInterceptor implements HandlerInterceptor {
+
+    private final PasetoAuthenticationFilter pasetoAuthenticationFilter;
+
+    public AdminAccessInterceptor(PasetoAuthenticationFilter pasetoAuthenticationFilter) {
+        this.pasetoAuthenticationFilter = pasetoAuthenticationFilter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (handler instanceof HandlerMethod method
+                && AdminController.class.isAssignableFrom(method.getBeanType())
+                && !pasetoAuthenticationFilter.isAdmin((String) request.getAttribute("username"))) {
+            pasetoAuthenticationFilter.sendErrorResponse(request, response, HttpServletResponse.SC_FORBIDDEN,
+                    "Admin access required");
+            return false;
+        }
+        return true;
+    }
+}
@@ -1,24 +1,48 @@
 package com.backend.filter;
 
+import com.backend.config.ResponseFormats;
+import com.backend.dto.ApiResponse;
 import com.backend.service.PasetoService;
+import com.backend.timing.RequestTimings;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class PasetoAuthenticationFilter extends OncePerRequestFilter {
     
     private final PasetoService pasetoService;
+    private final ResponseFormats responseFormats;
     private static final String AUTHORIZATION_HEADER = "Authorization";
     private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ADMIN_PATH_PREFIX = "/api/admin/";
+    // Decodes and drops ;-parameters the way request mapping does
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
     
-    public PasetoAuthenticationFilter(PasetoService pasetoService) {
+    private final Set<String> adminUsernames;
+    
+    public PasetoAuthenticationFilter(PasetoService pasetoService,
+                                      ResponseFormats responseFormats,
+                                      @Value("${app.admin.usernames:}") String adminUsernames) {
         this.pasetoService = pasetoService;
+        this.responseFormats = responseFormats;
+        this.adminUsernames = Arrays.stream(adminUsernames.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
     }
     
     @Override
@@ -27,42 +51,73 @@ public class PasetoAuthenticationFilter extends OncePerRequestFilter {
                                    FilterChain filterChain) throws ServletException, IOException {
         
         // Skip authentication for public endpoints
-        String path = request.getRequestURI();
+        String path = lookupPath(request);
         if (isPublicEndpoint(path)) {
             filterChain.doFilter(request, response);
             return;
         }
         
         try {
-            // Extract token from Authorization header
-            String token = extractTokenFromRequest(request);
-            
-            if (token == null || token.isEmpty()) {
-                sendUnauthorizedResponse(response, "Missing or invalid Authorization header");
-                return;
+            boolean authenticated;
+            try (RequestTimings.Phase phase = RequestTimings.start("auth")) {
+                authenticated = authenticate(request, response, path);
             }
-            
-            // Validate token
-            if (!pasetoService.isAccessToken(token)) {
-                sendUnauthorizedResponse(response, "Invalid access token");
+            if (!authenticated) {
                 return;
             }
             
-            // Extract user information and set in request attributes
-            Long userId = pasetoService.getUserIdFromToken(token);
-            String username = pasetoService.getUsernameFromToken(token);
-            
-            request.setAttribute("userId", userId);
-            request.setAttribute("username", username);
-            
             // Continue filter chain
             filterChain.doFilter(request, response);
             
         } catch (Exception e) {
-            sendUnauthorizedResponse(response, "Authentication failed: " + e.getMessage());
+            sendUnauthorizedResponse(request, response, "Authentication failed: " + e.getMessage());
         }
     }
     
+    /**
+     * Validate the bearer token and set user attributes.
+     * Sends the error response and returns false when the request may not proceed.
+     */
+    private boolean authenticate(HttpServletRequest request, HttpServletResponse response, String path)
+            throws IOException {
+        // Extract token from Authorization header
+        String token = extractTokenFromRequest(request);
+        
+        if (token == null || token.isEmpty()) {
+            sendUnauthorizedResponse(request, response, "Missing or invalid Authorization header");
+            return false;
+        }
+        
+        // Validate token
+        if (!pasetoService.isAccessToken(token)) {
+            sendUnauthorizedResponse(request, response, "Invalid access token");
+            return false;
+        }
+        
+        // Extract user information and set in request attributes
+        Long userId = pasetoService.getUserIdFromToken(token);
+        String username = pasetoService.getUsernameFromToken(token);
+        
+        request.setAttribute("userId", userId);
+        request.setAttribute("username", username);
+        
+        // Admin endpoints are restricted to configured usernames
+        if (path.startsWith(ADMIN_PATH_PREFIX) && !isAdmin(username)) {
+            sendErrorResponse(request, response, HttpServletResponse.SC_FORBIDDEN, "Admin access required");
+            return false;
+        }
+        
+        return true;
+    }
+    
+    /**
+     * The path the request is mapped by. The raw URI may hide "/api/admin/" behind
+     * percent-encoding, ";" parameters or dot segments.
+     */
+    static String lookupPath(HttpServletRequest request) {
+        return StringUtils.cleanPath(PATH_HELPER.getPathWithinApplication(request));
+    }
+    
     /**
      * Extract JWT token from Authorization header
      */
@@ -88,15 +143,43 @@ public class PasetoAuthenticationFilter extends OncePerRequestFilter {
                path.equals("/");
     }
     
+    /**
+     * Username of a valid access token on the request, or null. For filters that run
+     * before authentication and must not act for anonymous or non-admin callers.
+     */
+    public String authenticatedUsername(HttpServletRequest request) {
+        String token = extractTokenFromRequest(request);
+        try {
+            return token != null && pasetoService.isAccessToken(token) ? pasetoService.getUsernameFromToken(token) : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Check if the user is a configured admin
+     */
+    public boolean isAdmin(String username) {
+        return username != null && adminUsernames.contains(username);
+    }
+    
     /**
      * Send 401 Unauthorized response
      */
-    private void sendUnauthorizedResponse(HttpServletResponse response, String message) throws IOException {
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.setContentType("application/json");
-        response.getWriter().write(String.format(
-            "{\"success\": false, \"message\": \"%s\", \"data\": null}", 
-            message
-        ));
+    private void sendUnauthorizedResponse(HttpServletRequest request, HttpServletResponse response, String message)
+            throws IOException {
+        sendErrorResponse(request, response, HttpServletResponse.SC_UNAUTHORIZED, message);
+    }
+    
+    /**
+     * Send an error ApiResponse in the format the client accepts
+     */
+    void sendErrorResponse(HttpServletRequest request, HttpServletResponse response, int status, String message)
+            throws IOException {
+        MediaType format = responseFormats.negotiate(request);
+        response.setStatus(status);
+        response.setContentType(format.toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        responseFormats.mapperFor(format).writeValue(response.getOutputStream(), ApiResponse.error(message));
     }
 }
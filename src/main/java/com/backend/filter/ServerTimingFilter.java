@@ -0,0 +1,84 @@
+package com.backend.filter;
+
+import com.backend.timing.RequestTimings;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+
+/**
+ * Times every API request phase (see RequestTimings) and, when the client opts in
+ * with "X-Server-Timing: true", returns the breakdown in a Server-Timing header.
+ * The header needs the body buffered, so it is only sent to admins (unless
+ * app.server-timing.allow-all-users is set) and never for streamed responses.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String OPT_IN_HEADER = "X-Server-Timing";
+    private static final String SERVER_TIMING_HEADER = "Server-Timing";
+    // Streamed downloads and ?stream=true lists must not be buffered
+    private static final String UNBUFFERED_PATH_PREFIX = "/api/admin/jfr/";
+    private static final String STREAM_PARAMETER = "stream";
+
+    private final PasetoAuthenticationFilter pasetoAuthenticationFilter;
+    private final boolean allowAllUsers;
+
+    public ServerTimingFilter(PasetoAuthenticationFilter pasetoAuthenticationFilter,
+                              @Value("${app.server-timing.allow-all-users:false}") boolean allowAllUsers) {
+        this.pasetoAuthenticationFilter = pasetoAuthenticationFilter;
+        this.allowAllUsers = allowAllUsers;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                   HttpServletResponse response,
+                                   FilterChain filterChain) throws ServletException, IOException {
+
+        RequestTimings timings = RequestTimings.begin(request.getMethod() + " " + request.getRequestURI());
+
+        if (!isOptedIn(request) || isStreamed(request) || !mayReceiveTimings(request)) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                RequestTimings.end();
+            }
+            return;
+        }
+
+        // Buffer the body so the header can still be set once the body is serialized
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            RequestTimings.end();
+            responseWrapper.setHeader(SERVER_TIMING_HEADER, timings.toServerTimingHeader());
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Whether the caller may have its response buffered for the header. This runs before
+     * authentication, so the token is read here; an invalid one gets nothing.
+     */
+    private boolean mayReceiveTimings(HttpServletRequest request) {
+        String username = pasetoAuthenticationFilter.authenticatedUsername(request);
+        return username != null && (allowAllUsers || pasetoAuthenticationFilter.isAdmin(username));
+    }
+
+    private boolean isStreamed(HttpServletRequest request) {
+        return PasetoAuthenticationFilter.lookupPath(request).startsWith(UNBUFFERED_PATH_PREFIX)
+                || "true".equalsIgnoreCase(request.getParameter(STREAM_PARAMETER));
+    }
+
+    private boolean isOptedIn(HttpServletRequest request) {
+        String value = request.getHeader(OPT_IN_HEADER);
+        return "true".equalsIgnoreCase(value) || "1".equals(value);
+    }
+}
@@ -0,0 +1,237 @@
+package com.backend.leader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leader election on a Postgres session advisory lock.
+ *
+ * Every node keeps one dedicated connection to the primary and calls
+ * pg_try_advisory_lock on it until it wins. The winner renews its lease by
+ * checking the connection on every tick; if a check fails or the lease runs
+ * out it steps down at once. Postgres releases the lock as soon as the
+ * leader's session ends, and TCP keepalives on that session bound how long a
+ * vanished host can keep it, so a follower takes over within about one tick.
+ */
+@Component
+public class LeaderElection {
+
+    private static final String APPLICATION_NAME_PREFIX = "attendance-leader:";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final String nodeName;
+    private final ScheduledExecutorService scheduler;
+    private final Counter transitions;
+
+    @Value("${app.leader.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.leader.lock-key:7240311}")
+    private long lockKey = 7240311;
+
+    @Value("${app.leader.renew-interval-ms:1000}")
+    private long renewIntervalMillis = 1000;
+
+    @Value("${app.leader.lease-ms:5000}")
+    private long leaseMillis = 5000;
+
+    private Connection connection;
+    private volatile boolean holdingLock;
+    private volatile long leaseExpiresNanos;
+    private volatile Instant leaderSince;
+
+    public LeaderElection(DataSourceProperties dataSourceProperties,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.leader.node-name:}") String nodeName) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.nodeName = nodeName.isBlank() ? defaultNodeName() : nodeName;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leader-election");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.transitions = Counter.builder("leader.transitions")
+                .description("Times this node gained or lost leadership")
+                .register(meterRegistry);
+        Gauge.builder("leader.elected", this, election -> election.isLeader() ? 1 : 0)
+                .description("Whether this node runs leader-only background jobs")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::tick, 0, renewIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Closing the session releases the lock so a follower can take over right away
+        stepDown();
+    }
+
+    /**
+     * Whether this node holds an unexpired lease. Always true when election is disabled.
+     */
+    public boolean isLeader() {
+        return !enabled || (holdingLock && System.nanoTime() - leaseExpiresNanos < 0);
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    /**
+     * Leadership as seen from this node, including which node currently holds the lock
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("enabled", enabled);
+        details.put("node", nodeName);
+        details.put("leader", isLeader());
+        details.put("leaderSince", isLeader() ? leaderSince : null);
+        if (enabled) {
+            details.put("currentLeader", findCurrentLeader());
+        }
+        return details;
+    }
+
+    /**
+     * One election round: renew the lease if we hold the lock, otherwise try to take it
+     */
+    synchronized void tick() {
+        try {
+            if (connection == null || connection.isClosed()) {
+                connection = connect();
+            }
+
+            if (holdingLock) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.setQueryTimeout(queryTimeoutSeconds());
+                    statement.execute("SELECT 1");
+                }
+                leaseExpiresNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+                return;
+            }
+
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                statement.setQueryTimeout(queryTimeoutSeconds());
+                statement.setLong(1, lockKey);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next() && resultSet.getBoolean(1)) {
+                        leaseExpiresNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+                        holdingLock = true;
+                        leaderSince = Instant.now();
+                        transitions.increment();
+                        System.err.println("Node " + nodeName + " is now the leader");
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            if (holdingLock) {
+                System.err.println("Node " + nodeName + " lost the leader lease: " + e.getMessage());
+            }
+            stepDown();
+        }
+    }
+
+    private synchronized void stepDown() {
+        if (holdingLock) {
+            holdingLock = false;
+            leaderSince = null;
+            transitions.increment();
+        }
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // The session is gone either way
+            }
+            connection = null;
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", dataSourceProperties.determineUsername());
+        properties.setProperty("password", dataSourceProperties.determinePassword());
+        // Shown in pg_stat_activity so any node can tell who holds the lock
+        properties.setProperty("ApplicationName", APPLICATION_NAME_PREFIX + nodeName);
+        properties.setProperty("tcpKeepAlive", "true");
+        properties.setProperty("connectTimeout", String.valueOf(queryTimeoutSeconds()));
+        // Let the server drop a vanished leader's session, and its lock, within seconds
+        properties.setProperty("options",
+                "-c tcp_keepalives_idle=5 -c tcp_keepalives_interval=1 -c tcp_keepalives_count=3");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    /**
+     * The node whose session holds the advisory lock, or null if nobody does
+     */
+    private synchronized String findCurrentLeader() {
+        if (connection == null) {
+            return null;
+        }
+        // A bigint advisory key shows up split into classid (high bits) and objid (low bits)
+        String sql = "SELECT a.application_name FROM pg_locks l JOIN pg_stat_activity a ON a.pid = l.pid "
+                + "WHERE l.locktype = 'advisory' AND l.granted AND l.objsubid = 1 "
+                + "AND l.classid::bigint = ? AND l.objid::bigint = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setQueryTimeout(queryTimeoutSeconds());
+            statement.setLong(1, lockKey >>> 32);
+            statement.setLong(2, lockKey & 0xFFFFFFFFL);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return null;
+                }
+                String applicationName = resultSet.getString(1);
+                return applicationName != null && applicationName.startsWith(APPLICATION_NAME_PREFIX)
+                        ? applicationName.substring(APPLICATION_NAME_PREFIX.length())
+                        : applicationName;
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    private int queryTimeoutSeconds() {
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(leaseMillis) / 2);
+    }
+
+    private static String defaultNodeName() {
+        try {
+            return InetAddress.getLocalHost().getHostName() + "-" + ProcessHandle.current().pid();
+        } catch (Exception e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+}
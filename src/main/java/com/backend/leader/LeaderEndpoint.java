@@ -0,0 +1,26 @@
+package com.backend.leader;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint at /actuator/leader reporting this node's role and the current leader
+ */
+@Component
+@Endpoint(id = "leader")
+public class LeaderEndpoint {
+
+    private final LeaderElection leaderElection;
+
+    public LeaderEndpoint(LeaderElection leaderElection) {
+        this.leaderElection = leaderElection;
+    }
+
+    @ReadOperation
+    public Map<String, Object> leader() {
+        return leaderElection.describe();
+    }
+}
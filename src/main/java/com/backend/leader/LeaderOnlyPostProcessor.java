@@ -0,0 +1,62 @@
+package com.backend.leader;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Proxies beans with @LeaderOnly methods so those methods are skipped on
+ * followers. Runs before the @Scheduled processor, which then schedules
+ * calls through the proxy.
+ */
+@Component
+public class LeaderOnlyPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<LeaderElection> leaderElection;
+
+    public LeaderOnlyPostProcessor(ObjectProvider<LeaderElection> leaderElection) {
+        this.leaderElection = leaderElection;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (!hasLeaderOnlyMethod(targetClass)) {
+            return bean;
+        }
+
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+            if (AnnotatedElementUtils.hasAnnotation(method, LeaderOnly.class)
+                    && !leaderElection.getObject().isLeader()) {
+                return null;
+            }
+            return invocation.proceed();
+        });
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private boolean hasLeaderOnlyMethod(Class<?> targetClass) {
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(targetClass,
+                method -> found.set(true),
+                method -> AnnotatedElementUtils.hasAnnotation(method, LeaderOnly.class));
+        return found.get();
+    }
+}
@@ -0,0 +1,20 @@
+package com.backend.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's attendance over one day, week or month, aggregated in the database
+ */
+public interface AttendanceBucket {
+    
+    // Start of the bucket as truncated by date_trunc (weeks start on Monday)
+    LocalDateTime getBucketStart();
+    
+    Long getDaysPresent();
+    
+    Long getTotalMinutes();
+    
+    LocalDateTime getFirstCheckIn();
+    
+    LocalDateTime getLastCheckOut();
+}
@@ -0,0 +1,25 @@
+package com.backend.repository;
+
+/**
+ * One user's attendance over a month, aggregated in the database
+ */
+public interface AttendanceMonthStats {
+    
+    Long getUserId();
+    
+    String getFullName();
+    
+    // Days with at least one check-in
+    Long getDaysPresent();
+    
+    // Days whose sessions were all checked out, the ones that have worked minutes
+    Long getCompletedDays();
+    
+    Long getWorkedMinutes();
+    
+    // Days whose first check-in was after the work start time
+    Long getLateArrivals();
+    
+    // Minutes beyond the standard day, summed over days
+    Long getOvertimeMinutes();
+}
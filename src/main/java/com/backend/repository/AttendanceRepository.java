@@ -1,24 +1,111 @@
 package com.backend.repository;
 
 import com.backend.entity.Attendance;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
+public interface AttendanceRepository extends JpaRepository<Attendance, Long>, AttendanceRepositoryCustom {
+    
+    /**
+     * Per-user totals for check-ins in [start, end). Window functions split each user's
+     * sessions into days: the first session of a day decides lateness, and the day's
+     * duration_minutes sum decides worked time and overtime. A day that still has an
+     * open session counts as present but not as completed. Sums of bigint are numeric in
+     * Postgres, hence the casts back to bigint.
+     */
+    String MONTH_STATS_SQL = "WITH sessions AS (" +
+            "SELECT user_id, full_name, check_in_time, check_out_time, " +
+            "row_number() OVER (PARTITION BY user_id, CAST(check_in_time AS date) ORDER BY check_in_time) AS nth, " +
+            "sum(duration_minutes) OVER (PARTITION BY user_id, CAST(check_in_time AS date)) AS day_minutes, " +
+            "count(*) FILTER (WHERE check_out_time IS NULL) " +
+            "OVER (PARTITION BY user_id, CAST(check_in_time AS date)) AS open_sessions " +
+            "FROM attendances WHERE check_in_time >= :start AND check_in_time < :end) " +
+            "SELECT user_id AS \"userId\", max(full_name) AS \"fullName\", " +
+            "count(*) AS \"daysPresent\", " +
+            "count(*) FILTER (WHERE open_sessions = 0) AS \"completedDays\", " +
+            "CAST(coalesce(sum(day_minutes) FILTER (WHERE open_sessions = 0), 0) AS bigint) AS \"workedMinutes\", " +
+            "count(*) FILTER (WHERE CAST(check_in_time AS time) > :lateAfter) AS \"lateArrivals\", " +
+            "CAST(coalesce(sum(greatest(day_minutes - :standardMinutes, 0)) FILTER (WHERE open_sessions = 0), 0) " +
+            "AS bigint) AS \"overtimeMinutes\" " +
+            "FROM sessions WHERE nth = 1 GROUP BY user_id ORDER BY max(full_name), user_id";
+    
+    /**
+     * A user's history grouped into date_trunc buckets, so the result grows with the
+     * number of buckets, not rows. Minutes come from duration_minutes of checked-out sessions.
+     */
+    String HISTORY_BUCKETS_SQL = "SELECT date_trunc(:unit, check_in_time) AS \"bucketStart\", " +
+            "count(DISTINCT CAST(check_in_time AS date)) AS \"daysPresent\", " +
+            "CAST(coalesce(sum(duration_minutes), 0) AS bigint) AS \"totalMinutes\", " +
+            "min(check_in_time) AS \"firstCheckIn\", max(check_out_time) AS \"lastCheckOut\" " +
+            "FROM attendances WHERE user_id = :userId AND check_in_time BETWEEN :start AND :end " +
+            "GROUP BY 1 ORDER BY 1";
+    
+    /**
+     * Month totals per user, see MONTH_STATS_SQL
+     */
+    @Query(value = MONTH_STATS_SQL, nativeQuery = true)
+    List<AttendanceMonthStats> findMonthStats(@Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end,
+                                              @Param("lateAfter") LocalTime lateAfter,
+                                              @Param("standardMinutes") int standardMinutes);
+    
+    /**
+     * History buckets for a date_trunc unit (day, week or month), see HISTORY_BUCKETS_SQL
+     */
+    @Query(value = HISTORY_BUCKETS_SQL, nativeQuery = true)
+    List<AttendanceBucket> findHistoryBuckets(@Param("userId") Long userId,
+                                              @Param("start") LocalDateTime start,
+                                              @Param("end") LocalDateTime end,
+                                              @Param("unit") String unit);
     
     @Query("SELECT a FROM Attendance a WHERE a.userId = ?1 AND a.status = 'CHECKED_IN' AND a.checkOutTime IS NULL ORDER BY a.checkInTime DESC")
     Optional<Attendance> findActiveAttendanceByUserId(Long userId);
     
     List<Attendance> findByUserIdAndCheckInTimeBetween(Long userId, LocalDateTime start, LocalDateTime end);
     
-    @Query("SELECT a FROM Attendance a WHERE a.syncedToSheets = false ORDER BY a.checkInTime ASC")
-    List<Attendance> findUnsyncedAttendances();
+    /**
+     * Whether a session that checked in during [start, end) is still open and may yet be checked out
+     */
+    @Query("SELECT COUNT(a) > 0 FROM Attendance a WHERE a.checkInTime >= ?1 AND a.checkInTime < ?2 AND a.checkOutTime IS NULL")
+    boolean existsOpenSession(LocalDateTime start, LocalDateTime end);
+    
+    /**
+     * History as a cursor-backed stream; consume inside a transaction and close it
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Attendance a WHERE a.userId = ?1 AND a.checkInTime BETWEEN ?2 AND ?3 ORDER BY a.checkInTime")
+    Stream<Attendance> streamByUserIdAndCheckInTimeBetween(Long userId, LocalDateTime start, LocalDateTime end);
+    
+    @Query("SELECT a FROM Attendance a WHERE a.syncedToSheets = false AND a.updatedAt < ?3 " +
+           "AND (a.checkInTime > ?1 OR (a.checkInTime = ?1 AND a.id > ?2)) ORDER BY a.checkInTime ASC, a.id ASC")
+    List<Attendance> findUnsyncedAttendances(LocalDateTime afterCheckInTime, Long afterId, LocalDateTime updatedBefore, Pageable pageable);
+    
+    long countBySyncedToSheetsFalse();
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Attendance a SET a.syncedToSheets = true WHERE a.id = ?1 AND (?2 = true OR a.checkOutTime IS NULL)")
+    int markSyncedToSheets(Long id, boolean includesCheckOut);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Attendance a SET a.syncedToSheets = true WHERE a.id IN ?1")
+    int markAllSyncedToSheets(List<Long> ids);
     
     @Query("SELECT a FROM Attendance a WHERE FUNCTION('YEAR', a.checkInTime) = ?1 AND FUNCTION('MONTH', a.checkInTime) = ?2 ORDER BY a.fullName, a.checkInTime")
     List<Attendance> findByYearAndMonth(int year, int month);
@@ -0,0 +1,34 @@
+package com.backend.repository;
+
+import com.backend.entity.Attendance;
+import com.backend.fields.FieldSet;
+import jakarta.persistence.Tuple;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Attendance queries that Spring Data cannot derive: sparse fieldsets, and
+ * multi-user history bound as a single array parameter
+ */
+public interface AttendanceRepositoryCustom {
+    
+    /**
+     * Up to maxPerUser rows of each user's history, ordered by user and check-in time.
+     * The rows are plain objects, not managed entities.
+     */
+    List<Attendance> findHistoryForUsers(Collection<Long> userIds, LocalDateTime start, LocalDateTime end,
+                                         int maxPerUser);
+    
+    /**
+     * A user's history in check-in order, one tuple per row holding the attributes of the fields
+     */
+    List<Tuple> findHistoryFields(Long userId, LocalDateTime start, LocalDateTime end, FieldSet fields);
+    
+    /**
+     * Streaming variant of findHistoryFields; consume inside a transaction and close it
+     */
+    Stream<Tuple> streamHistoryFields(Long userId, LocalDateTime start, LocalDateTime end, FieldSet fields);
+}
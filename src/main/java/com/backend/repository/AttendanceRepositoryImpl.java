@@ -0,0 +1,92 @@
+package com.backend.repository;
+
+import com.backend.entity.Attendance;
+import com.backend.fields.FieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Sparse queries build their select list from the requested fields; everything
+ * else is fixed JPQL. The multi-user history goes through JDBC to bind the user
+ * ids as one array, so the statement is the same for any number of users.
+ * Read-only like the derived queries, so reads go to the replica when one is configured.
+ */
+@Transactional(readOnly = true)
+class AttendanceRepositoryImpl implements AttendanceRepositoryCustom {
+    
+    // History of several users in one range scan of (user_id, check_in_time). Parameters:
+    // a bigint[] of user ids, the range start and end, and the most rows to return per user.
+    private static final String BATCH_HISTORY_SQL = "SELECT id, user_id, full_name, check_in_time, " +
+            "check_out_time, status, duration_minutes FROM (" +
+            "SELECT id, user_id, full_name, check_in_time, check_out_time, status, duration_minutes, " +
+            "row_number() OVER (PARTITION BY user_id ORDER BY check_in_time, id) AS nth " +
+            "FROM attendances WHERE user_id = ANY(?) AND check_in_time BETWEEN ? AND ?) ranked " +
+            "WHERE nth <= ? ORDER BY user_id, check_in_time, id";
+    
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    
+    AttendanceRepositoryImpl(EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    @Override
+    public List<Attendance> findHistoryForUsers(Collection<Long> userIds, LocalDateTime start, LocalDateTime end,
+                                                int maxPerUser) {
+        return jdbcTemplate.query(BATCH_HISTORY_SQL, statement -> {
+            Array ids = statement.getConnection().createArrayOf("bigint", userIds.toArray());
+            statement.setArray(1, ids);
+            statement.setTimestamp(2, Timestamp.valueOf(start));
+            statement.setTimestamp(3, Timestamp.valueOf(end));
+            statement.setInt(4, maxPerUser);
+        }, (resultSet, rowNum) -> toAttendance(resultSet));
+    }
+    
+    @Override
+    public List<Tuple> findHistoryFields(Long userId, LocalDateTime start, LocalDateTime end, FieldSet fields) {
+        return historyQuery(userId, start, end, fields).getResultList();
+    }
+    
+    @Override
+    public Stream<Tuple> streamHistoryFields(Long userId, LocalDateTime start, LocalDateTime end, FieldSet fields) {
+        return historyQuery(userId, start, end, fields)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .getResultStream();
+    }
+    
+    private TypedQuery<Tuple> historyQuery(Long userId, LocalDateTime start, LocalDateTime end, FieldSet fields) {
+        return entityManager.createQuery("SELECT " + fields.selectClause("a") + " FROM Attendance a " +
+                        "WHERE a.userId = :userId AND a.checkInTime BETWEEN :start AND :end ORDER BY a.checkInTime",
+                        Tuple.class)
+                .setParameter("userId", userId)
+                .setParameter("start", start)
+                .setParameter("end", end);
+    }
+    
+    private static Attendance toAttendance(ResultSet resultSet) throws SQLException {
+        Attendance attendance = new Attendance();
+        attendance.setId(resultSet.getLong("id"));
+        attendance.setUserId(resultSet.getLong("user_id"));
+        attendance.setFullName(resultSet.getString("full_name"));
+        attendance.setCheckInTime(resultSet.getTimestamp("check_in_time").toLocalDateTime());
+        Timestamp checkOutTime = resultSet.getTimestamp("check_out_time");
+        attendance.setCheckOutTime(checkOutTime != null ? checkOutTime.toLocalDateTime() : null);
+        attendance.setStatus(Attendance.AttendanceStatus.valueOf(resultSet.getString("status")));
+        attendance.setDurationMinutes(resultSet.getObject("duration_minutes", Integer.class));
+        return attendance;
+    }
+}
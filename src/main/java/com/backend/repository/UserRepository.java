@@ -1,14 +1,38 @@
 package com.backend.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.backend.cache.UserSummary;
+import com.backend.dto.UserResponse;
 import com.backend.entity.User;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    
+    /**
+     * Fuzzy search on full name and username, served by the pg_trgm GIN indexes in
+     * schema.sql. Matches substrings (LIKE) and words within a typo or two
+     * (word similarity). Prefix matches rank first, then closer matches.
+     */
+    String SEARCH_SQL = "SELECT u.id AS \"id\", u.username AS \"username\", u.email AS \"email\", " +
+            "u.full_name AS \"fullName\", u.created_at AS \"createdAt\" " +
+            "FROM users u " +
+            "WHERE :q <% lower(u.full_name) OR :q <% lower(u.username) " +
+            "OR lower(u.full_name) LIKE :substring ESCAPE '\\' OR lower(u.username) LIKE :substring ESCAPE '\\' " +
+            "ORDER BY (lower(u.full_name) LIKE :prefix ESCAPE '\\' OR lower(u.username) LIKE :prefix ESCAPE '\\') DESC, " +
+            "GREATEST(word_similarity(:q, lower(u.full_name)), word_similarity(:q, lower(u.username))) DESC, u.id " +
+            "LIMIT :limit OFFSET :offset";
     
     Optional<User> findByUsername(String username);
     
@@ -19,4 +43,57 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    /**
+     * Summary of one user, without the password column
+     */
+    @Query("SELECT new com.backend.cache.UserSummary(u.id, u.username, u.email, u.fullName, u.createdAt) " +
+           "FROM User u WHERE u.id = :id")
+    Optional<UserSummary> findSummaryById(@Param("id") Long id);
+    
+    /**
+     * Directory page after a user id (keyset pagination), without the password column
+     */
+    @Query("SELECT new com.backend.dto.UserResponse(u.id, u.username, u.email, u.fullName, u.createdAt) " +
+           "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserResponse> findDirectoryPage(@Param("afterId") Long afterId, Limit limit);
+    
+    /**
+     * Directory page limited to users whose full name or username matches a LIKE pattern
+     */
+    @Query("SELECT new com.backend.dto.UserResponse(u.id, u.username, u.email, u.fullName, u.createdAt) " +
+           "FROM User u WHERE u.id > :afterId " +
+           "AND (LOWER(u.fullName) LIKE :pattern ESCAPE '\\' OR LOWER(u.username) LIKE :pattern ESCAPE '\\') " +
+           "ORDER BY u.id")
+    List<UserResponse> findDirectoryPageByPattern(@Param("afterId") Long afterId,
+                                                 @Param("pattern") String pattern,
+                                                 Limit limit);
+    
+    /**
+     * Whole directory after a user id as a cursor-backed stream; consume inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.backend.dto.UserResponse(u.id, u.username, u.email, u.fullName, u.createdAt) " +
+           "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    Stream<UserResponse> streamDirectory(@Param("afterId") Long afterId);
+    
+    /**
+     * Streaming variant of findDirectoryPageByPattern
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.backend.dto.UserResponse(u.id, u.username, u.email, u.fullName, u.createdAt) " +
+           "FROM User u WHERE u.id > :afterId " +
+           "AND (LOWER(u.fullName) LIKE :pattern ESCAPE '\\' OR LOWER(u.username) LIKE :pattern ESCAPE '\\') " +
+           "ORDER BY u.id")
+    Stream<UserResponse> streamDirectoryByPattern(@Param("afterId") Long afterId, @Param("pattern") String pattern);
+    
+    /**
+     * Ranked fuzzy search, see SEARCH_SQL. Patterns are lower-case with LIKE wildcards escaped.
+     */
+    @Query(value = SEARCH_SQL, nativeQuery = true)
+    List<UserSearchResult> search(@Param("q") String query,
+                                  @Param("substring") String substringPattern,
+                                  @Param("prefix") String prefixPattern,
+                                  @Param("limit") int limit,
+                                  @Param("offset") int offset);
 }
@@ -0,0 +1,24 @@
+package com.backend.repository;
+
+import com.backend.fields.FieldSet;
+import jakarta.persistence.Tuple;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * User directory queries that select only the columns a sparse fieldset needs.
+ * Every tuple also holds "id", the keyset cursor.
+ */
+public interface UserRepositoryCustom {
+    
+    /**
+     * Directory page after a user id; a null pattern means no name filter
+     */
+    List<Tuple> findDirectoryFields(Long afterId, String pattern, FieldSet fields, int limit);
+    
+    /**
+     * Streaming variant of findDirectoryFields; consume inside a transaction and close it
+     */
+    Stream<Tuple> streamDirectoryFields(Long afterId, String pattern, FieldSet fields);
+}
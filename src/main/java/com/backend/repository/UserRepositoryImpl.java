@@ -0,0 +1,50 @@
+package com.backend.repository;
+
+import com.backend.fields.FieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Builds the select list from the requested fields; the filters match findDirectoryPage
+ * and findDirectoryPageByPattern
+ * Read-only like the derived queries, so reads go to the replica when one is configured.
+ */
+@Transactional(readOnly = true)
+class UserRepositoryImpl implements UserRepositoryCustom {
+    
+    private final EntityManager entityManager;
+    
+    UserRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+    
+    @Override
+    public List<Tuple> findDirectoryFields(Long afterId, String pattern, FieldSet fields, int limit) {
+        return directoryQuery(afterId, pattern, fields).setMaxResults(limit).getResultList();
+    }
+    
+    @Override
+    public Stream<Tuple> streamDirectoryFields(Long afterId, String pattern, FieldSet fields) {
+        return directoryQuery(afterId, pattern, fields)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .getResultStream();
+    }
+    
+    private TypedQuery<Tuple> directoryQuery(Long afterId, String pattern, FieldSet fields) {
+        String filter = pattern == null ? "" :
+                "AND (LOWER(u.fullName) LIKE :pattern ESCAPE '\\' OR LOWER(u.username) LIKE :pattern ESCAPE '\\') ";
+        TypedQuery<Tuple> query = entityManager.createQuery("SELECT " + fields.selectClause("u", "id") +
+                " FROM User u WHERE u.id > :afterId " + filter + "ORDER BY u.id", Tuple.class)
+                .setParameter("afterId", afterId);
+        if (pattern != null) {
+            query.setParameter("pattern", pattern);
+        }
+        return query;
+    }
+}
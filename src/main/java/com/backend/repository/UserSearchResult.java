@@ -0,0 +1,19 @@
+package com.backend.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of a ranked user search, without the password column
+ */
+public interface UserSearchResult {
+    
+    Long getId();
+    
+    String getUsername();
+    
+    String getEmail();
+    
+    String getFullName();
+    
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,123 @@
+package com.backend.service;
+
+import com.backend.cache.AttendanceAnalyticsCache;
+import com.backend.dto.AttendanceAnalyticsResponse;
+import com.backend.dto.AttendanceStats;
+import com.backend.repository.AttendanceMonthStats;
+import com.backend.repository.AttendanceRepository;
+import com.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monthly attendance analytics per user and for everyone together. The heavy
+ * lifting is one aggregate query; this class only derives rates and averages
+ * and caches the result per month.
+ */
+@Service
+public class AttendanceAnalyticsService {
+    
+    private final AttendanceRepository attendanceRepository;
+    private final UserRepository userRepository;
+    private final AttendanceAnalyticsCache analyticsCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final LocalTime workStart;
+    private final int standardDayMinutes;
+    
+    public AttendanceAnalyticsService(AttendanceRepository attendanceRepository,
+                                      UserRepository userRepository,
+                                      AttendanceAnalyticsCache analyticsCache,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.analytics.work-start:09:00}") String workStart,
+                                      @Value("${app.analytics.standard-day-minutes:480}") int standardDayMinutes) {
+        this.attendanceRepository = attendanceRepository;
+        this.userRepository = userRepository;
+        this.analyticsCache = analyticsCache;
+        // Read-only so the aggregate runs on the replica when one is configured; cache hits need no connection
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.workStart = LocalTime.parse(workStart);
+        this.standardDayMinutes = standardDayMinutes;
+    }
+    
+    /**
+     * Analytics for a month, from the cache when possible
+     */
+    public AttendanceAnalyticsResponse getMonth(YearMonth month) {
+        return analyticsCache.get(month, () -> readOnlyTransaction.execute(status -> compute(month)));
+    }
+    
+    private AttendanceAnalyticsResponse compute(YearMonth month) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+        // A session left open can still be checked out, however late, and change the month.
+        // Checked before the totals: sessions only ever close, so a month with none open stays as read.
+        boolean closed = analyticsCache.isClosed(month) && !attendanceRepository.existsOpenSession(start, end);
+        List<AttendanceMonthStats> rows = attendanceRepository.findMonthStats(start, end,
+                workStart, standardDayMinutes);
+        int workingDays = workingDays(month, LocalDate.now());
+        
+        List<AttendanceStats> users = new ArrayList<>(rows.size());
+        long daysPresent = 0;
+        long completedDays = 0;
+        long workedMinutes = 0;
+        long lateArrivals = 0;
+        long overtimeMinutes = 0;
+        for (AttendanceMonthStats row : rows) {
+            users.add(new AttendanceStats(row.getUserId(), row.getFullName(), row.getDaysPresent(),
+                    row.getWorkedMinutes(), averageHours(row.getWorkedMinutes(), row.getCompletedDays()),
+                    row.getLateArrivals(), row.getOvertimeMinutes(), rate(row.getDaysPresent(), workingDays)));
+            daysPresent += row.getDaysPresent();
+            completedDays += row.getCompletedDays();
+            workedMinutes += row.getWorkedMinutes();
+            lateArrivals += row.getLateArrivals();
+            overtimeMinutes += row.getOvertimeMinutes();
+        }
+        
+        // Everyone registered counts towards the team rate, including users with no check-ins
+        long headcount = userRepository.count();
+        AttendanceStats team = new AttendanceStats(null, null, daysPresent, workedMinutes,
+                averageHours(workedMinutes, completedDays), lateArrivals, overtimeMinutes,
+                rate(daysPresent, headcount * workingDays));
+        return new AttendanceAnalyticsResponse(month.getYear(), month.getMonthValue(), workingDays, closed,
+                team, users);
+    }
+    
+    /**
+     * Monday to Friday in the month, up to and including today for the current month.
+     * Public holidays are not known to the app and count as working days.
+     */
+    static int workingDays(YearMonth month, LocalDate today) {
+        LocalDate last = month.atEndOfMonth();
+        if (YearMonth.from(today).equals(month)) {
+            last = today;
+        } else if (month.isAfter(YearMonth.from(today))) {
+            return 0;
+        }
+        int days = 0;
+        for (LocalDate day = month.atDay(1); !day.isAfter(last); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days++;
+            }
+        }
+        return days;
+    }
+    
+    private static double averageHours(long minutes, long days) {
+        return days == 0 ? 0 : Math.round(minutes * 100.0 / days / 60) / 100.0;
+    }
+    
+    private static double rate(long days, long possibleDays) {
+        return possibleDays == 0 ? 0 : Math.round(days * 1000.0 / possibleDays) / 1000.0;
+    }
+}
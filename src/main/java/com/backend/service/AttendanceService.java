@@ -1,70 +1,136 @@
 package com.backend.service;
 
+import com.backend.cache.UserSummary;
+import com.backend.cache.UserSummaryCache;
+import com.backend.datasource.ReadYourWrites;
+import com.backend.dto.AttendanceBucketResponse;
 import com.backend.dto.AttendanceResponse;
+import com.backend.dto.HistoryGranularity;
+import com.backend.dto.UserHistoryResponse;
 import com.backend.entity.Attendance;
-import com.backend.entity.User;
+import com.backend.fields.FieldSet;
 import com.backend.repository.AttendanceRepository;
-import com.backend.repository.UserRepository;
+import com.backend.sink.AttendanceEvent;
+import com.backend.sink.AttendanceSinkDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AttendanceService {
     
     private final AttendanceRepository attendanceRepository;
-    private final UserRepository userRepository;
+    private final UserSummaryCache userSummaryCache;
     private final OTPService otpService;
-    private final GoogleSheetsService googleSheetsService;
+    private final AttendanceSinkDispatcher sinkDispatcher;
+    private final MeterRegistry meterRegistry;
+    private final ReadYourWrites readYourWrites;
+    private final CheckInGroupCommitter groupCommitter;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    
+    // Outcome tags for the check-in/check-out timers
+    private static final String OUTCOME_SUCCESS = "success";
+    private static final String OUTCOME_INVALID_OTP = "invalid_otp";
+    private static final String OUTCOME_REJECTED = "rejected";
+    private static final String OUTCOME_ERROR = "error";
     
     public AttendanceService(AttendanceRepository attendanceRepository,
-                           UserRepository userRepository,
+                           UserSummaryCache userSummaryCache,
                            OTPService otpService,
-                           GoogleSheetsService googleSheetsService) {
+                           AttendanceSinkDispatcher sinkDispatcher,
+                           MeterRegistry meterRegistry,
+                           ReadYourWrites readYourWrites,
+                           CheckInGroupCommitter groupCommitter,
+                           TransactionTemplate transactionTemplate,
+                           EntityManager entityManager) {
         this.attendanceRepository = attendanceRepository;
-        this.userRepository = userRepository;
+        this.userSummaryCache = userSummaryCache;
         this.otpService = otpService;
-        this.googleSheetsService = googleSheetsService;
+        this.sinkDispatcher = sinkDispatcher;
+        this.meterRegistry = meterRegistry;
+        this.readYourWrites = readYourWrites;
+        this.groupCommitter = groupCommitter;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
     }
     
     /**
-     * Check in with OTP
+     * Check in with OTP. In group-commit mode the checks run outside a transaction
+     * and the insert joins the next group commit, so no connection is held while
+     * waiting for it.
      */
-    @Transactional
     public AttendanceResponse checkIn(Long userId, String otpCode) {
-        // Verify OTP
-        if (!otpService.verifyOTP(otpCode)) {
-            throw new RuntimeException("Invalid OTP code");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
+        try {
+            // Verify OTP
+            if (!otpService.verifyOTP(otpCode)) {
+                outcome = OUTCOME_INVALID_OTP;
+                throw new AttendanceRejectedException("Invalid OTP code");
+            }
+            
+            Attendance attendance;
+            if (groupCommitter.isEnabled()) {
+                UserSummary user = validateCheckIn(userId);
+                attendance = groupCommitter.commit(new Attendance(userId, user.getFullName(), otpCode));
+            } else {
+                attendance = transactionTemplate.execute(status -> {
+                    UserSummary user = validateCheckIn(userId);
+                    Attendance saved = attendanceRepository.save(new Attendance(userId, user.getFullName(), otpCode));
+                    
+                    // Export to sinks (Google Sheets, ...) once committed
+                    sinkDispatcher.publishAfterCommit(AttendanceEvent.checkIn(saved));
+                    return saved;
+                });
+            }
+            readYourWrites.pin(userId);
+            
+            outcome = OUTCOME_SUCCESS;
+            return AttendanceResponse.fromAttendance(attendance);
+        } catch (AttendanceRejectedException e) {
+            if (outcome.equals(OUTCOME_ERROR)) {
+                outcome = OUTCOME_REJECTED;
+            }
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("attendance.checkin", "outcome", outcome));
         }
-        
+    }
+    
+    /**
+     * Enforce one check-in per day and no open check-in, and return the user
+     */
+    private UserSummary validateCheckIn(Long userId) {
         // Check if user already has attendance for today
         LocalDateTime today = LocalDateTime.now();
-        attendanceRepository.findByUserIdAndDate(userId, today)
-                .ifPresent(a -> {
-                    throw new RuntimeException("You have already checked in today. Only one check-in per day is allowed.");
-                });
+        if (attendanceRepository.findByUserIdAndDate(userId, today).isPresent()) {
+            throw new AttendanceRejectedException("You have already checked in today. Only one check-in per day is allowed.");
+        }
         
         // Check if user already checked in
-        attendanceRepository.findActiveAttendanceByUserId(userId)
-                .ifPresent(a -> {
-                    throw new RuntimeException("You are already checked in. Please check out first.");
-                });
-        
-        // Get user
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        // Create attendance record
-        Attendance attendance = new Attendance(userId, user.getFullName(), otpCode);
-        attendance = attendanceRepository.save(attendance);
-        
-        // Sync to Google Sheets asynchronously
-        syncToGoogleSheetsAsync(attendance);
+        if (attendanceRepository.findActiveAttendanceByUserId(userId).isPresent()) {
+            throw new AttendanceRejectedException("You are already checked in. Please check out first.");
+        }
         
-        return AttendanceResponse.fromAttendance(attendance);
+        // Get user (cached; only the full name is needed)
+        return userSummaryCache.find(userId)
+                .orElseThrow(() -> new AttendanceRejectedException("User not found"));
     }
     
     /**
@@ -72,29 +138,47 @@ public class AttendanceService {
      */
     @Transactional
     public AttendanceResponse checkOut(Long userId, String otpCode) {
-        // Verify OTP
-        if (!otpService.verifyOTP(otpCode)) {
-            throw new RuntimeException("Invalid OTP code");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
+        try {
+            // Verify OTP
+            if (!otpService.verifyOTP(otpCode)) {
+                outcome = OUTCOME_INVALID_OTP;
+                throw new AttendanceRejectedException("Invalid OTP code");
+            }
+            
+            // Find active attendance
+            Optional<Attendance> active = attendanceRepository.findActiveAttendanceByUserId(userId);
+            if (active.isEmpty()) {
+                outcome = OUTCOME_REJECTED;
+                throw new AttendanceRejectedException("No active check-in found. Please check in first.");
+            }
+            Attendance attendance = active.get();
+            
+            // Update check-out time
+            LocalDateTime checkOutTime = LocalDateTime.now();
+            attendance.setCheckOutTime(checkOutTime);
+            attendance.setDurationMinutes(
+                    (int) Duration.between(attendance.getCheckInTime(), checkOutTime).toMinutes());
+            attendance.setStatus(Attendance.AttendanceStatus.CHECKED_OUT);
+            attendance.setSyncedToSheets(false);
+            attendance = attendanceRepository.save(attendance);
+            
+            // Export to sinks (Google Sheets, ...) once committed
+            sinkDispatcher.publishAfterCommit(AttendanceEvent.checkOut(attendance));
+            readYourWrites.pin(userId);
+            
+            outcome = OUTCOME_SUCCESS;
+            return AttendanceResponse.fromAttendance(attendance);
+        } finally {
+            sample.stop(meterRegistry.timer("attendance.checkout", "outcome", outcome));
         }
-        
-        // Find active attendance
-        Attendance attendance = attendanceRepository.findActiveAttendanceByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("No active check-in found. Please check in first."));
-        
-        // Update check-out time
-        attendance.setCheckOutTime(LocalDateTime.now());
-        attendance.setStatus(Attendance.AttendanceStatus.CHECKED_OUT);
-        attendance = attendanceRepository.save(attendance);
-        
-        // Update Google Sheets asynchronously
-        updateGoogleSheetsAsync(attendance);
-        
-        return AttendanceResponse.fromAttendance(attendance);
     }
     
     /**
      * Get user's attendance history
      */
+    @Transactional(readOnly = true)
     public List<AttendanceResponse> getUserAttendanceHistory(Long userId, LocalDateTime start, LocalDateTime end) {
         List<Attendance> attendances = attendanceRepository.findByUserIdAndCheckInTimeBetween(userId, start, end);
         return attendances.stream()
@@ -103,49 +187,99 @@ public class AttendanceService {
     }
     
     /**
-     * Get current user's active attendance
+     * Pass a user's history to a consumer row by row, for streaming responses.
+     * The transaction (and its connection) stays open until the last row is consumed.
      */
-    public AttendanceResponse getCurrentAttendance(Long userId) {
-        return attendanceRepository.findActiveAttendanceByUserId(userId)
-                .map(AttendanceResponse::fromAttendance)
-                .orElse(null);
+    @Transactional(readOnly = true)
+    public void streamUserAttendanceHistory(Long userId, LocalDateTime start, LocalDateTime end,
+                                            Consumer<AttendanceResponse> consumer) {
+        try (Stream<Attendance> attendances = attendanceRepository.streamByUserIdAndCheckInTimeBetween(userId, start, end)) {
+            attendances.forEach(attendance -> {
+                consumer.accept(AttendanceResponse.fromAttendance(attendance));
+                // Keep the persistence context from growing with the result
+                entityManager.detach(attendance);
+            });
+        }
     }
     
     /**
-     * Sync to Google Sheets (async)
+     * Get user's attendance history with only the requested fields, read from only the columns they need
      */
-    private void syncToGoogleSheetsAsync(Attendance attendance) {
-        new Thread(() -> {
-            try {
-                googleSheetsService.writeAttendance(
-                    attendance.getFullName(),
-                    attendance.getCheckInTime(),
-                    attendance.getCheckOutTime()
-                );
-                attendance.setSyncedToSheets(true);
-                attendanceRepository.save(attendance);
-            } catch (Exception e) {
-                System.err.println("Failed to sync to Google Sheets: " + e.getMessage());
-            }
-        }).start();
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getUserAttendanceHistory(Long userId, LocalDateTime start, LocalDateTime end,
+                                                              FieldSet fields) {
+        return attendanceRepository.findHistoryFields(userId, start, end, fields).stream()
+                .map(fields::toMap)
+                .collect(Collectors.toList());
     }
     
     /**
-     * Update Google Sheets (async)
+     * History of several users from one query, in the order the ids were given. Each user
+     * gets at most limitPerUser rows; one more is read to tell whether there are further rows.
      */
-    private void updateGoogleSheetsAsync(Attendance attendance) {
-        new Thread(() -> {
-            try {
-                googleSheetsService.updateAttendance(
-                    attendance.getFullName(),
-                    attendance.getCheckInTime(),
-                    attendance.getCheckOutTime()
-                );
-                attendance.setSyncedToSheets(true);
-                attendanceRepository.save(attendance);
-            } catch (Exception e) {
-                System.err.println("Failed to update Google Sheets: " + e.getMessage());
+    @Transactional(readOnly = true)
+    public List<UserHistoryResponse> getUsersAttendanceHistory(List<Long> userIds, LocalDateTime start,
+                                                               LocalDateTime end, int limitPerUser) {
+        Map<Long, List<AttendanceResponse>> byUser = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            byUser.put(userId, new ArrayList<>());
+        }
+        for (Attendance attendance : attendanceRepository.findHistoryForUsers(userIds, start, end, limitPerUser + 1)) {
+            byUser.get(attendance.getUserId()).add(AttendanceResponse.fromAttendance(attendance));
+        }
+        
+        List<UserHistoryResponse> histories = new ArrayList<>(byUser.size());
+        byUser.forEach((userId, attendances) -> {
+            LocalDateTime nextStartDate = null;
+            if (attendances.size() > limitPerUser) {
+                nextStartDate = attendances.get(limitPerUser).getCheckInTime();
+                attendances = attendances.subList(0, limitPerUser);
             }
-        }).start();
+            histories.add(new UserHistoryResponse(userId, attendances, nextStartDate));
+        });
+        return histories;
+    }
+    
+    /**
+     * Get user's attendance history downsampled to one row per day, week or month
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceBucketResponse> getUserAttendanceBuckets(Long userId, LocalDateTime start, LocalDateTime end,
+                                                                   HistoryGranularity granularity) {
+        return attendanceRepository.findHistoryBuckets(userId, start, end, granularity.truncUnit()).stream()
+                .map(AttendanceBucketResponse::fromBucket)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Streaming variant of the sparse history. Rows are scalar tuples, so the persistence context stays empty.
+     */
+    @Transactional(readOnly = true)
+    public void streamUserAttendanceHistory(Long userId, LocalDateTime start, LocalDateTime end, FieldSet fields,
+                                            Consumer<Map<String, Object>> consumer) {
+        try (Stream<Tuple> rows = attendanceRepository.streamHistoryFields(userId, start, end, fields)) {
+            rows.forEach(row -> consumer.accept(fields.toMap(row)));
+        }
+    }
+    
+    /**
+     * Get current user's active attendance
+     */
+    @Transactional(readOnly = true)
+    public AttendanceResponse getCurrentAttendance(Long userId) {
+        return attendanceRepository.findActiveAttendanceByUserId(userId)
+                .map(AttendanceResponse::fromAttendance)
+                .orElse(null);
+    }
+    
+    /**
+     * A check-in or check-out refused by the attendance rules. The same request would be
+     * refused again, so unlike other failures it is a final answer for an Idempotency-Key.
+     */
+    public static class AttendanceRejectedException extends RuntimeException {
+        
+        AttendanceRejectedException(String message) {
+            super(message);
+        }
     }
 }
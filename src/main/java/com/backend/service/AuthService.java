@@ -1,5 +1,8 @@
 package com.backend.service;
 
+import com.backend.cache.UserSummary;
+import com.backend.cache.UserSummaryCache;
+import com.backend.datasource.ReadYourWrites;
 import com.backend.dto.*;
 import com.backend.entity.User;
 import com.backend.repository.UserRepository;
@@ -13,11 +16,16 @@ public class AuthService {
     private final UserRepository userRepository;
     private final PasetoService pasetoService;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final ReadYourWrites readYourWrites;
+    private final UserSummaryCache userSummaryCache;
     
-    public AuthService(UserRepository userRepository, PasetoService pasetoService) {
+    public AuthService(UserRepository userRepository, PasetoService pasetoService, ReadYourWrites readYourWrites,
+                       UserSummaryCache userSummaryCache) {
         this.userRepository = userRepository;
         this.pasetoService = pasetoService;
         this.passwordEncoder = new BCryptPasswordEncoder();
+        this.readYourWrites = readYourWrites;
+        this.userSummaryCache = userSummaryCache;
     }
     
     /**
@@ -44,6 +52,7 @@ public class AuthService {
         
         // Save user
         user = userRepository.save(user);
+        readYourWrites.pin(user.getId());
         
         // Generate tokens
         String accessToken = pasetoService.generateAccessToken(user.getId(), user.getUsername());
@@ -92,9 +101,9 @@ public class AuthService {
     }
     
     /**
-     * Refresh access token using refresh token
+     * Refresh access token using refresh token. The user is read from the
+     * summary cache, so a refresh usually needs no database connection.
      */
-    @Transactional(readOnly = true)
     public AuthResponseWithRefresh refreshToken(RefreshTokenRequest request) {
         String refreshToken = request.getRefreshToken();
         
@@ -107,7 +116,7 @@ public class AuthService {
         Long userId = pasetoService.getUserIdFromToken(refreshToken);
         
         // Verify user still exists
-        User user = userRepository.findById(userId)
+        UserSummary user = userSummaryCache.find(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
         // Generate new tokens
@@ -115,7 +124,7 @@ public class AuthService {
         String newRefreshToken = pasetoService.generateRefreshToken(user.getId(), user.getUsername());
         
         // Create response
-        UserResponse userResponse = UserResponse.fromUser(user);
+        UserResponse userResponse = UserResponse.fromSummary(user);
         AuthResponse authResponse = new AuthResponse(
             newAccessToken,
             pasetoService.getAccessTokenExpiration(),
@@ -0,0 +1,287 @@
+package com.backend.service;
+
+import com.backend.cache.AttendanceVersions;
+import com.backend.cache.CacheInvalidation;
+import com.backend.cache.CacheInvalidationBus;
+import com.backend.config.WorkerThreads;
+import com.backend.entity.Attendance;
+import com.backend.sink.AttendanceEvent;
+import com.backend.sink.AttendanceSinkDispatcher;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for check-in bursts. Validated check-ins wait in a bounded queue;
+ * one committer thread inserts up to max-batch-size of them in a single
+ * multi-row INSERT and transaction, after lingering briefly for the batch to
+ * fill. Callers block until their row is committed, so a response still means
+ * the check-in is durable, but a burst pays for one fsync per batch instead of
+ * one per request.
+ */
+@Component
+public class CheckInGroupCommitter {
+
+    private static final String NEXT_IDS = "SELECT nextval(pg_get_serial_sequence('attendances', 'id')) "
+            + "FROM generate_series(1, ?)";
+    private static final String INSERT_PREFIX = "INSERT INTO attendances (id, user_id, full_name, check_in_time, "
+            + "otp_code, status, created_at, updated_at, synced_to_sheets) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, false)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AttendanceSinkDispatcher sinkDispatcher;
+    private final CacheInvalidationBus cacheInvalidationBus;
+    private final AttendanceVersions attendanceVersions;
+    private final MeterRegistry meterRegistry;
+    private final WorkerThreads workerThreads;
+    private final Set<Long> pendingUsers = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.checkin.group-commit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.checkin.group-commit.max-batch-size:100}")
+    private int maxBatchSize = 100;
+
+    @Value("${app.checkin.group-commit.linger-ms:5}")
+    private long lingerMillis = 5;
+
+    @Value("${app.checkin.group-commit.queue-capacity:10000}")
+    private int queueCapacity = 10000;
+
+    @Value("${app.checkin.group-commit.wait-timeout-seconds:10}")
+    private long waitTimeoutSeconds = 10;
+
+    private BlockingQueue<PendingCheckIn> queue;
+    private DistributionSummary batchSizes;
+    private Thread committer;
+    private volatile boolean running;
+
+    public CheckInGroupCommitter(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 AttendanceSinkDispatcher sinkDispatcher,
+                                 CacheInvalidationBus cacheInvalidationBus,
+                                 AttendanceVersions attendanceVersions,
+                                 MeterRegistry meterRegistry,
+                                 WorkerThreads workerThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sinkDispatcher = sinkDispatcher;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        this.attendanceVersions = attendanceVersions;
+        this.meterRegistry = meterRegistry;
+        this.workerThreads = workerThreads;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchSizes = DistributionSummary.builder("attendance.checkin.group.size")
+                .description("Check-ins committed per group-commit transaction")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue((double) maxBatchSize)
+                .register(meterRegistry);
+        Gauge.builder("attendance.checkin.group.queued", queue, BlockingQueue::size)
+                .description("Check-ins waiting for the next group commit")
+                .register(meterRegistry);
+
+        running = true;
+        committer = workerThreads.newThread("checkin-group-committer", this::run);
+        committer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (committer != null) {
+            committer.interrupt();
+            try {
+                committer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a validated check-in and wait until it is committed.
+     * Returns the attendance with its generated id.
+     */
+    public Attendance commit(Attendance attendance) {
+        // A second check-in for a user whose row is not committed yet would pass validation
+        Long userId = attendance.getUserId();
+        if (!pendingUsers.add(userId)) {
+            throw new RuntimeException("A check-in for this user is already in progress");
+        }
+        PendingCheckIn pending = new PendingCheckIn(attendance);
+        if (!running || !queue.offer(pending)) {
+            pendingUsers.remove(userId);
+            throw new RuntimeException("Too many check-ins in progress, please retry");
+        }
+        // The user stays pending until the row is committed or failed, even if this caller gives up waiting
+        pending.result.whenComplete((result, failure) -> pendingUsers.remove(userId));
+        try {
+            return pending.result.get(waitTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            // The row is still queued; a retry is refused as in progress until it commits,
+            // and then hits the one-check-in-per-day rule
+            throw new RuntimeException("Check-in is taking longer than expected, please check your status");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for check-in to commit");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+        }
+    }
+
+    private void run() {
+        List<PendingCheckIn> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCheckIn first = running ? queue.take() : queue.poll();
+                if (first == null) {
+                    break;
+                }
+                batch.add(first);
+
+                // Linger so a burst fills the batch; an idle system commits after lingerMillis
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingCheckIn next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commitBatch(batch);
+            } catch (InterruptedException e) {
+                // Shutting down: loop once more to commit what is queued
+                running = false;
+                commitBatch(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Commit a batch in one transaction. If it fails, fall back to one transaction
+     * per row so a single bad row does not fail its neighbours.
+     */
+    private void commitBatch(List<PendingCheckIn> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertAndAnnounce(batch));
+            sample.stop(meterRegistry.timer("attendance.checkin.group.commit", "outcome", "success"));
+            batchSizes.record(batch.size());
+            batch.forEach(this::completed);
+        } catch (RuntimeException e) {
+            sample.stop(meterRegistry.timer("attendance.checkin.group.commit", "outcome", "error"));
+            System.err.println("Group commit of " + batch.size() + " check-ins failed, retrying one by one: " + e.getMessage());
+            for (PendingCheckIn pending : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertAndAnnounce(List.of(pending)));
+                    batchSizes.record(1);
+                    completed(pending);
+                } catch (RuntimeException rowFailure) {
+                    pending.result.completeExceptionally(rowFailure);
+                }
+            }
+        }
+    }
+
+    private void insertAndAnnounce(List<PendingCheckIn> batch) {
+        List<Attendance> attendances = new ArrayList<>(batch.size());
+        List<Long> userIds = new ArrayList<>(batch.size());
+        for (PendingCheckIn pending : batch) {
+            attendances.add(pending.attendance);
+            userIds.add(pending.attendance.getUserId());
+        }
+        insert(jdbcTemplate, attendances);
+        // Plain JDBC bypasses the JPA entity listener, so bump versions and announce the rows
+        // here (both join the transaction)
+        attendanceVersions.bump(userIds);
+        for (Attendance attendance : attendances) {
+            cacheInvalidationBus.publish(CacheInvalidation.Type.ATTENDANCE, attendance.getId(), attendance.getUserId());
+        }
+    }
+
+    private void completed(PendingCheckIn pending) {
+        sinkDispatcher.publish(AttendanceEvent.checkIn(pending.attendance));
+        pending.result.complete(pending.attendance);
+    }
+
+    /**
+     * Insert check-ins with one multi-row INSERT and set their ids and timestamps. Ids
+     * are taken from the id sequence up front, so no row has to be matched to its id
+     * afterwards.
+     */
+    static void insert(JdbcTemplate jdbcTemplate, List<Attendance> attendances) {
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS, Long.class, attendances.size());
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(attendances.size() * 8);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < attendances.size(); i++) {
+            Attendance attendance = attendances.get(i);
+            attendance.setId(ids.get(i));
+            attendance.setCreatedAt(now.toLocalDateTime());
+            attendance.setUpdatedAt(now.toLocalDateTime());
+            sql.append(i == 0 ? "" : ", ").append(ROW_PLACEHOLDERS);
+            args.add(attendance.getId());
+            args.add(attendance.getUserId());
+            args.add(attendance.getFullName());
+            args.add(Timestamp.valueOf(attendance.getCheckInTime()));
+            args.add(attendance.getOtpCode());
+            args.add(attendance.getStatus().name());
+            args.add(now);
+            args.add(now);
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static class PendingCheckIn {
+
+        private final Attendance attendance;
+        private final CompletableFuture<Attendance> result = new CompletableFuture<>();
+
+        PendingCheckIn(Attendance attendance) {
+            this.attendance = attendance;
+        }
+    }
+}
@@ -1,21 +1,30 @@
 package com.backend.service;
 
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.SheetsRequest;
 import com.google.api.services.sheets.v4.model.*;
 import com.google.auth.http.HttpCredentialsAdapter;
 import com.google.auth.oauth2.GoogleCredentials;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.security.GeneralSecurityException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class GoogleSheetsService {
@@ -26,64 +35,208 @@ public class GoogleSheetsService {
     @Value("${google.sheets.credentials.path}")
     private String credentialsPath;
     
+    @Value("${google.sheets.root-url:}")
+    private String rootUrl;
+    
     private static final String APPLICATION_NAME = "Eros Attendance System";
     private static final List<String> SCOPES = Collections.singletonList("https://www.googleapis.com/auth/spreadsheets");
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final List<Object> DETAIL_HEADER = Arrays.asList("Full Name", "Check In", "Check Out", "Duration", "Status");
+    public static final String CHECKMARK = "✓";
+    
+    private static final int BAD_REQUEST = 400;
+    
+    private final SheetsRateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private volatile Sheets sheetsService;
+    
+    // Sheet title -> sheetId, filled from spreadsheets.get and addSheet replies
+    private final Map<String, Integer> sheetIds = new ConcurrentHashMap<>();
+    // Locks rather than synchronized: they are held across HTTP calls and quota waits,
+    // which would pin the carrier thread of a virtual thread on Java 21
+    private final ReentrantLock sheetCreationLock = new ReentrantLock();
+    private final ReentrantLock clientLock = new ReentrantLock();
+    
+    @Value("${google.sheets.quota.backoff-seconds:60}")
+    private long quotaBackoffSeconds;
+    
+    public GoogleSheetsService(SheetsRateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+    }
     
     /**
-     * Get Sheets service
+     * Get Sheets service (built once and reused; the client is thread-safe)
      */
     private Sheets getSheetsService() throws IOException, GeneralSecurityException {
+        Sheets service = sheetsService;
+        if (service == null) {
+            clientLock.lock();
+            try {
+                if (sheetsService == null) {
+                    sheetsService = createSheetsService();
+                }
+                service = sheetsService;
+            } finally {
+                clientLock.unlock();
+            }
+        }
+        return service;
+    }
+    
+    private Sheets createSheetsService() throws IOException, GeneralSecurityException {
         NetHttpTransport httpTransport = GoogleNetHttpTransport.newTrustedTransport();
         GsonFactory jsonFactory = GsonFactory.getDefaultInstance();
         
-        GoogleCredentials credentials = GoogleCredentials
-                .fromStream(new FileInputStream(credentialsPath))
-                .createScoped(SCOPES);
+        // A custom root URL (local Sheets stand-in) may run without credentials
+        HttpRequestInitializer requestInitializer = request -> { };
+        if (credentialsPath != null && !credentialsPath.isBlank()) {
+            try (FileInputStream credentialsStream = new FileInputStream(credentialsPath)) {
+                GoogleCredentials credentials = GoogleCredentials
+                        .fromStream(credentialsStream)
+                        .createScoped(SCOPES);
+                requestInitializer = new HttpCredentialsAdapter(credentials);
+            }
+        }
+        
+        Sheets.Builder builder = new Sheets.Builder(httpTransport, jsonFactory, requestInitializer)
+                .setApplicationName(APPLICATION_NAME);
+        if (rootUrl != null && !rootUrl.isBlank()) {
+            builder.setRootUrl(rootUrl);
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Execute a Sheets API request through the shared quota limiter.
+     * A 429 pauses the limiter so every caller backs off, not just this one.
+     * Each call is timed (excluding the wait for quota) by operation and outcome.
+     */
+    private <T> T execute(SheetsRequest<T> request) throws IOException {
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for Sheets quota");
+        }
         
-        return new Sheets.Builder(httpTransport, jsonFactory, new HttpCredentialsAdapter(credentials))
-                .setApplicationName(APPLICATION_NAME)
-                .build();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = request.execute();
+            outcome = "success";
+            return result;
+        } catch (GoogleJsonResponseException e) {
+            if (e.getStatusCode() == TOO_MANY_REQUESTS) {
+                outcome = "quota_exceeded";
+                rateLimiter.backOff(Duration.ofSeconds(quotaBackoffSeconds));
+            } else if (e.getStatusCode() == BAD_REQUEST) {
+                // Most likely a range on a sheet that was renamed or deleted by hand
+                sheetIds.clear();
+            }
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("sheets.api.requests",
+                    "operation", operationName(request), "outcome", outcome));
+        }
+    }
+    
+    /**
+     * Metric tag for a request, e.g. "spreadsheets.get" or "values.append"
+     */
+    private static String operationName(SheetsRequest<?> request) {
+        Class<?> requestClass = request.getClass();
+        Class<?> resource = requestClass.getEnclosingClass();
+        String operation = Character.toLowerCase(requestClass.getSimpleName().charAt(0))
+                + requestClass.getSimpleName().substring(1);
+        return resource != null ? resource.getSimpleName().toLowerCase() + "." + operation : operation;
+    }
+    
+    /**
+     * Check if an exception is a Sheets quota (429) rejection
+     */
+    public static boolean isQuotaExceeded(Throwable e) {
+        return e instanceof GoogleJsonResponseException
+                && ((GoogleJsonResponseException) e).getStatusCode() == TOO_MANY_REQUESTS;
     }
     
     /**
      * Get or create sheet for specific month
      */
     public String getOrCreateMonthSheet(int year, int month) throws IOException, GeneralSecurityException {
-        String sheetName = String.format("%d-%02d", year, month);
-        Sheets service = getSheetsService();
+        String sheetName = monthSheetName(year, month);
+        if (sheetIds.containsKey(sheetName)) {
+            return sheetName;
+        }
         
-        // Check if sheet exists
-        Spreadsheet spreadsheet = service.spreadsheets().get(spreadsheetId).execute();
-        for (Sheet sheet : spreadsheet.getSheets()) {
-            if (sheet.getProperties().getTitle().equals(sheetName)) {
+        sheetCreationLock.lock();
+        try {
+            if (findSheetId(sheetName) != null) {
                 return sheetName;
             }
+            
+            Sheets service = getSheetsService();
+            int sheetId = addSheet(service, sheetName);
+            
+            // Add header row
+            List<List<Object>> headers = Collections.singletonList(DETAIL_HEADER);
+            
+            ValueRange body = new ValueRange().setValues(headers);
+            execute(service.spreadsheets().values()
+                    .update(spreadsheetId, sheetName + "!A1:E1", body)
+                    .setValueInputOption("RAW"));
+            
+            // Format header
+            formatHeader(service, sheetId);
+        } finally {
+            sheetCreationLock.unlock();
         }
         
-        // Create new sheet
+        return sheetName;
+    }
+    
+    /**
+     * Look up a sheetId by title, refreshing the cache from the spreadsheet on a miss
+     */
+    private Integer findSheetId(String sheetName) throws IOException, GeneralSecurityException {
+        Integer sheetId = sheetIds.get(sheetName);
+        if (sheetId == null) {
+            refreshSheetIds();
+            sheetId = sheetIds.get(sheetName);
+        }
+        return sheetId;
+    }
+    
+    /**
+     * Reload every sheet title and sheetId with a single spreadsheets.get
+     */
+    private void refreshSheetIds() throws IOException, GeneralSecurityException {
+        Spreadsheet spreadsheet = execute(getSheetsService().spreadsheets().get(spreadsheetId)
+                .setFields("sheets.properties(sheetId,title)"));
+        
+        Map<String, Integer> current = new HashMap<>();
+        for (Sheet sheet : spreadsheet.getSheets()) {
+            current.put(sheet.getProperties().getTitle(), sheet.getProperties().getSheetId());
+        }
+        sheetIds.keySet().retainAll(current.keySet());
+        sheetIds.putAll(current);
+    }
+    
+    /**
+     * Add a sheet and return the sheetId assigned by the API
+     */
+    private int addSheet(Sheets service, String sheetName) throws IOException {
         AddSheetRequest addSheetRequest = new AddSheetRequest()
                 .setProperties(new SheetProperties().setTitle(sheetName));
         
         BatchUpdateSpreadsheetRequest batchRequest = new BatchUpdateSpreadsheetRequest()
                 .setRequests(Collections.singletonList(new Request().setAddSheet(addSheetRequest)));
         
-        service.spreadsheets().batchUpdate(spreadsheetId, batchRequest).execute();
-        
-        // Add header row
-        List<List<Object>> headers = Arrays.asList(
-                Arrays.asList("Full Name", "Check In", "Check Out", "Duration", "Status")
-        );
-        
-        ValueRange body = new ValueRange().setValues(headers);
-        service.spreadsheets().values()
-                .update(spreadsheetId, sheetName + "!A1:E1", body)
-                .setValueInputOption("RAW")
-                .execute();
-        
-        // Format header
-        formatHeader(service, spreadsheet.getSheets().size() - 1);
-        
-        return sheetName;
+        BatchUpdateSpreadsheetResponse response = execute(service.spreadsheets().batchUpdate(spreadsheetId, batchRequest));
+        int sheetId = response.getReplies().get(0).getAddSheet().getProperties().getSheetId();
+        sheetIds.put(sheetName, sheetId);
+        return sheetId;
     }
     
     /**
@@ -98,56 +251,36 @@ public class GoogleSheetsService {
         
         Sheets service = getSheetsService();
         
-        // Format times
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        String checkInStr = checkIn.format(formatter);
-        String checkOutStr = checkOut != null ? checkOut.format(formatter) : "-";
-        
-        // Calculate duration
-        String duration = "-";
-        String status = "Checked In";
-        if (checkOut != null) {
-            long minutes = java.time.Duration.between(checkIn, checkOut).toMinutes();
-            long hours = minutes / 60;
-            long mins = minutes % 60;
-            duration = String.format("%d:%02d", hours, mins);
-            status = "Completed";
-        }
-        
         // Append row
-        List<List<Object>> values = Arrays.asList(
-                Arrays.asList(fullName, checkInStr, checkOutStr, duration, status)
-        );
+        List<List<Object>> values = Collections.singletonList(buildDetailRow(fullName, checkIn, checkOut));
         
         ValueRange body = new ValueRange().setValues(values);
-        service.spreadsheets().values()
+        execute(service.spreadsheets().values()
                 .append(spreadsheetId, sheetName + "!A:E", body)
                 .setValueInputOption("RAW")
-                .setInsertDataOption("INSERT_ROWS")
-                .execute();
+                .setInsertDataOption("INSERT_ROWS"));
         
         // Update monthly summary with checkmark
         updateMonthlySummary(fullName, checkIn);
     }
     
     /**
-     * Update existing attendance record
+     * Update existing attendance record, or write it if the row is missing.
+     * checkOut may be null, in which case the row is left as "Checked In".
      */
     public void updateAttendance(String fullName, LocalDateTime checkIn, LocalDateTime checkOut) 
             throws IOException, GeneralSecurityException {
         
         int year = checkIn.getYear();
         int month = checkIn.getMonthValue();
-        String sheetName = String.format("%d-%02d", year, month);
+        String sheetName = getOrCreateMonthSheet(year, month);
         
         Sheets service = getSheetsService();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        String checkInStr = checkIn.format(formatter);
+        String checkInStr = checkIn.format(DATE_TIME_FORMATTER);
         
         // Find the row with matching name and check-in time
-        ValueRange result = service.spreadsheets().values()
-                .get(spreadsheetId, sheetName + "!A:E")
-                .execute();
+        ValueRange result = execute(service.spreadsheets().values()
+                .get(spreadsheetId, sheetName + "!A:E"));
         
         List<List<Object>> values = result.getValues();
         if (values == null || values.isEmpty()) {
@@ -171,24 +304,21 @@ public class GoogleSheetsService {
             return;
         }
         
-        // Update check-out and duration
-        String checkOutStr = checkOut.format(formatter);
-        long minutes = java.time.Duration.between(checkIn, checkOut).toMinutes();
-        long hours = minutes / 60;
-        long mins = minutes % 60;
-        String duration = String.format("%d:%02d", hours, mins);
+        if (checkOut == null) {
+            // Row already reflects the check-in
+            return;
+        }
         
-        List<List<Object>> updateValues = Arrays.asList(
-                Arrays.asList(checkOutStr, duration, "Completed")
-        );
+        // Update check-out, duration and status (columns C:E of the detail row)
+        List<Object> detailRow = buildDetailRow(fullName, checkIn, checkOut);
+        List<List<Object>> updateValues = Collections.singletonList(detailRow.subList(2, 5));
         
         ValueRange body = new ValueRange().setValues(updateValues);
         String range = String.format("%s!C%d:E%d", sheetName, rowIndex, rowIndex);
         
-        service.spreadsheets().values()
+        execute(service.spreadsheets().values()
                 .update(spreadsheetId, range, body)
-                .setValueInputOption("RAW")
-                .execute();
+                .setValueInputOption("RAW"));
     }
     
     /**
@@ -214,66 +344,51 @@ public class GoogleSheetsService {
         BatchUpdateSpreadsheetRequest batchRequest = new BatchUpdateSpreadsheetRequest()
                 .setRequests(requests);
         
-        service.spreadsheets().batchUpdate(spreadsheetId, batchRequest).execute();
+        execute(service.spreadsheets().batchUpdate(spreadsheetId, batchRequest));
     }
     
     /**
      * Get or create monthly summary sheet with checkmarks
      */
     public String getOrCreateMonthlySummarySheet(int year, int month) throws IOException, GeneralSecurityException {
-        String sheetName = String.format("Summary-%d-%02d", year, month);
-        Sheets service = getSheetsService();
-        
-        // Check if sheet exists
-        Spreadsheet spreadsheet = service.spreadsheets().get(spreadsheetId).execute();
-        for (Sheet sheet : spreadsheet.getSheets()) {
-            if (sheet.getProperties().getTitle().equals(sheetName)) {
-                return sheetName;
-            }
+        String sheetName = summarySheetName(year, month);
+        if (sheetIds.containsKey(sheetName)) {
+            return sheetName;
         }
         
-        // Create new sheet
-        AddSheetRequest addSheetRequest = new AddSheetRequest()
-                .setProperties(new SheetProperties().setTitle(sheetName));
-        
-        BatchUpdateSpreadsheetRequest batchRequest = new BatchUpdateSpreadsheetRequest()
-                .setRequests(Collections.singletonList(new Request().setAddSheet(addSheetRequest)));
-        
-        service.spreadsheets().batchUpdate(spreadsheetId, batchRequest).execute();
-        
-        // Create header with dates
-        int daysInMonth = java.time.YearMonth.of(year, month).lengthOfMonth();
-        List<Object> headers = new ArrayList<>();
-        headers.add("Name");
-        for (int day = 1; day <= daysInMonth; day++) {
-            headers.add(String.valueOf(day));
-        }
-        headers.add("Total");
-        
-        List<List<Object>> headerValues = Collections.singletonList(headers);
-        ValueRange body = new ValueRange().setValues(headerValues);
-        service.spreadsheets().values()
-                .update(spreadsheetId, sheetName + "!A1", body)
-                .setValueInputOption("RAW")
-                .execute();
-        
-        // Format header for summary sheet
-        Sheet createdSheet = null;
-        spreadsheet = service.spreadsheets().get(spreadsheetId).execute();
-        for (Sheet sheet : spreadsheet.getSheets()) {
-            if (sheet.getProperties().getTitle().equals(sheetName)) {
-                createdSheet = sheet;
-                break;
+        sheetCreationLock.lock();
+        try {
+            if (findSheetId(sheetName) != null) {
+                return sheetName;
             }
-        }
-        
-        if (createdSheet != null) {
-            formatSummaryHeader(service, createdSheet.getProperties().getSheetId());
+            
+            Sheets service = getSheetsService();
+            int sheetId = addSheet(service, sheetName);
+            
+            // Create header with dates
+            List<List<Object>> headerValues = Collections.singletonList(buildSummaryHeader(year, month));
+            ValueRange body = new ValueRange().setValues(headerValues);
+            execute(service.spreadsheets().values()
+                    .update(spreadsheetId, sheetName + "!A1", body)
+                    .setValueInputOption("RAW"));
+            
+            // Format header for summary sheet
+            formatSummaryHeader(service, sheetId);
+        } finally {
+            sheetCreationLock.unlock();
         }
         
         return sheetName;
     }
     
+    /**
+     * Create and format both sheets for a month ahead of its first check-in
+     */
+    public void prepareMonth(int year, int month) throws IOException, GeneralSecurityException {
+        getOrCreateMonthSheet(year, month);
+        getOrCreateMonthlySummarySheet(year, month);
+    }
+    
     /**
      * Update monthly summary sheet with attendance
      */
@@ -288,9 +403,8 @@ public class GoogleSheetsService {
         Sheets service = getSheetsService();
         
         // Get existing data
-        ValueRange result = service.spreadsheets().values()
-                .get(spreadsheetId, sheetName + "!A:ZZ")
-                .execute();
+        ValueRange result = execute(service.spreadsheets().values()
+                .get(spreadsheetId, sheetName + "!A:ZZ"));
         
         List<List<Object>> values = result.getValues();
         if (values == null) {
@@ -319,11 +433,10 @@ public class GoogleSheetsService {
             
             List<List<Object>> newRowValues = Collections.singletonList(newRow);
             ValueRange body = new ValueRange().setValues(newRowValues);
-            service.spreadsheets().values()
+            execute(service.spreadsheets().values()
                     .append(spreadsheetId, sheetName + "!A:ZZ", body)
                     .setValueInputOption("RAW")
-                    .setInsertDataOption("INSERT_ROWS")
-                    .execute();
+                    .setInsertDataOption("INSERT_ROWS"));
             
             rowIndex = values.size() + 1;
         }
@@ -334,14 +447,13 @@ public class GoogleSheetsService {
         String range = String.format("%s!%s%d", sheetName, columnLetter, rowIndex);
         
         List<List<Object>> checkmarkValues = Collections.singletonList(
-                Collections.singletonList("✓")
+                Collections.singletonList(CHECKMARK)
         );
         
         ValueRange body = new ValueRange().setValues(checkmarkValues);
-        service.spreadsheets().values()
+        execute(service.spreadsheets().values()
                 .update(spreadsheetId, range, body)
-                .setValueInputOption("RAW")
-                .execute();
+                .setValueInputOption("RAW"));
         
         // Update total count
         updateTotalAttendance(service, sheetName, rowIndex);
@@ -380,7 +492,7 @@ public class GoogleSheetsService {
         BatchUpdateSpreadsheetRequest batchRequest = new BatchUpdateSpreadsheetRequest()
                 .setRequests(requests);
         
-        service.spreadsheets().batchUpdate(spreadsheetId, batchRequest).execute();
+        execute(service.spreadsheets().batchUpdate(spreadsheetId, batchRequest));
     }
     
     /**
@@ -390,16 +502,15 @@ public class GoogleSheetsService {
             throws IOException {
         
         // Get the row data to count checkmarks
-        ValueRange result = service.spreadsheets().values()
-                .get(spreadsheetId, String.format("%s!B%d:AJ%d", sheetName, rowIndex, rowIndex))
-                .execute();
+        ValueRange result = execute(service.spreadsheets().values()
+                .get(spreadsheetId, String.format("%s!B%d:AJ%d", sheetName, rowIndex, rowIndex)));
         
         List<List<Object>> values = result.getValues();
         int count = 0;
         if (values != null && !values.isEmpty()) {
             List<Object> row = values.get(0);
             for (Object cell : row) {
-                if (cell != null && cell.toString().equals("✓")) {
+                if (cell != null && cell.toString().equals(CHECKMARK)) {
                     count++;
                 }
             }
@@ -411,9 +522,8 @@ public class GoogleSheetsService {
         );
         
         // Find last column based on days in month
-        ValueRange headerResult = service.spreadsheets().values()
-                .get(spreadsheetId, sheetName + "!A1:ZZ1")
-                .execute();
+        ValueRange headerResult = execute(service.spreadsheets().values()
+                .get(spreadsheetId, sheetName + "!A1:ZZ1"));
         
         int lastColIndex = 0;
         if (headerResult.getValues() != null && !headerResult.getValues().isEmpty()) {
@@ -424,10 +534,230 @@ public class GoogleSheetsService {
         String range = String.format("%s!%s%d", sheetName, lastColumnLetter, rowIndex);
         
         ValueRange body = new ValueRange().setValues(totalValues);
-        service.spreadsheets().values()
+        execute(service.spreadsheets().values()
                 .update(spreadsheetId, range, body)
-                .setValueInputOption("RAW")
-                .execute();
+                .setValueInputOption("RAW"));
+    }
+    
+    /**
+     * Read the current values of the given sheets in one call.
+     * Sheets that do not exist are returned as empty lists.
+     */
+    public Map<String, List<List<Object>>> readSheets(List<String> sheetNames) throws IOException, GeneralSecurityException {
+        Sheets service = getSheetsService();
+        
+        // A full read must not trust a stale cache
+        refreshSheetIds();
+        Set<String> existing = sheetIds.keySet();
+        
+        Map<String, List<List<Object>>> result = new LinkedHashMap<>();
+        List<String> ranges = new ArrayList<>();
+        for (String sheetName : sheetNames) {
+            result.put(sheetName, new ArrayList<>());
+            if (existing.contains(sheetName)) {
+                ranges.add(sheetName);
+            }
+        }
+        
+        if (!ranges.isEmpty()) {
+            BatchGetValuesResponse response = execute(service.spreadsheets().values()
+                    .batchGet(spreadsheetId)
+                    .setRanges(ranges));
+            for (int i = 0; i < ranges.size(); i++) {
+                List<List<Object>> values = response.getValueRanges().get(i).getValues();
+                if (values != null) {
+                    result.put(ranges.get(i), values);
+                }
+            }
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Replace the whole month (detail and summary sheets) with the given rows.
+     * Uses a fixed number of API calls regardless of row count: one clear
+     * for both sheets and one bulk update per sheet.
+     */
+    public void replaceMonth(int year, int month, List<List<Object>> detailRows, List<List<Object>> summaryRows)
+            throws IOException, GeneralSecurityException {
+        
+        String detailSheet = getOrCreateMonthSheet(year, month);
+        String summarySheet = getOrCreateMonthlySummarySheet(year, month);
+        Sheets service = getSheetsService();
+        
+        execute(service.spreadsheets().values()
+                .batchClear(spreadsheetId, new BatchClearValuesRequest()
+                        .setRanges(Arrays.asList(detailSheet, summarySheet))));
+        
+        List<List<Object>> detailValues = new ArrayList<>(detailRows.size() + 1);
+        detailValues.add(DETAIL_HEADER);
+        detailValues.addAll(detailRows);
+        execute(service.spreadsheets().values()
+                .update(spreadsheetId, detailSheet + "!A1", new ValueRange().setValues(detailValues))
+                .setValueInputOption("RAW"));
+        
+        List<List<Object>> summaryValues = new ArrayList<>(summaryRows.size() + 1);
+        summaryValues.add(buildSummaryHeader(year, month));
+        summaryValues.addAll(summaryRows);
+        execute(service.spreadsheets().values()
+                .update(spreadsheetId, summarySheet + "!A1", new ValueRange().setValues(summaryValues))
+                .setValueInputOption("RAW"));
+    }
+    
+    /**
+     * Write many detail rows of one month with one read and one write. Rows are matched
+     * by name and check-in: a match is updated in place unless the new row has no
+     * check-out, anything else is appended. The summary gets the checkmarks and recounted
+     * totals of the users involved. Like the other read-modify-write methods, run it on
+     * the month's writer lane.
+     */
+    public void upsertMonth(int year, int month, List<List<Object>> detailRows)
+            throws IOException, GeneralSecurityException {
+        if (detailRows.isEmpty()) {
+            return;
+        }
+        String detailSheet = getOrCreateMonthSheet(year, month);
+        String summarySheet = getOrCreateMonthlySummarySheet(year, month);
+        Sheets service = getSheetsService();
+        
+        BatchGetValuesResponse current = execute(service.spreadsheets().values()
+                .batchGet(spreadsheetId)
+                .setRanges(Arrays.asList(detailSheet + "!A:E", summarySheet + "!A:ZZ")));
+        List<List<Object>> detail = mutableValues(current.getValueRanges().get(0));
+        List<List<Object>> summary = mutableValues(current.getValueRanges().get(1));
+        Set<Integer> changedDetail = new TreeSet<>();
+        Set<Integer> changedSummary = new TreeSet<>();
+        if (detail.isEmpty()) {
+            detail.add(DETAIL_HEADER);
+            changedDetail.add(0);
+        }
+        if (summary.isEmpty()) {
+            summary.add(buildSummaryHeader(year, month));
+            changedSummary.add(0);
+        }
+        
+        Map<String, Integer> detailIndex = new HashMap<>();
+        for (int i = 1; i < detail.size(); i++) {
+            List<Object> row = detail.get(i);
+            if (row.size() >= 2) {
+                detailIndex.putIfAbsent(detailKey(row), i);
+            }
+        }
+        Map<String, Integer> summaryIndex = new HashMap<>();
+        for (int i = 1; i < summary.size(); i++) {
+            if (!summary.get(i).isEmpty()) {
+                summaryIndex.putIfAbsent(summary.get(i).get(0).toString(), i);
+            }
+        }
+        
+        int totalColumn = java.time.YearMonth.of(year, month).lengthOfMonth() + 1;
+        for (List<Object> row : detailRows) {
+            String key = detailKey(row);
+            Integer index = detailIndex.get(key);
+            if (index == null) {
+                detail.add(row);
+                detailIndex.put(key, detail.size() - 1);
+                changedDetail.add(detail.size() - 1);
+            } else if (!"-".equals(row.get(2))) {
+                // A row without check-out never overwrites one that has it
+                detail.set(index, row);
+                changedDetail.add(index);
+            }
+            
+            String fullName = row.get(0).toString();
+            int summaryRow = summaryIndex.computeIfAbsent(fullName, name -> {
+                summary.add(new ArrayList<>(Collections.singletonList(name)));
+                return summary.size() - 1;
+            });
+            List<Object> cells = new ArrayList<>(summary.get(summaryRow));
+            while (cells.size() <= totalColumn) {
+                cells.add("");
+            }
+            int day = LocalDateTime.parse(row.get(1).toString(), DATE_TIME_FORMATTER).getDayOfMonth();
+            cells.set(day, CHECKMARK);
+            summary.set(summaryRow, cells);
+            changedSummary.add(summaryRow);
+        }
+        for (int index : changedSummary) {
+            List<Object> cells = summary.get(index);
+            if (index > 0) {
+                cells.set(totalColumn, cells.subList(1, totalColumn).stream().filter(CHECKMARK::equals).count());
+            }
+        }
+        
+        List<ValueRange> data = new ArrayList<>();
+        for (int index : changedDetail) {
+            data.add(new ValueRange()
+                    .setRange(String.format("%s!A%d:E%d", detailSheet, index + 1, index + 1))
+                    .setValues(Collections.singletonList(detail.get(index))));
+        }
+        for (int index : changedSummary) {
+            data.add(new ValueRange()
+                    .setRange(String.format("%s!A%d", summarySheet, index + 1))
+                    .setValues(Collections.singletonList(summary.get(index))));
+        }
+        execute(service.spreadsheets().values()
+                .batchUpdate(spreadsheetId, new BatchUpdateValuesRequest()
+                        .setValueInputOption("RAW")
+                        .setData(data)));
+    }
+    
+    private static String detailKey(List<Object> row) {
+        return row.get(0) + "\t" + row.get(1);
+    }
+    
+    private static List<List<Object>> mutableValues(ValueRange range) {
+        return range.getValues() == null ? new ArrayList<>() : new ArrayList<>(range.getValues());
+    }
+    
+    /**
+     * Name of the detail sheet for a month ("YYYY-MM")
+     */
+    public static String monthSheetName(int year, int month) {
+        return String.format("%d-%02d", year, month);
+    }
+    
+    /**
+     * Name of the summary sheet for a month ("Summary-YYYY-MM")
+     */
+    public static String summarySheetName(int year, int month) {
+        return String.format("Summary-%d-%02d", year, month);
+    }
+    
+    /**
+     * Build a detail sheet row: name, check in, check out, duration, status
+     */
+    public static List<Object> buildDetailRow(String fullName, LocalDateTime checkIn, LocalDateTime checkOut) {
+        String checkInStr = checkIn.format(DATE_TIME_FORMATTER);
+        String checkOutStr = checkOut != null ? checkOut.format(DATE_TIME_FORMATTER) : "-";
+        
+        // Calculate duration
+        String duration = "-";
+        String status = "Checked In";
+        if (checkOut != null) {
+            long minutes = Duration.between(checkIn, checkOut).toMinutes();
+            long hours = minutes / 60;
+            long mins = minutes % 60;
+            duration = String.format("%d:%02d", hours, mins);
+            status = "Completed";
+        }
+        
+        return Arrays.asList(fullName, checkInStr, checkOutStr, duration, status);
+    }
+    
+    /**
+     * Build the summary sheet header: Name, one column per day, Total
+     */
+    public static List<Object> buildSummaryHeader(int year, int month) {
+        int daysInMonth = java.time.YearMonth.of(year, month).lengthOfMonth();
+        List<Object> headers = new ArrayList<>(daysInMonth + 2);
+        headers.add("Name");
+        for (int day = 1; day <= daysInMonth; day++) {
+            headers.add(String.valueOf(day));
+        }
+        headers.add("Total");
+        return headers;
     }
     
     /**
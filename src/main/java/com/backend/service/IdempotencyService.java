@@ -0,0 +1,216 @@
+package com.backend.service;
+
+import com.backend.entity.IdempotencyRecord;
+import com.backend.leader.LeaderOnly;
+import com.backend.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for POST endpoints. The first response for a
+ * (userId, key) pair is kept in a bounded, TTL-evicting cache and replayed on
+ * retry without running the request again. A duplicate that arrives while
+ * the first is still running waits for its result. Only final answers are kept:
+ * a 5xx response or an exception leaves the key free for the next retry, so
+ * actions must report transient failures that way. With persistence enabled
+ * responses are also stored in the database so other nodes can replay them.
+ */
+@Service
+public class IdempotencyService {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private final Cache<String, CompletableFuture<StoredResponse>> responses;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    
+    @Value("${app.idempotency.persistent:false}")
+    private boolean persistent;
+    
+    @Value("${app.idempotency.in-flight-timeout-seconds:30}")
+    private long inFlightTimeoutSeconds;
+    
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.idempotency.max-entries:100000}") long maxEntries,
+                              @Value("${app.idempotency.ttl-hours:24}") long ttlHours) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotency");
+    }
+    
+    /**
+     * Run the action once per (userId, key) and replay its response afterwards.
+     * The fingerprint identifies the request, so a key reused for a different
+     * request is rejected instead of replaying the wrong response.
+     */
+    public <T> ResponseEntity<T> execute(Long userId, String key, String fingerprint,
+                                         TypeReference<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        
+        String cacheKey = userId + ":" + key;
+        CompletableFuture<StoredResponse> inFlight = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = responses.asMap().putIfAbsent(cacheKey, inFlight);
+        if (existing != null) {
+            String result = existing.isDone() ? "replayed" : "waited";
+            return replay(await(existing), fingerprint, result);
+        }
+        
+        try {
+            if (persistent) {
+                Optional<StoredResponse> stored = loadPersisted(userId, key, bodyType);
+                if (stored.isPresent()) {
+                    inFlight.complete(stored.get());
+                    return replay(stored.get(), fingerprint, "replayed_persisted");
+                }
+            }
+            
+            ResponseEntity<T> response = action.get();
+            StoredResponse stored = new StoredResponse(fingerprint, response.getStatusCode().value(), response.getBody());
+            
+            if (response.getStatusCode().is5xxServerError()) {
+                // Server errors are not final; let the next retry run again
+                responses.asMap().remove(cacheKey, inFlight);
+            } else if (persistent) {
+                StoredResponse winner = persist(userId, key, stored, bodyType);
+                if (winner != stored) {
+                    // Another node answered this key first; every caller gets its response
+                    inFlight.complete(winner);
+                    return replay(winner, fingerprint, "replayed_persisted");
+                }
+            }
+            
+            inFlight.complete(stored);
+            count("executed");
+            return response;
+        } catch (RuntimeException e) {
+            responses.asMap().remove(cacheKey, inFlight);
+            inFlight.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Hash request parts into a fingerprint (so OTP codes are never stored in clear)
+     */
+    public static String fingerprint(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Drop persisted responses older than the TTL
+     */
+    @LeaderOnly
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        if (persistent) {
+            idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        }
+    }
+    
+    private StoredResponse await(CompletableFuture<StoredResponse> future) {
+        try {
+            return future.get(inFlightTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("A request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the original request");
+        } catch (ExecutionException e) {
+            // The original failed and was not stored; the client may retry
+            throw new RuntimeException(e.getCause().getMessage());
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String fingerprint, String result) {
+        if (!stored.fingerprint.equals(fingerprint)) {
+            count("conflict");
+            throw new RuntimeException(HEADER + " was already used for a different request");
+        }
+        count(result);
+        return ResponseEntity.status(stored.statusCode)
+                .header(REPLAYED_HEADER, "true")
+                .body((T) stored.body);
+    }
+    
+    private <T> Optional<StoredResponse> loadPersisted(Long userId, String key, TypeReference<T> bodyType) {
+        return idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, key)
+                .map(record -> new StoredResponse(record.getRequestFingerprint(), record.getStatusCode(),
+                        objectMapper.readValue(record.getResponseBody(), bodyType)));
+    }
+    
+    /**
+     * Store the response; if another node stored one first, return that instead
+     */
+    private <T> StoredResponse persist(Long userId, String key, StoredResponse stored, TypeReference<T> bodyType) {
+        try {
+            idempotencyRecordRepository.save(new IdempotencyRecord(userId, key, stored.fingerprint,
+                    stored.statusCode, objectMapper.writeValueAsString(stored.body)));
+            return stored;
+        } catch (DataIntegrityViolationException e) {
+            return loadPersisted(userId, key, bodyType).orElse(stored);
+        }
+    }
+    
+    private void count(String result) {
+        meterRegistry.counter("idempotency.requests", "result", result).increment();
+    }
+    
+    private static class StoredResponse {
+        private final String fingerprint;
+        private final int statusCode;
+        private final Object body;
+        
+        StoredResponse(String fingerprint, int statusCode, Object body) {
+            this.fingerprint = fingerprint;
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+    }
+}
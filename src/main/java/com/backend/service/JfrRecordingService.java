@@ -0,0 +1,135 @@
+package com.backend.service;
+
+import com.backend.dto.JfrRecordingResponse;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Starts and stops one time-boxed JFR recording at a time, so production can be
+ * profiled on demand without a restart. The recording stops by itself when its
+ * duration elapses; stopping it hands back the .jfr file.
+ */
+@Service
+public class JfrRecordingService {
+
+    private static final String RECORDING_NAME = "attendance-admin";
+
+    private final long maxDurationSeconds;
+    // Not synchronized: stop() writes the recording to disk while holding it
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Recording recording;
+    private Path destination;
+    private String settings;
+
+    public JfrRecordingService(@Value("${app.jfr.max-duration-seconds:600}") long maxDurationSeconds) {
+        this.maxDurationSeconds = maxDurationSeconds;
+    }
+
+    /**
+     * Start a recording with the given JFR settings ("default" or "profile")
+     */
+    public JfrRecordingResponse start(long durationSeconds, String settings) throws IOException {
+        lock.lock();
+        try {
+            return startLocked(durationSeconds, settings);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private JfrRecordingResponse startLocked(long durationSeconds, String settings) throws IOException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new RuntimeException("A JFR recording is already running");
+        }
+        if (durationSeconds < 1 || durationSeconds > maxDurationSeconds) {
+            throw new RuntimeException("Duration must be between 1 and " + maxDurationSeconds + " seconds");
+        }
+        discard();
+
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings);
+        } catch (ParseException | IOException e) {
+            throw new RuntimeException("Unknown JFR settings: " + settings);
+        }
+
+        Path file = Files.createTempFile("attendance-", ".jfr");
+        Recording newRecording = new Recording(configuration);
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setDuration(Duration.ofSeconds(durationSeconds));
+        // Written here when the duration elapses or on stop
+        newRecording.setDestination(file);
+        newRecording.start();
+
+        this.recording = newRecording;
+        this.destination = file;
+        this.settings = settings;
+        return toResponse();
+    }
+
+    /**
+     * Status of the current (or last) recording, or null if there is none
+     */
+    public JfrRecordingResponse status() {
+        lock.lock();
+        try {
+            return recording != null ? toResponse() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop the recording (if still running) and return its file.
+     * The caller owns the file and must delete it.
+     */
+    public Path stop() throws IOException {
+        lock.lock();
+        try {
+            if (recording == null) {
+                throw new RuntimeException("No JFR recording to stop");
+            }
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+
+            Path file = destination;
+            recording.close();
+            recording = null;
+            destination = null;
+            return file;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop a finished recording that was never collected
+     */
+    private void discard() throws IOException {
+        if (recording != null) {
+            recording.close();
+            Files.deleteIfExists(destination);
+            recording = null;
+            destination = null;
+        }
+    }
+
+    private JfrRecordingResponse toResponse() {
+        Duration duration = recording.getDuration();
+        return new JfrRecordingResponse(recording.getId(), recording.getName(), recording.getState().name(),
+                settings, recording.getStartTime(), duration != null ? duration.getSeconds() : 0);
+    }
+}
@@ -1,5 +1,8 @@
 package com.backend.service;
 
+import com.backend.timing.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -19,6 +22,12 @@ public class OTPService {
     @Value("${otp.time.step.seconds:300}") // 300 seconds (5 minutes) - matching C++
     private long timeStepSeconds;
     
+    private final MeterRegistry meterRegistry;
+    
+    public OTPService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+    
     /**
      * Convert hex string to byte array
      */
@@ -41,6 +50,15 @@ public class OTPService {
      * Strict mode: Only accepts current time window (no tolerance for clock drift)
      */
     public boolean verifyOTP(String otpCode) {
+        try (RequestTimings.Phase phase = RequestTimings.start("otp")) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            boolean valid = checkOTP(otpCode);
+            sample.stop(meterRegistry.timer("otp.verify", "outcome", valid ? "valid" : "invalid"));
+            return valid;
+        }
+    }
+    
+    private boolean checkOTP(String otpCode) {
         if (otpCode == null || otpCode.length() != 6) {
             return false;
         }
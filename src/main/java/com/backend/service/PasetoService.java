@@ -1,6 +1,8 @@
 package com.backend.service;
 
 import dev.paseto.jpaseto.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -27,6 +29,13 @@ public class PasetoService {
     private static final String TOKEN_TYPE_CLAIM = "token_type";
     private static final String ACCESS_TOKEN_TYPE = "access";
     private static final String REFRESH_TOKEN_TYPE = "refresh";
+    private static final String TOKEN_TIMER = "paseto.token";
+    
+    private final MeterRegistry meterRegistry;
+    
+    public PasetoService(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
     
     /**
      * Generate access token for authenticated user
@@ -35,9 +44,10 @@ public class PasetoService {
         Instant now = Instant.now();
         Instant expiration = now.plus(accessTokenExpiration, ChronoUnit.SECONDS);
         
+        Timer.Sample sample = Timer.start(meterRegistry);
         SecretKey key = getSecretKey();
         
-        return Pasetos.V2.LOCAL.builder()
+        String token = Pasetos.V2.LOCAL.builder()
                 .setSharedSecret(key)
                 .setIssuedAt(now)
                 .setExpiration(expiration)
@@ -46,6 +56,8 @@ public class PasetoService {
                 .claim("username", username)
                 .claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN_TYPE)
                 .compact();
+        stopTokenTimer(sample, "mint", ACCESS_TOKEN_TYPE, "success");
+        return token;
     }
     
     /**
@@ -55,9 +67,10 @@ public class PasetoService {
         Instant now = Instant.now();
         Instant expiration = now.plus(refreshTokenExpiration, ChronoUnit.SECONDS);
         
+        Timer.Sample sample = Timer.start(meterRegistry);
         SecretKey key = getSecretKey();
         
-        return Pasetos.V2.LOCAL.builder()
+        String token = Pasetos.V2.LOCAL.builder()
                 .setSharedSecret(key)
                 .setIssuedAt(now)
                 .setExpiration(expiration)
@@ -66,22 +79,35 @@ public class PasetoService {
                 .claim("username", username)
                 .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE)
                 .compact();
+        stopTokenTimer(sample, "mint", REFRESH_TOKEN_TYPE, "success");
+        return token;
     }
     
     /**
      * Validate and parse PASETO token
      */
     public Paseto validateAndParseToken(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String type = "none";
+        String outcome = "invalid";
         try {
             SecretKey key = getSecretKey();
             
-            return Pasetos.parserBuilder()
+            Paseto parsed = Pasetos.parserBuilder()
                     .setSharedSecret(key)
                     .requireIssuer(ISSUER)
                     .build()
                     .parse(token);
+            String tokenType = parsed.getClaims().get(TOKEN_TYPE_CLAIM, String.class);
+            if (ACCESS_TOKEN_TYPE.equals(tokenType) || REFRESH_TOKEN_TYPE.equals(tokenType)) {
+                type = tokenType;
+            }
+            outcome = "valid";
+            return parsed;
         } catch (Exception e) {
             throw new RuntimeException("Invalid or expired token: " + e.getMessage());
+        } finally {
+            stopTokenTimer(sample, "parse", type, outcome);
         }
     }
     
@@ -142,6 +168,14 @@ public class PasetoService {
         return refreshTokenExpiration;
     }
     
+    /**
+     * Every paseto.token sample carries the same tag keys; Prometheus rejects a
+     * second registration of the name with a different set
+     */
+    private void stopTokenTimer(Timer.Sample sample, String operation, String type, String outcome) {
+        sample.stop(meterRegistry.timer(TOKEN_TIMER, "operation", operation, "type", type, "outcome", outcome));
+    }
+    
     /**
      * Generate secret key from configured string
      * PASETO v2.local requires exactly 32 bytes
@@ -0,0 +1,174 @@
+package com.backend.service;
+
+import com.backend.entity.Attendance;
+import com.backend.leader.LeaderElection;
+import com.backend.leader.LeaderOnly;
+import com.backend.repository.AttendanceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reconciles attendances that never made it to Google Sheets.
+ * Pages through unsynced rows in check-in order and pushes each month of a page
+ * with one read and one batched write, through GoogleSheetsService's shared
+ * rate limiter so we stay inside the Sheets quota.
+ */
+@Service
+@ConditionalOnProperty(name = "google.sheets.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class SheetsBackfillService {
+
+    private static final LocalDateTime CURSOR_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final AttendanceRepository attendanceRepository;
+    private final GoogleSheetsService googleSheetsService;
+    private final SheetsRateLimiter rateLimiter;
+    private final SheetsWriteLanes sheetsWriteLanes;
+    private final LeaderElection leaderElection;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lastRunRowsPerMinute = new AtomicLong();
+    private final Counter syncedCounter;
+    private final Counter failedCounter;
+
+    @Value("${google.sheets.backfill.page-size:100}")
+    private int pageSize;
+
+    @Value("${google.sheets.backfill.min-age-seconds:120}")
+    private long minAgeSeconds;
+
+    // Hand the scheduler thread back after this long; the next run continues the backlog
+    @Value("${google.sheets.backfill.max-run-seconds:300}")
+    private long maxRunSeconds;
+
+    public SheetsBackfillService(AttendanceRepository attendanceRepository,
+                                 GoogleSheetsService googleSheetsService,
+                                 SheetsRateLimiter rateLimiter,
+                                 SheetsWriteLanes sheetsWriteLanes,
+                                 LeaderElection leaderElection,
+                                 MeterRegistry meterRegistry) {
+        this.attendanceRepository = attendanceRepository;
+        this.googleSheetsService = googleSheetsService;
+        this.rateLimiter = rateLimiter;
+        this.sheetsWriteLanes = sheetsWriteLanes;
+        this.leaderElection = leaderElection;
+
+        Gauge.builder("sheets.backfill.backlog", backlog, AtomicLong::get)
+                .description("Attendances not yet synced to Google Sheets")
+                .register(meterRegistry);
+        Gauge.builder("sheets.backfill.drain.rate", lastRunRowsPerMinute, AtomicLong::get)
+                .description("Rows synced per minute during the last backfill run")
+                .baseUnit("rows/min")
+                .register(meterRegistry);
+        this.syncedCounter = Counter.builder("sheets.backfill.synced")
+                .description("Attendances synced by the backfill worker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("sheets.backfill.failed")
+                .description("Backfill attempts that failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Drain the unsynced backlog. Runs with a fixed delay so runs never overlap,
+     * and only on the leader so nodes do not race each other for the same rows.
+     * A run can outlast a failover, so leadership is checked again before every write.
+     */
+    @LeaderOnly
+    @Scheduled(fixedDelayString = "${google.sheets.backfill.interval-ms:60000}",
+               initialDelayString = "${google.sheets.backfill.initial-delay-ms:30000}")
+    public void backfill() {
+        backlog.set(attendanceRepository.countBySyncedToSheetsFalse());
+        if (backlog.get() == 0 || rateLimiter.isBackingOff()) {
+            return;
+        }
+
+        // Skip rows touched recently; their own sync thread may still be running
+        LocalDateTime updatedBefore = LocalDateTime.now().minusSeconds(minAgeSeconds);
+        LocalDateTime cursorTime = CURSOR_START;
+        Long cursorId = 0L;
+        long synced = 0;
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(maxRunSeconds);
+
+        try {
+            while (System.nanoTime() - deadlineNanos < 0) {
+                List<Attendance> page = attendanceRepository.findUnsyncedAttendances(
+                        cursorTime, cursorId, updatedBefore, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                Attendance last = page.get(page.size() - 1);
+                cursorTime = last.getCheckInTime();
+                cursorId = last.getId();
+
+                Map<YearMonth, List<Attendance>> byMonth = new LinkedHashMap<>();
+                for (Attendance attendance : page) {
+                    byMonth.computeIfAbsent(YearMonth.from(attendance.getCheckInTime()), month -> new ArrayList<>())
+                            .add(attendance);
+                }
+                for (Map.Entry<YearMonth, List<Attendance>> entry : byMonth.entrySet()) {
+                    if (!leaderElection.isLeader()) {
+                        System.err.println("Lost leadership, stopping Sheets backfill");
+                        return;
+                    }
+                    List<Attendance> attendances = entry.getValue();
+                    try {
+                        sync(entry.getKey(), attendances);
+                        synced += attendances.size();
+                        backlog.addAndGet(-attendances.size());
+                    } catch (Exception e) {
+                        failedCounter.increment();
+                        if (GoogleSheetsService.isQuotaExceeded(e)) {
+                            // The limiter is now paused; the next run resumes from the oldest row
+                            System.err.println("Sheets quota exceeded during backfill, backing off");
+                            return;
+                        }
+                        // Leave them unsynced; they are retried on the next run
+                        System.err.println("Failed to backfill " + attendances.size() + " attendances of "
+                                + entry.getKey() + ": " + e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+            lastRunRowsPerMinute.set(synced * 60_000 / elapsedMillis);
+        }
+    }
+
+    /**
+     * Push one month's attendances to Sheets in one batched write (on the month's
+     * writer lane) and mark them synced
+     */
+    private void sync(YearMonth month, List<Attendance> attendances) throws Exception {
+        List<List<Object>> rows = new ArrayList<>(attendances.size());
+        for (Attendance attendance : attendances) {
+            rows.add(GoogleSheetsService.buildDetailRow(
+                    attendance.getFullName(),
+                    attendance.getCheckInTime(),
+                    attendance.getCheckOutTime()
+            ));
+        }
+        sheetsWriteLanes.run(month, () -> {
+            googleSheetsService.upsertMonth(month.getYear(), month.getMonthValue(), rows);
+            return null;
+        });
+        for (Attendance attendance : attendances) {
+            attendanceRepository.markSyncedToSheets(attendance.getId(), attendance.getCheckOutTime() != null);
+        }
+        syncedCounter.increment(attendances.size());
+    }
+}
@@ -0,0 +1,224 @@
+package com.backend.service;
+
+import com.backend.dto.MonthRebuildResponse;
+import com.backend.entity.Attendance;
+import com.backend.repository.AttendanceRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Regenerates a month's detail and summary sheets from the database.
+ * Rows are built in memory (in parallel per user) and written with a fixed
+ * number of Sheets API calls, instead of replaying rows one at a time.
+ */
+@Service
+public class SheetsMonthRebuildService {
+
+    private static final int DIFF_SAMPLE_SIZE = 20;
+
+    private final AttendanceRepository attendanceRepository;
+    private final GoogleSheetsService googleSheetsService;
+    private final SheetsWriteLanes sheetsWriteLanes;
+
+    public SheetsMonthRebuildService(AttendanceRepository attendanceRepository,
+                                     GoogleSheetsService googleSheetsService,
+                                     SheetsWriteLanes sheetsWriteLanes) {
+        this.attendanceRepository = attendanceRepository;
+        this.googleSheetsService = googleSheetsService;
+        this.sheetsWriteLanes = sheetsWriteLanes;
+    }
+
+    /**
+     * Rebuild (or, with dryRun, diff) the sheets for a month.
+     * A real rebuild runs on the month's writer lane so no incremental write
+     * lands between the database read and the sheet replace.
+     */
+    public MonthRebuildResponse rebuildMonth(int year, int month, boolean dryRun)
+            throws IOException, GeneralSecurityException {
+        if (dryRun) {
+            return rebuild(year, month, true);
+        }
+        return sheetsWriteLanes.run(YearMonth.of(year, month), () -> rebuild(year, month, false));
+    }
+
+    private MonthRebuildResponse rebuild(int year, int month, boolean dryRun)
+            throws IOException, GeneralSecurityException {
+
+        List<Attendance> attendances = attendanceRepository.findByYearAndMonth(year, month);
+        MonthRows rows = buildRows(attendances, year, month);
+
+        MonthRebuildResponse response = new MonthRebuildResponse(year, month, dryRun,
+                rows.detailRows.size(), rows.summaryRows.size());
+
+        if (dryRun) {
+            String detailSheet = GoogleSheetsService.monthSheetName(year, month);
+            String summarySheet = GoogleSheetsService.summarySheetName(year, month);
+            Map<String, List<List<Object>>> current = googleSheetsService.readSheets(
+                    Arrays.asList(detailSheet, summarySheet));
+            diffDetail(response, withoutHeader(current.get(detailSheet)), rows.detailRows);
+            diffSummary(response, withoutHeader(current.get(summarySheet)), rows.summaryRows);
+            return response;
+        }
+
+        googleSheetsService.replaceMonth(year, month, rows.detailRows, rows.summaryRows);
+
+        // Everything in the month is now on the sheet
+        List<Long> ids = attendances.stream().map(Attendance::getId).collect(Collectors.toList());
+        if (!ids.isEmpty()) {
+            attendanceRepository.markAllSyncedToSheets(ids);
+        }
+
+        return response;
+    }
+
+    /**
+     * Build detail rows (chronological, like the incremental path) and one summary row per name
+     */
+    private MonthRows buildRows(List<Attendance> attendances, int year, int month) {
+        int daysInMonth = YearMonth.of(year, month).lengthOfMonth();
+
+        // The sheets identify people by full name, so group the same way.
+        // findByYearAndMonth is ordered by name, which keeps summary rows sorted.
+        Map<String, List<Attendance>> byName = attendances.stream()
+                .collect(Collectors.groupingBy(Attendance::getFullName, LinkedHashMap::new, Collectors.toList()));
+
+        List<UserRows> userRows = byName.entrySet().parallelStream()
+                .map(entry -> buildUserRows(entry.getKey(), entry.getValue(), daysInMonth))
+                .collect(Collectors.toList());
+
+        MonthRows rows = new MonthRows();
+        List<DetailRow> detailRows = new ArrayList<>(attendances.size());
+        for (UserRows user : userRows) {
+            rows.summaryRows.add(user.summaryRow);
+            detailRows.addAll(user.detailRows);
+        }
+
+        detailRows.sort(Comparator.comparing((DetailRow row) -> row.checkInTime).thenComparing(row -> row.id));
+        for (DetailRow row : detailRows) {
+            rows.detailRows.add(row.values);
+        }
+
+        return rows;
+    }
+
+    private UserRows buildUserRows(String fullName, List<Attendance> attendances, int daysInMonth) {
+        UserRows user = new UserRows();
+
+        boolean[] present = new boolean[daysInMonth + 1];
+        for (Attendance attendance : attendances) {
+            user.detailRows.add(new DetailRow(attendance, GoogleSheetsService.buildDetailRow(
+                    fullName, attendance.getCheckInTime(), attendance.getCheckOutTime())));
+            present[attendance.getCheckInTime().getDayOfMonth()] = true;
+        }
+
+        int total = 0;
+        user.summaryRow.add(fullName);
+        for (int day = 1; day <= daysInMonth; day++) {
+            user.summaryRow.add(present[day] ? GoogleSheetsService.CHECKMARK : "");
+            if (present[day]) {
+                total++;
+            }
+        }
+        user.summaryRow.add(total);
+
+        return user;
+    }
+
+    /**
+     * Compare detail rows as multisets, since row order on the sheet is not meaningful
+     */
+    private void diffDetail(MonthRebuildResponse response, List<List<Object>> current, List<List<Object>> expected) {
+        Map<String, Integer> remaining = new HashMap<>();
+        for (List<Object> row : current) {
+            remaining.merge(rowKey(row), 1, Integer::sum);
+        }
+
+        for (List<Object> row : expected) {
+            String key = rowKey(row);
+            Integer count = remaining.get(key);
+            if (count == null) {
+                response.addDetailRowToAdd(key, DIFF_SAMPLE_SIZE);
+            } else if (count == 1) {
+                remaining.remove(key);
+            } else {
+                remaining.put(key, count - 1);
+            }
+        }
+
+        remaining.forEach((key, count) -> {
+            for (int i = 0; i < count; i++) {
+                response.addDetailRowToRemove(key, DIFF_SAMPLE_SIZE);
+            }
+        });
+    }
+
+    /**
+     * Compare summary rows by name
+     */
+    private void diffSummary(MonthRebuildResponse response, List<List<Object>> current, List<List<Object>> expected) {
+        Map<String, String> currentByName = new HashMap<>();
+        for (List<Object> row : current) {
+            if (!row.isEmpty()) {
+                currentByName.put(row.get(0).toString(), rowKey(row));
+            }
+        }
+
+        for (List<Object> row : expected) {
+            String name = row.get(0).toString();
+            String existing = currentByName.remove(name);
+            if (existing == null || !existing.equals(rowKey(row))) {
+                response.addSummaryNameChanged(name, DIFF_SAMPLE_SIZE);
+            }
+        }
+
+        currentByName.keySet().forEach(name -> response.addSummaryNameChanged(name, DIFF_SAMPLE_SIZE));
+    }
+
+    /**
+     * Normalise a row for comparison; Sheets drops trailing empty cells
+     */
+    private String rowKey(List<Object> row) {
+        int end = row.size();
+        while (end > 0 && (row.get(end - 1) == null || row.get(end - 1).toString().isEmpty())) {
+            end--;
+        }
+        return row.subList(0, end).stream()
+                .map(cell -> cell == null ? "" : cell.toString())
+                .collect(Collectors.joining("\t"));
+    }
+
+    private List<List<Object>> withoutHeader(List<List<Object>> values) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return values.subList(1, values.size());
+    }
+
+    private static class DetailRow {
+        private final LocalDateTime checkInTime;
+        private final Long id;
+        private final List<Object> values;
+
+        DetailRow(Attendance attendance, List<Object> values) {
+            this.checkInTime = attendance.getCheckInTime();
+            this.id = attendance.getId();
+            this.values = values;
+        }
+    }
+
+    private static class UserRows {
+        private final List<DetailRow> detailRows = new ArrayList<>();
+        private final List<Object> summaryRow = new ArrayList<>();
+    }
+
+    private static class MonthRows {
+        private final List<List<Object>> detailRows = new ArrayList<>();
+        private final List<List<Object>> summaryRows = new ArrayList<>();
+    }
+}
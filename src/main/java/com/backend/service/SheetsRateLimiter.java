@@ -0,0 +1,91 @@
+package com.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket shared by every Google Sheets API call.
+ * Refills at the configured per-minute quota and allows a small burst,
+ * so background work can never push the project over the Sheets limit.
+ */
+@Component
+public class SheetsRateLimiter {
+
+    private final double permitsPerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    public SheetsRateLimiter(@Value("${google.sheets.quota.requests-per-minute:60}") double requestsPerMinute,
+                             @Value("${google.sheets.quota.burst:5}") double burst) {
+        this.permitsPerNano = requestsPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.capacity = Math.max(1, burst);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * Block until one request may be sent
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Stop handing out permits for the given duration (used after a 429)
+     */
+    public void backOff(Duration duration) {
+        backOff(duration, System.nanoTime());
+    }
+
+    synchronized void backOff(Duration duration, long now) {
+        long until = now + duration.toNanos();
+        if (until - pausedUntilNanos > 0) {
+            pausedUntilNanos = until;
+        }
+        tokens = 0;
+    }
+
+    /**
+     * Check if a back-off is currently in effect
+     */
+    public synchronized boolean isBackingOff() {
+        return pausedUntilNanos - System.nanoTime() > 0;
+    }
+
+    private long reserve() {
+        return reserve(System.nanoTime());
+    }
+
+    /**
+     * Take one token, letting the balance go negative, and return how long the caller must wait.
+     * The deficit is paid after any pause ends, so callers queued during a back-off leave one
+     * refill interval apart instead of all at once.
+     */
+    synchronized long reserve(long now) {
+        refill(now);
+        tokens -= 1;
+
+        long deficitNanos = tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+        long pausedNanos = Math.max(0, pausedUntilNanos - now);
+        return pausedNanos + deficitNanos;
+    }
+
+    private void refill(long now) {
+        // No tokens accrue while paused
+        long accrueFrom = Math.max(lastRefillNanos, pausedUntilNanos);
+        if (now > accrueFrom) {
+            tokens = Math.min(capacity, tokens + (now - accrueFrom) * permitsPerNano);
+        }
+        lastRefillNanos = now;
+    }
+}
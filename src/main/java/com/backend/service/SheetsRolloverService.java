@@ -0,0 +1,38 @@
+package com.backend.service;
+
+import com.backend.leader.LeaderOnly;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+
+/**
+ * Creates and formats next month's detail and summary sheets on the last
+ * evening of the month, so the first check-in after midnight only appends.
+ */
+@Service
+@ConditionalOnProperty(name = "google.sheets.rollover.enabled", havingValue = "true", matchIfMissing = true)
+public class SheetsRolloverService {
+
+    private final GoogleSheetsService googleSheetsService;
+
+    public SheetsRolloverService(GoogleSheetsService googleSheetsService) {
+        this.googleSheetsService = googleSheetsService;
+    }
+
+    /**
+     * Runs at 23:00 on the last day of every month by default
+     */
+    @LeaderOnly
+    @Scheduled(cron = "${google.sheets.rollover.cron:0 0 23 L * *}")
+    public void prepareNextMonth() {
+        YearMonth next = YearMonth.now().plusMonths(1);
+        try {
+            googleSheetsService.prepareMonth(next.getYear(), next.getMonthValue());
+        } catch (Exception e) {
+            // The first check-in of the month creates the sheets if this fails
+            System.err.println("Failed to pre-create sheets for " + next + ": " + e.getMessage());
+        }
+    }
+}
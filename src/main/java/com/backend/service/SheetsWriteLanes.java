@@ -0,0 +1,146 @@
+package com.backend.service;
+
+import com.backend.config.WorkerThreads;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.security.GeneralSecurityException;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serializes Sheets writes per month. Every month's detail and summary sheets
+ * form one lane whose tasks run one at a time, in submission order; different
+ * months run in parallel on a bounded pool. This keeps read-modify-write
+ * sequences such as "find the summary row, else append one" race-free
+ * without a global lock. In virtual-thread mode every active lane gets its
+ * own virtual thread instead of sharing the fixed pool.
+ */
+@Component
+public class SheetsWriteLanes {
+
+    private final Map<YearMonth, Lane> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final int maxTasksPerTurn;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public SheetsWriteLanes(int threads, int maxTasksPerTurn, MeterRegistry meterRegistry) {
+        this(threads, maxTasksPerTurn, meterRegistry, WorkerThreads.platform());
+    }
+
+    @Autowired
+    public SheetsWriteLanes(@Value("${google.sheets.writer.threads:4}") int threads,
+                            @Value("${google.sheets.writer.max-tasks-per-turn:20}") int maxTasksPerTurn,
+                            MeterRegistry meterRegistry,
+                            WorkerThreads workerThreads) {
+        this.maxTasksPerTurn = maxTasksPerTurn;
+        this.executor = workerThreads.newExecutor("sheets-writer-", threads);
+
+        Gauge.builder("sheets.writer.queued", queued, AtomicInteger::get)
+                .description("Sheets write tasks waiting in their month lane")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a task on the lane for a month
+     */
+    public <T> CompletableFuture<T> submit(YearMonth month, SheetsTask<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Lane lane = lanes.computeIfAbsent(month, key -> new Lane());
+        queued.incrementAndGet();
+        lane.tasks.add(() -> {
+            queued.decrementAndGet();
+            try {
+                future.complete(task.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        lane.schedule();
+        return future;
+    }
+
+    /**
+     * Run a task on the lane for a month and wait for its result
+     */
+    public <T> T run(YearMonth month, SheetsTask<T> task) throws IOException, GeneralSecurityException {
+        try {
+            return submit(month, task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for Sheets writer");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A unit of Sheets work
+     */
+    @FunctionalInterface
+    public interface SheetsTask<T> {
+        T call() throws IOException, GeneralSecurityException;
+    }
+
+    /**
+     * Task queue for one month. At most one drain per lane is on the pool at a time,
+     * and a drain yields after maxTasksPerTurn so a busy month cannot starve others.
+     */
+    private class Lane {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void schedule() {
+            if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                for (int i = 0; i < maxTasksPerTurn; i++) {
+                    Runnable task = tasks.poll();
+                    if (task == null) {
+                        break;
+                    }
+                    task.run();
+                }
+            } finally {
+                scheduled.set(false);
+                // Pick up tasks added after the last poll, or left over from this turn
+                schedule();
+            }
+        }
+    }
+}
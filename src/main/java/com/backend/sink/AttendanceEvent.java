@@ -0,0 +1,87 @@
+package com.backend.sink;
+
+import com.backend.entity.Attendance;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of an attendance change, handed to every AttendanceSink
+ */
+public class AttendanceEvent {
+    
+    private final Type type;
+    private final Long attendanceId;
+    private final Long userId;
+    private final String fullName;
+    private final LocalDateTime checkInTime;
+    private final LocalDateTime checkOutTime;
+    private final long publishedAtNanos;
+    
+    public AttendanceEvent(Type type, Long attendanceId, Long userId, String fullName,
+                           LocalDateTime checkInTime, LocalDateTime checkOutTime) {
+        this.type = type;
+        this.attendanceId = attendanceId;
+        this.userId = userId;
+        this.fullName = fullName;
+        this.checkInTime = checkInTime;
+        this.checkOutTime = checkOutTime;
+        this.publishedAtNanos = System.nanoTime();
+    }
+    
+    // Factory methods
+    public static AttendanceEvent checkIn(Attendance attendance) {
+        return fromAttendance(Type.CHECK_IN, attendance);
+    }
+    
+    public static AttendanceEvent checkOut(Attendance attendance) {
+        return fromAttendance(Type.CHECK_OUT, attendance);
+    }
+    
+    private static AttendanceEvent fromAttendance(Type type, Attendance attendance) {
+        return new AttendanceEvent(
+            type,
+            attendance.getId(),
+            attendance.getUserId(),
+            attendance.getFullName(),
+            attendance.getCheckInTime(),
+            attendance.getCheckOutTime()
+        );
+    }
+    
+    // Getters
+    public Type getType() {
+        return type;
+    }
+    
+    public Long getAttendanceId() {
+        return attendanceId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public String getFullName() {
+        return fullName;
+    }
+    
+    public LocalDateTime getCheckInTime() {
+        return checkInTime;
+    }
+    
+    public LocalDateTime getCheckOutTime() {
+        return checkOutTime;
+    }
+    
+    /**
+     * System.nanoTime() at creation, used to measure sync lag
+     */
+    public long getPublishedAtNanos() {
+        return publishedAtNanos;
+    }
+    
+    public enum Type {
+        CHECK_IN,
+        CHECK_OUT
+    }
+}
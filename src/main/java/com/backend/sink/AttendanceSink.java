@@ -0,0 +1,23 @@
+package com.backend.sink;
+
+import java.util.List;
+
+/**
+ * Destination for attendance changes (Google Sheets, local files, test recorders, ...).
+ * Each sink is fed from its own queue by AttendanceSinkDispatcher, so a slow sink
+ * never holds back the others or the request that produced the event.
+ */
+public interface AttendanceSink {
+    
+    /**
+     * Short name used in logs and metric tags
+     */
+    String getName();
+    
+    /**
+     * Deliver a batch of events, in the order they were published.
+     * Called from a single thread per sink. Throwing drops the batch;
+     * sinks that need at-least-once delivery must handle retries themselves.
+     */
+    void accept(List<AttendanceEvent> events) throws Exception;
+}
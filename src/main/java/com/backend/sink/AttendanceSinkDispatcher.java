@@ -0,0 +1,179 @@
+package com.backend.sink;
+
+import com.backend.config.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out stage between the attendance service and the configured sinks.
+ * Every sink gets a bounded queue and a worker thread that drains it in batches.
+ * Workers are virtual threads in virtual-thread mode.
+ */
+@Component
+public class AttendanceSinkDispatcher {
+
+    private final List<SinkWorker> workers = new ArrayList<>();
+    private final int maxBatchSize;
+
+    public AttendanceSinkDispatcher(List<AttendanceSink> sinks, MeterRegistry meterRegistry,
+                                    int queueCapacity, int maxBatchSize) {
+        this(sinks, meterRegistry, queueCapacity, maxBatchSize, WorkerThreads.platform());
+    }
+
+    @Autowired
+    public AttendanceSinkDispatcher(List<AttendanceSink> sinks,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${attendance.sink.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${attendance.sink.max-batch-size:100}") int maxBatchSize,
+                                    WorkerThreads workerThreads) {
+        this.maxBatchSize = maxBatchSize;
+        for (AttendanceSink sink : sinks) {
+            SinkWorker worker = new SinkWorker(sink, queueCapacity, meterRegistry, workerThreads);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Publish an event to every sink once the current transaction commits,
+     * or immediately when called outside a transaction
+     */
+    public void publishAfterCommit(AttendanceEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+
+    /**
+     * Enqueue an event for every sink. Never blocks; a full queue drops the event
+     * for that sink (the Sheets backfill worker picks up anything dropped).
+     */
+    public void publish(AttendanceEvent event) {
+        for (SinkWorker worker : workers) {
+            worker.offer(event);
+        }
+    }
+
+    /**
+     * Total events waiting across all sink queues
+     */
+    public int getQueuedCount() {
+        int total = 0;
+        for (SinkWorker worker : workers) {
+            total += worker.queue.size();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (SinkWorker worker : workers) {
+            worker.stop();
+        }
+    }
+
+    private class SinkWorker implements Runnable {
+
+        private final AttendanceSink sink;
+        private final BlockingQueue<AttendanceEvent> queue;
+        private final Counter droppedCounter;
+        private final Counter failedCounter;
+        private final Counter deliveredCounter;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        SinkWorker(AttendanceSink sink, int queueCapacity, MeterRegistry meterRegistry, WorkerThreads workerThreads) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = workerThreads.newThread("attendance-sink-" + sink.getName(), this);
+
+            Gauge.builder("attendance.sink.queue.size", queue, BlockingQueue::size)
+                    .description("Events waiting to be delivered to the sink")
+                    .tag("sink", sink.getName())
+                    .register(meterRegistry);
+            this.droppedCounter = Counter.builder("attendance.sink.dropped")
+                    .description("Events dropped because the sink queue was full")
+                    .tag("sink", sink.getName())
+                    .register(meterRegistry);
+            this.failedCounter = Counter.builder("attendance.sink.failed")
+                    .description("Events in batches the sink failed to accept")
+                    .tag("sink", sink.getName())
+                    .register(meterRegistry);
+            this.deliveredCounter = Counter.builder("attendance.sink.delivered")
+                    .description("Events accepted by the sink")
+                    .tag("sink", sink.getName())
+                    .register(meterRegistry);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void offer(AttendanceEvent event) {
+            if (!queue.offer(event)) {
+                droppedCounter.increment();
+            }
+        }
+
+        void stop() {
+            running = false;
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            List<AttendanceEvent> batch = new ArrayList<>(maxBatchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    AttendanceEvent first = running ? queue.take() : queue.poll();
+                    if (first == null) {
+                        break;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                    deliver(batch);
+                } catch (InterruptedException e) {
+                    // Shutting down: loop once more to flush what is left
+                    running = false;
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        private void deliver(List<AttendanceEvent> batch) {
+            try {
+                sink.accept(batch);
+                deliveredCounter.increment(batch.size());
+            } catch (Exception e) {
+                failedCounter.increment(batch.size());
+                System.err.println("Attendance sink '" + sink.getName() + "' failed: " + e.getMessage());
+            }
+        }
+    }
+}
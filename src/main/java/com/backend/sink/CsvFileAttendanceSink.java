@@ -0,0 +1,114 @@
+package com.backend.sink;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Appends attendance events to local CSV files, one file per day.
+ * A file that grows past the size limit rolls over to a numbered suffix.
+ */
+@Component
+@ConditionalOnProperty(name = "attendance.sink.csv.enabled", havingValue = "true")
+public class CsvFileAttendanceSink implements AttendanceSink {
+
+    private static final String HEADER = "event,attendance_id,user_id,full_name,check_in_time,check_out_time";
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Path directory;
+    private final long maxFileBytes;
+
+    private LocalDate currentDate;
+    private int currentPart;
+    private Path currentFile;
+
+    public CsvFileAttendanceSink(@Value("${attendance.sink.csv.directory:./attendance-export}") String directory,
+                                 @Value("${attendance.sink.csv.max-file-bytes:10485760}") long maxFileBytes) {
+        this.directory = Paths.get(directory);
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    @Override
+    public String getName() {
+        return "csv";
+    }
+
+    @Override
+    public void accept(List<AttendanceEvent> events) throws IOException {
+        Path file = currentFile();
+        boolean newFile = !Files.exists(file);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (newFile) {
+                writer.write(HEADER);
+                writer.newLine();
+            }
+            for (AttendanceEvent event : events) {
+                writer.write(toCsvLine(event));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Resolve the file to append to, rolling by day and by size
+     */
+    private Path currentFile() throws IOException {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(currentDate)) {
+            Files.createDirectories(directory);
+            currentDate = today;
+            currentPart = 0;
+            currentFile = fileFor(today, 0);
+        }
+
+        while (Files.exists(currentFile) && Files.size(currentFile) >= maxFileBytes) {
+            currentPart++;
+            currentFile = fileFor(currentDate, currentPart);
+        }
+
+        return currentFile;
+    }
+
+    private Path fileFor(LocalDate date, int part) {
+        String name = part == 0
+                ? String.format("attendance-%s.csv", date)
+                : String.format("attendance-%s-%d.csv", date, part);
+        return directory.resolve(name);
+    }
+
+    private String toCsvLine(AttendanceEvent event) {
+        return String.join(",",
+                event.getType().name(),
+                String.valueOf(event.getAttendanceId()),
+                String.valueOf(event.getUserId()),
+                escape(event.getFullName()),
+                event.getCheckInTime() != null ? event.getCheckInTime().format(DATE_TIME_FORMATTER) : "",
+                event.getCheckOutTime() != null ? event.getCheckOutTime().format(DATE_TIME_FORMATTER) : "");
+    }
+
+    /**
+     * Quote a field if it contains a separator, quote or line break
+     */
+    private String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
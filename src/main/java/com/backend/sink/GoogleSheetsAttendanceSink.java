@@ -0,0 +1,97 @@
+package com.backend.sink;
+
+import com.backend.repository.AttendanceRepository;
+import com.backend.service.GoogleSheetsService;
+import com.backend.service.SheetsWriteLanes;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Writes attendance events to the Google Sheets spreadsheet and marks them synced.
+ * A batch is split by month and each part is written with one read and one batched
+ * write on that month's writer lane. A failed month fails the batch, so the
+ * dispatcher counts it; its events stay unsynced and SheetsBackfillService retries them.
+ */
+@Component
+@ConditionalOnProperty(name = "attendance.sink.sheets.enabled", havingValue = "true", matchIfMissing = true)
+public class GoogleSheetsAttendanceSink implements AttendanceSink {
+    
+    private final GoogleSheetsService googleSheetsService;
+    private final AttendanceRepository attendanceRepository;
+    private final SheetsWriteLanes sheetsWriteLanes;
+    
+    public GoogleSheetsAttendanceSink(GoogleSheetsService googleSheetsService,
+                                      AttendanceRepository attendanceRepository,
+                                      SheetsWriteLanes sheetsWriteLanes) {
+        this.googleSheetsService = googleSheetsService;
+        this.attendanceRepository = attendanceRepository;
+        this.sheetsWriteLanes = sheetsWriteLanes;
+    }
+    
+    @Override
+    public String getName() {
+        return "sheets";
+    }
+    
+    @Override
+    public void accept(List<AttendanceEvent> events) throws Exception {
+        Map<YearMonth, List<AttendanceEvent>> byMonth = new LinkedHashMap<>();
+        for (AttendanceEvent event : events) {
+            byMonth.computeIfAbsent(YearMonth.from(event.getCheckInTime()), month -> new ArrayList<>()).add(event);
+        }
+        
+        List<CompletableFuture<Void>> pending = new ArrayList<>(byMonth.size());
+        for (Map.Entry<YearMonth, List<AttendanceEvent>> entry : byMonth.entrySet()) {
+            YearMonth month = entry.getKey();
+            List<AttendanceEvent> monthEvents = entry.getValue();
+            pending.add(sheetsWriteLanes.submit(month, () -> {
+                write(month, monthEvents);
+                return null;
+            }));
+        }
+        
+        // Wait so the dispatcher only counts the batch once it is on the sheet, and sees failures
+        Exception failure = null;
+        for (CompletableFuture<Void> month : pending) {
+            try {
+                month.get();
+            } catch (ExecutionException e) {
+                Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+    
+    private void write(YearMonth month, List<AttendanceEvent> events) throws IOException, GeneralSecurityException {
+        // A check-out later in the batch replaces its check-in's row
+        List<List<Object>> rows = new ArrayList<>(events.size());
+        for (AttendanceEvent event : events) {
+            rows.add(GoogleSheetsService.buildDetailRow(
+                event.getFullName(),
+                event.getCheckInTime(),
+                event.getCheckOutTime()
+            ));
+        }
+        googleSheetsService.upsertMonth(month.getYear(), month.getMonthValue(), rows);
+        for (AttendanceEvent event : events) {
+            attendanceRepository.markSyncedToSheets(event.getAttendanceId(), event.getCheckOutTime() != null);
+        }
+    }
+}
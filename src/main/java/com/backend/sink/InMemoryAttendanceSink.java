@@ -0,0 +1,98 @@
+package com.backend.sink;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records every event in memory. Meant for tests and offline benchmarks.
+ * Guarded by a ReentrantLock rather than synchronized/wait so waiting virtual
+ * threads do not pin their carrier.
+ */
+@Component
+@ConditionalOnProperty(name = "attendance.sink.memory.enabled", havingValue = "true")
+public class InMemoryAttendanceSink implements AttendanceSink {
+    
+    private final List<AttendanceEvent> events = new ArrayList<>();
+    private final List<Long> lagNanos = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition arrived = lock.newCondition();
+    
+    @Override
+    public String getName() {
+        return "memory";
+    }
+    
+    @Override
+    public void accept(List<AttendanceEvent> batch) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            for (AttendanceEvent event : batch) {
+                events.add(event);
+                lagNanos.add(now - event.getPublishedAtNanos());
+            }
+            arrived.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Events received so far, in delivery order
+     */
+    public List<AttendanceEvent> getEvents() {
+        lock.lock();
+        try {
+            return new ArrayList<>(events);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Publish-to-delivery lag of each received event, in nanoseconds
+     */
+    public List<Long> getLagNanos() {
+        lock.lock();
+        try {
+            return new ArrayList<>(lagNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Wait until at least the given number of events has arrived
+     */
+    public boolean awaitCount(int count, long timeoutMillis) throws InterruptedException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        lock.lock();
+        try {
+            while (events.size() < count) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = arrived.awaitNanos(remainingNanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public void clear() {
+        lock.lock();
+        try {
+            events.clear();
+            lagNanos.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.backend.streaming;
+
+import com.backend.config.ResponseFormats;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes an ApiResponse whose data is an array, one element at a time, with
+ * Jackson's streaming generator. Elements go to the response as the producer
+ * hands them over, so memory stays flat however many rows there are. The
+ * format (JSON, CBOR or Smile) is negotiated from the request's Accept header.
+ */
+@Component
+public class StreamingResponseWriter {
+
+    private final ResponseFormats responseFormats;
+
+    public StreamingResponseWriter(ResponseFormats responseFormats) {
+        this.responseFormats = responseFormats;
+    }
+
+    /**
+     * Stream {"success":true,"message":...,"data":[...]} from a producer that
+     * passes each element to the given consumer
+     */
+    public <T> void write(HttpServletRequest request, HttpServletResponse response, String message,
+                          Consumer<Consumer<T>> producer) throws IOException {
+        MediaType format = responseFormats.negotiate(request);
+        response.setContentType(format.toString());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        JsonGenerator generator = responseFormats.mapperFor(format).createGenerator(response.getOutputStream());
+        try {
+            generator.writeStartObject();
+            generator.writeBooleanProperty("success", true);
+            generator.writeStringProperty("message", message);
+            generator.writeArrayPropertyStart("data");
+            producer.accept(generator::writePOJO);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (RuntimeException e) {
+            // The generator is abandoned, not closed: closing would flush and terminate the document
+            if (!response.isCommitted()) {
+                // Nothing sent yet: drop the partial body and let the exception handler answer
+                response.resetBuffer();
+                throw e;
+            }
+            // Rows already went out; the client sees truncated JSON instead of a complete-looking array
+            System.err.println("Streaming response failed after it was committed: " + e.getMessage());
+            return;
+        }
+        generator.close();
+    }
+}
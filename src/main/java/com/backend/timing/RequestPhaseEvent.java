@@ -0,0 +1,28 @@
+package com.backend.timing;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one phase of a request (auth, otp, db, serialize, request).
+ * The event duration is the phase duration.
+ */
+@Name("com.backend.RequestPhase")
+@Label("Request Phase")
+@Category({"Attendance Backend", "Requests"})
+@Description("Time spent in one phase of an HTTP request")
+@StackTrace(false)
+class RequestPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Detail")
+    String detail;
+
+    @Label("Request")
+    String request;
+}
@@ -0,0 +1,142 @@
+package com.backend.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-request phase timings, bound to the request thread by ServerTimingFilter.
+ * Every phase also emits a RequestPhaseEvent, so phases show up in JFR
+ * recordings whether or not the client asked for a Server-Timing header.
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final String request;
+    private final Phase total;
+    private final Map<String, long[]> phases = new LinkedHashMap<>();
+    private Phase serialization;
+
+    private RequestTimings(String request) {
+        this.request = request;
+        this.total = new Phase("request", null, request, null);
+    }
+
+    /**
+     * Bind timings for a new request to the current thread
+     */
+    public static RequestTimings begin(String request) {
+        RequestTimings timings = new RequestTimings(request);
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * Finish the current request: close open phases and unbind from the thread
+     */
+    public static void end() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            if (timings.serialization != null) {
+                timings.serialization.close();
+                timings.serialization = null;
+            }
+            timings.total.close();
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Start a phase; close the returned Phase (try-with-resources) to end it
+     */
+    public static Phase start(String phase) {
+        return start(phase, null);
+    }
+
+    public static Phase start(String phase, String detail) {
+        RequestTimings timings = CURRENT.get();
+        return new Phase(phase, detail, timings != null ? timings.request : null, timings);
+    }
+
+    /**
+     * Mark the start of response body serialization. It ends when the request ends,
+     * which is when the serialized body has been written.
+     */
+    public static void startSerialization() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && timings.serialization == null) {
+            timings.serialization = start("serialize");
+        }
+    }
+
+    /**
+     * Render as a Server-Timing header value, e.g. {@code auth;dur=0.41, db;desc="3 calls";dur=2.10}
+     */
+    public synchronized String toServerTimingHeader() {
+        StringBuilder header = new StringBuilder();
+        for (Map.Entry<String, long[]> entry : phases.entrySet()) {
+            long[] totals = entry.getValue();
+            appendMetric(header, entry.getKey(), totals[1] > 1 ? totals[1] + " calls" : null, totals[0]);
+        }
+        appendMetric(header, "total", null, total.elapsedNanos());
+        return header.toString();
+    }
+
+    private void appendMetric(StringBuilder header, String name, String description, long nanos) {
+        if (header.length() > 0) {
+            header.append(", ");
+        }
+        header.append(name);
+        if (description != null) {
+            header.append(";desc=\"").append(description).append('"');
+        }
+        header.append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0));
+    }
+
+    private synchronized void record(String phase, long nanos) {
+        long[] totals = phases.computeIfAbsent(phase, key -> new long[2]);
+        totals[0] += nanos;
+        totals[1]++;
+    }
+
+    /**
+     * A running phase. Phases of the same name within a request are summed.
+     */
+    public static final class Phase implements AutoCloseable {
+
+        private final RequestPhaseEvent event = new RequestPhaseEvent();
+        private final RequestTimings timings;
+        private final long startNanos = System.nanoTime();
+        private long endNanos;
+        private boolean closed;
+
+        private Phase(String phase, String detail, String request, RequestTimings timings) {
+            this.timings = timings;
+            event.phase = phase;
+            event.detail = detail;
+            event.request = request;
+            event.begin();
+        }
+
+        long elapsedNanos() {
+            return (closed ? endNanos : System.nanoTime()) - startNanos;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            endNanos = System.nanoTime();
+            closed = true;
+            event.end();
+            if (timings != null && timings.total != this) {
+                timings.record(event.phase, elapsedNanos());
+            }
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+}
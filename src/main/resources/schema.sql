@@ -0,0 +1,32 @@
+-- Runs on every start after Hibernate has created or updated the tables
+-- (spring.jpa.defer-datasource-initialization), so every statement must be idempotent.
+-- CREATE INDEX here blocks writes to its table while it builds, which only happens on the
+-- first start after an index is added. On a large table, build it CONCURRENTLY beforehand
+-- (docs/DEPLOYMENT.md) and IF NOT EXISTS skips it here.
+
+-- Per-user attendance version behind the /history and /current ETags. Bumped with plain
+-- SQL only, so it is not mapped on User (an entity save would write back a stale value).
+ALTER TABLE users ADD COLUMN IF NOT EXISTS attendance_version BIGINT NOT NULL DEFAULT 0;
+
+-- Trigram indexes for fuzzy user search (/api/users/search). The app user usually cannot
+-- create extensions, so pg_trgm is installed by a DBA (docs/DEPLOYMENT.md) and the indexes
+-- are only created once it exists. Single-quoted body: the script splitter ignores $$.
+DO 'BEGIN
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = ''pg_trgm'') THEN
+        CREATE INDEX IF NOT EXISTS idx_users_full_name_trgm ON users USING gin (lower(full_name) gin_trgm_ops);
+        CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+    ELSE
+        RAISE WARNING ''pg_trgm is not installed, user search will fail until a DBA installs it'';
+    END IF;
+END';
+
+-- Worked minutes are set at check-out; fill them in for rows closed before the column existed
+ALTER TABLE attendances ADD COLUMN IF NOT EXISTS duration_minutes INTEGER;
+UPDATE attendances SET duration_minutes = FLOOR(EXTRACT(EPOCH FROM (check_out_time - check_in_time)) / 60)
+    WHERE check_out_time IS NOT NULL AND duration_minutes IS NULL;
+
+-- Month range scans for attendance analytics
+CREATE INDEX IF NOT EXISTS idx_attendances_check_in_time ON attendances (check_in_time);
+
+-- History by user and range (/history, and one scan for many users in /api/admin/attendance/history)
+CREATE INDEX IF NOT EXISTS idx_attendances_user_check_in_time ON attendances (user_id, check_in_time);
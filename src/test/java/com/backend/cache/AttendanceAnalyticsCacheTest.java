@@ -0,0 +1,60 @@
+package com.backend.cache;
+
+import com.backend.dto.AttendanceAnalyticsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttendanceAnalyticsCacheTest {
+
+	private final AttendanceAnalyticsCache cache = new AttendanceAnalyticsCache(new SimpleMeterRegistry(), 10, 60, 24);
+
+	@Test
+	void monthClosesAfterTheGracePeriod() {
+		YearMonth march = YearMonth.of(2024, 3);
+		Duration grace = Duration.ofHours(24);
+
+		assertThat(AttendanceAnalyticsCache.isClosed(march, LocalDateTime.of(2024, 3, 31, 23, 0), grace)).isFalse();
+		assertThat(AttendanceAnalyticsCache.isClosed(march, LocalDateTime.of(2024, 4, 1, 23, 59), grace)).isFalse();
+		assertThat(AttendanceAnalyticsCache.isClosed(march, LocalDateTime.of(2024, 4, 2, 0, 0), grace)).isTrue();
+	}
+
+	@Test
+	void closedMonthsStayAndOpenMonthsExpire() {
+		YearMonth closed = YearMonth.of(2024, 3);
+		YearMonth open = YearMonth.now();
+
+		cache.get(closed, () -> month(closed, true));
+		cache.get(open, () -> month(open, false));
+
+		assertThat(cache.expiresAfter(closed)).hasValueSatisfying(
+				left -> assertThat(left).isGreaterThan(Duration.ofDays(365)));
+		assertThat(cache.expiresAfter(open)).hasValueSatisfying(
+				left -> assertThat(left).isLessThanOrEqualTo(Duration.ofSeconds(60)));
+	}
+
+	@Test
+	void loaderRunsOncePerMonth() {
+		YearMonth march = YearMonth.of(2024, 3);
+		int[] loads = new int[1];
+
+		for (int i = 0; i < 3; i++) {
+			cache.get(march, () -> {
+				loads[0]++;
+				return month(march, true);
+			});
+		}
+
+		assertThat(loads[0]).isEqualTo(1);
+	}
+
+	private AttendanceAnalyticsResponse month(YearMonth month, boolean closed) {
+		return new AttendanceAnalyticsResponse(month.getYear(), month.getMonthValue(), 21, closed, null, List.of());
+	}
+}
@@ -0,0 +1,77 @@
+package com.backend.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CacheInvalidationBusTest {
+
+	private final List<CacheInvalidation> received = new ArrayList<>();
+	private int flushes;
+	private CacheInvalidationBus bus;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		InvalidationListener listener = new InvalidationListener() {
+			@Override
+			public void onInvalidation(CacheInvalidation invalidation) {
+				received.add(invalidation);
+			}
+
+			@Override
+			public void invalidateAll() {
+				flushes++;
+			}
+		};
+		ObjectProvider<InvalidationListener> listeners = mock(ObjectProvider.class);
+		when(listeners.orderedStream()).thenAnswer(invocation -> Stream.of(listener));
+
+		// Not started, so nothing is sent to or read from the database
+		bus = new CacheInvalidationBus(listeners, mock(ObjectProvider.class),
+				new DataSourceProperties(), new SimpleMeterRegistry());
+	}
+
+	@Test
+	void payloadRoundTrips() {
+		CacheInvalidation invalidation = new CacheInvalidation(CacheInvalidation.Type.ATTENDANCE, 7L, null, "node-a");
+
+		CacheInvalidation parsed = CacheInvalidation.fromPayload(invalidation.toPayload());
+
+		assertThat(parsed.getType()).isEqualTo(CacheInvalidation.Type.ATTENDANCE);
+		assertThat(parsed.getEntityId()).isEqualTo(7L);
+		assertThat(parsed.getUserId()).isNull();
+		assertThat(parsed.getOrigin()).isEqualTo("node-a");
+		assertThat(CacheInvalidation.fromPayload("BOGUS:1:2:x")).isNull();
+	}
+
+	@Test
+	void remoteChangesAreDispatchedAndOwnEchoesSkipped() {
+		bus.publish(CacheInvalidation.Type.USER, 42L, 42L);
+		assertThat(received).hasSize(1);
+
+		bus.handle(received.get(0).toPayload());
+		assertThat(received).hasSize(1);
+
+		bus.handle("ATTENDANCE:9:42:other-node");
+		assertThat(received).hasSize(2);
+		assertThat(received.get(1).getUserId()).isEqualTo(42L);
+	}
+
+	@Test
+	void flushEvictsEverything() {
+		bus.flush();
+
+		assertThat(flushes).isEqualTo(1);
+	}
+}
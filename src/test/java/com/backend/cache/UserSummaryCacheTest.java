@@ -0,0 +1,62 @@
+package com.backend.cache;
+
+import com.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserSummaryCacheTest {
+
+	private UserRepository userRepository;
+	private SimpleMeterRegistry registry;
+	private UserSummaryCache cache;
+
+	@BeforeEach
+	void setUp() {
+		userRepository = mock(UserRepository.class);
+		registry = new SimpleMeterRegistry();
+		cache = new UserSummaryCache(userRepository, registry, 100, 10);
+		when(userRepository.findSummaryById(1L)).thenReturn(Optional.of(
+				new UserSummary(1L, "alice", "alice@example.com", "Alice", LocalDateTime.now())));
+	}
+
+	@Test
+	void repeatedLookupsHitTheDatabaseOnce() {
+		for (int i = 0; i < 5; i++) {
+			assertThat(cache.find(1L)).map(UserSummary::getFullName).contains("Alice");
+		}
+
+		verify(userRepository, times(1)).findSummaryById(1L);
+		assertThat(registry.get("cache.gets").tag("cache", "user.summary").tag("result", "hit")
+				.functionCounter().count()).isEqualTo(4);
+	}
+
+	@Test
+	void userInvalidationReloadsTheEntry() {
+		cache.find(1L);
+
+		cache.onInvalidation(new CacheInvalidation(CacheInvalidation.Type.USER, 1L, 1L, "other-node"));
+		cache.find(1L);
+
+		verify(userRepository, times(2)).findSummaryById(1L);
+	}
+
+	@Test
+	void unknownUsersAreNotCached() {
+		when(userRepository.findSummaryById(2L)).thenReturn(Optional.empty());
+
+		assertThat(cache.find(2L)).isEmpty();
+		assertThat(cache.find(2L)).isEmpty();
+
+		verify(userRepository, times(2)).findSummaryById(2L);
+	}
+}
@@ -0,0 +1,44 @@
+package com.backend.config;
+
+import com.backend.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaDataSourceConfigTest {
+
+	private final ApplicationContextRunner runner = new ApplicationContextRunner()
+			.withUserConfiguration(DataSourcePropertiesConfig.class, ReplicaDataSourceConfig.class)
+			.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+			.withPropertyValues(
+					"spring.datasource.url=jdbc:postgresql://primary:5432/eros_attendance_db",
+					"spring.datasource.username=eros",
+					"spring.datasource.password=secret",
+					"app.datasource.replica.urls=jdbc:postgresql://replica:5432/eros_attendance_db");
+
+	@Test
+	void primaryPoolHonoursHikariSettingsWhenReplicasAreEnabled() {
+		// DB_POOL_SIZE feeds spring.datasource.hikari.maximum-pool-size in application.properties
+		runner.withPropertyValues("spring.datasource.hikari.maximum-pool-size=3",
+						"spring.datasource.hikari.connection-timeout=1500")
+				.run(context -> {
+					ReplicaRoutingDataSource routing = context.getBean(ReplicaRoutingDataSource.class);
+					assertThat(routing.getPrimary().getMaximumPoolSize()).isEqualTo(3);
+					assertThat(routing.getPrimary().getConnectionTimeout()).isEqualTo(1500);
+					assertThat(routing.getPrimary().getPoolName()).isEqualTo("primary");
+					assertThat(routing.getPrimary().getJdbcUrl())
+							.isEqualTo("jdbc:postgresql://primary:5432/eros_attendance_db");
+				});
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableConfigurationProperties(DataSourceProperties.class)
+	static class DataSourcePropertiesConfig {
+	}
+}
@@ -0,0 +1,116 @@
+package com.backend.config;
+
+import com.backend.dto.ApiResponse;
+import com.backend.dto.AttendanceResponse;
+import com.backend.dto.UserPageResponse;
+import com.backend.dto.UserResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serializes a month of attendance history and a page of the user directory as
+ * JSON, CBOR and Smile, and reports bytes on the wire (plain and gzipped) and
+ * serialization CPU time per response.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=ResponseFormatBenchmarkTest
+ * Tune with -Dformats.rows and -Dformats.iterations.
+ */
+@Tag("benchmark")
+class ResponseFormatBenchmarkTest {
+
+	private static final int ROWS = Integer.getInteger("formats.rows", 1000);
+	private static final int ITERATIONS = Integer.getInteger("formats.iterations", 2000);
+	private static final List<MediaType> FORMATS =
+			List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, ResponseFormats.APPLICATION_SMILE);
+
+	private final ResponseFormats formats =
+			new ResponseFormats(JsonMapper.builder().build(), CBORMapper.builder().build());
+
+	@Test
+	void bytesAndCpuPerFormat() throws Exception {
+		report("attendance history (" + ROWS + " rows)",
+				ApiResponse.success("Attendance history retrieved", history()));
+		report("user directory page (" + ROWS + " users)",
+				ApiResponse.success("Users retrieved successfully", new UserPageResponse(users(), (long) ROWS)));
+	}
+
+	private void report(String name, Object body) throws Exception {
+		System.out.println("=== Response formats: " + name + " ===");
+		long jsonBytes = 0;
+		for (MediaType format : FORMATS) {
+			ObjectMapper mapper = formats.mapperFor(format);
+			byte[] bytes = mapper.writeValueAsBytes(body);
+			if (format.equals(MediaType.APPLICATION_JSON)) {
+				jsonBytes = bytes.length;
+			}
+			// Round trip so a format that silently drops fields cannot win
+			assertThat(mapper.readTree(bytes).get("data")).isNotNull();
+
+			double cpuMicros = cpuMicrosPerWrite(mapper, body);
+			System.out.printf("%-6s %9d bytes (%3.0f%% of JSON), %8d gzipped, %8.1f us CPU per response%n",
+					ResponseFormats.nameOf(format), bytes.length, 100.0 * bytes.length / jsonBytes,
+					gzippedSize(bytes), cpuMicros);
+		}
+	}
+
+	/**
+	 * Warm up, then measure this thread's CPU time over ITERATIONS writes
+	 */
+	private double cpuMicrosPerWrite(ObjectMapper mapper, Object body) {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		long sink = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink += mapper.writeValueAsBytes(body).length;
+		}
+		long start = threads.getCurrentThreadCpuTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			sink += mapper.writeValueAsBytes(body).length;
+		}
+		long elapsed = threads.getCurrentThreadCpuTime() - start;
+		assertThat(sink).isPositive();
+		return elapsed / 1000.0 / ITERATIONS;
+	}
+
+	private long gzippedSize(byte[] bytes) throws Exception {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+			gzip.write(bytes);
+		}
+		return output.size();
+	}
+
+	private List<AttendanceResponse> history() {
+		List<AttendanceResponse> history = new ArrayList<>();
+		LocalDateTime day = LocalDateTime.of(2024, 3, 1, 8, 0);
+		for (int i = 0; i < ROWS; i++) {
+			LocalDateTime checkIn = day.plusDays(i / 2).plusMinutes(i % 37);
+			LocalDateTime checkOut = checkIn.plusHours(8).plusMinutes(i % 53);
+			history.add(new AttendanceResponse((long) i + 1, "Employee Name " + (i % 40), checkIn, checkOut,
+					"COMPLETED", "8h " + (i % 53) + "m"));
+		}
+		return history;
+	}
+
+	private List<UserResponse> users() {
+		List<UserResponse> users = new ArrayList<>();
+		for (int i = 1; i <= ROWS; i++) {
+			users.add(new UserResponse((long) i, "user" + i, "user" + i + "@example.com", "User Number " + i,
+					LocalDateTime.of(2024, 1, 1, 8, 0).plusMinutes(i)));
+		}
+		return users;
+	}
+}
@@ -0,0 +1,226 @@
+package com.backend.controller;
+
+import com.backend.service.OTPService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Closed-loop check-in load against a running server. Each step registers fresh
+ * users (one check-in per user per day) and drives them at a fixed concurrency,
+ * reporting throughput, p50/p99 latency, errors, and the server's peak heap and
+ * live threads while the step is in flight.
+ *
+ * Run it once against a server started normally and once with
+ * SPRING_THREADS_VIRTUAL_ENABLED=true on Java 21, then compare the tables:
+ *     ./mvnw test -Pbenchmark -Dtest=CheckInLoadTest -Dload.baseUrl=http://localhost:8081
+ *         -Dload.otpSecretHex=... [-Dload.concurrency=25,50,100,200,400,800] [-Dload.usersPerStep=1000]
+ *
+ * Users always register on the servlet app at load.baseUrl. Set -Dload.targetUrl to send
+ * the check-ins elsewhere, e.g. the reactive module on the same hardware and database,
+ * for a head-to-head run: -Dload.targetUrl=http://localhost:8082
+ * Heap and threads come from the target's actuator port, -Dload.managementUrl
+ * (default http://localhost:9090; the reactive module uses 9092).
+ */
+@Tag("benchmark")
+class CheckInLoadTest {
+
+	private static final String BASE_URL = System.getProperty("load.baseUrl");
+	private static final String TARGET_URL = System.getProperty("load.targetUrl", BASE_URL);
+	private static final String MANAGEMENT_URL = System.getProperty("load.managementUrl", "http://localhost:9090");
+	private static final String OTP_SECRET_HEX = System.getProperty("load.otpSecretHex");
+	private static final long OTP_STEP_SECONDS = Long.getLong("load.otpStepSeconds", 30);
+	private static final String CONCURRENCY = System.getProperty("load.concurrency", "25,50,100,200,400,800");
+	private static final int USERS_PER_STEP = Integer.getInteger("load.usersPerStep", 1000);
+	private static final long P99_TARGET_MILLIS = Long.getLong("load.p99TargetMs", 1000);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final HttpClient client = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofSeconds(10))
+			.executor(Executors.newCachedThreadPool())
+			.build();
+	private OTPService otpService;
+
+	@Test
+	void maxSustainableCheckIns() throws Exception {
+		assumeTrue(BASE_URL != null && OTP_SECRET_HEX != null, "set -Dload.baseUrl and -Dload.otpSecretHex to run");
+
+		otpService = new OTPService(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(otpService, "otpSecretHex", OTP_SECRET_HEX);
+		ReflectionTestUtils.setField(otpService, "timeStepSeconds", OTP_STEP_SECONDS);
+
+		String runId = Long.toString(System.currentTimeMillis(), 36);
+		String metricsToken = register(runId + "-probe");
+		double sustainable = 0;
+
+		System.out.println("=== Check-in load: " + TARGET_URL + " ===");
+		System.out.println("concurrency  checkins/s   p50 ms   p99 ms  errors  peak heap MB  heap KB/in-flight  live threads");
+		for (String level : CONCURRENCY.split(",")) {
+			int concurrency = Integer.parseInt(level.trim());
+			List<String> tokens = registerAll(runId + "-c" + concurrency, USERS_PER_STEP);
+			StepResult result = runStep(concurrency, tokens, metricsToken);
+
+			System.out.printf("%11d  %11.1f  %7d  %7d  %6d  %12.1f  %17.1f  %12.0f%n",
+					concurrency, result.throughput, result.p50, result.p99, result.errors,
+					result.peakHeapBytes / 1048576.0,
+					(result.peakHeapBytes - result.idleHeapBytes) / 1024.0 / concurrency,
+					result.peakThreads);
+
+			boolean healthy = result.errors <= tokens.size() / 100 && result.p99 <= P99_TARGET_MILLIS;
+			if (healthy) {
+				sustainable = Math.max(sustainable, result.throughput);
+			}
+		}
+		System.out.printf("max sustainable: %.1f check-ins/s (errors <= 1%%, p99 <= %d ms)%n", sustainable, P99_TARGET_MILLIS);
+
+		assertThat(sustainable).isPositive();
+	}
+
+	private StepResult runStep(int concurrency, List<String> tokens, String metricsToken) throws Exception {
+		StepResult result = new StepResult();
+		result.idleHeapBytes = metric(metricsToken, "jvm.memory.used?tag=area:heap");
+
+		ConcurrentLinkedQueue<String> pending = new ConcurrentLinkedQueue<>(tokens);
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger errors = new AtomicInteger();
+		AtomicLong peakHeap = new AtomicLong();
+		AtomicLong peakThreads = new AtomicLong();
+
+		ExecutorService sampler = Executors.newSingleThreadExecutor();
+		ExecutorService callers = Executors.newFixedThreadPool(concurrency);
+		long start = System.nanoTime();
+		for (int i = 0; i < concurrency; i++) {
+			callers.execute(() -> {
+				String token;
+				while ((token = pending.poll()) != null) {
+					long requestStart = System.nanoTime();
+					try {
+						int status = post(TARGET_URL, "/api/attendance/check-in", token,
+								"{\"otpCode\":\"" + otpService.getCurrentOTP() + "\"}").statusCode();
+						if (status != 200) {
+							errors.incrementAndGet();
+						}
+					} catch (Exception e) {
+						errors.incrementAndGet();
+					}
+					latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - requestStart));
+				}
+			});
+		}
+		callers.shutdown();
+		sampler.execute(() -> {
+			while (!callers.isTerminated()) {
+				try {
+					peakHeap.accumulateAndGet((long) metric(metricsToken, "jvm.memory.used?tag=area:heap"), Math::max);
+					peakThreads.accumulateAndGet((long) metric(metricsToken, "jvm.threads.live"), Math::max);
+					Thread.sleep(200);
+				} catch (Exception e) {
+					return;
+				}
+			}
+		});
+		callers.awaitTermination(30, TimeUnit.MINUTES);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		sampler.shutdownNow();
+
+		List<Long> sorted = new ArrayList<>(latencies);
+		Collections.sort(sorted);
+		result.throughput = tokens.size() / seconds;
+		result.p50 = percentile(sorted, 0.50);
+		result.p99 = percentile(sorted, 0.99);
+		result.errors = errors.get();
+		result.peakHeapBytes = Math.max(peakHeap.get(), (long) result.idleHeapBytes);
+		result.peakThreads = peakThreads.get();
+		return result;
+	}
+
+	/**
+	 * Register users in parallel and return their access tokens
+	 */
+	private List<String> registerAll(String prefix, int count) throws Exception {
+		List<String> tokens = Collections.synchronizedList(new ArrayList<>());
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		for (int i = 0; i < count; i++) {
+			String username = prefix + "-" + i;
+			executor.execute(() -> {
+				try {
+					tokens.add(register(username));
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+		}
+		executor.shutdown();
+		executor.awaitTermination(30, TimeUnit.MINUTES);
+		assertThat(tokens).hasSize(count);
+		return tokens;
+	}
+
+	private String register(String username) throws Exception {
+		String body = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@load.test\","
+				+ "\"password\":\"LoadTest123!\",\"fullName\":\"Load " + username + "\"}";
+		HttpResponse<String> response = post(BASE_URL, "/api/auth/register", null, body);
+		assertThat(response.statusCode()).as(response.body()).isEqualTo(201);
+		return objectMapper.readTree(response.body()).path("data").path("accessToken").asString();
+	}
+
+	private double metric(String token, String name) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create(MANAGEMENT_URL + "/actuator/metrics/" + name))
+				.header("Authorization", "Bearer " + token)
+				.timeout(Duration.ofSeconds(5))
+				.GET()
+				.build();
+		JsonNode body = objectMapper.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+		return body.path("measurements").path(0).path("value").asDouble();
+	}
+
+	private HttpResponse<String> post(String baseUrl, String path, String token, String json) throws Exception {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.header("Content-Type", "application/json")
+				.timeout(Duration.ofSeconds(60))
+				.POST(HttpRequest.BodyPublishers.ofString(json));
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		return client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private long percentile(List<Long> sorted, double percentile) {
+		if (sorted.isEmpty()) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+		return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+	}
+
+	private static class StepResult {
+		double throughput;
+		long p50;
+		long p99;
+		int errors;
+		double idleHeapBytes;
+		long peakHeapBytes;
+		double peakThreads;
+	}
+}
@@ -0,0 +1,105 @@
+package com.backend.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+	private ReplicaRoutingDataSource routing;
+
+	@BeforeEach
+	void setUp() {
+		routing = new ReplicaRoutingDataSource(pool("primary"), Arrays.asList(pool("replica-1"), pool("replica-2")));
+		routing.getReplicas().forEach(replica -> replica.update(true, 0));
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		new ReadYourWrites(10).clear();
+	}
+
+	@Test
+	void writesGoToPrimary() {
+		assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+	}
+
+	@Test
+	void readOnlyTransactionsRoundRobinOverHealthyReplicas() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertThat(Arrays.asList(routing.determineCurrentLookupKey(), routing.determineCurrentLookupKey()))
+				.containsExactlyInAnyOrder("replica-1", "replica-2");
+	}
+
+	@Test
+	void laggingReplicasFallBackToPrimary() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		routing.getReplicas().get(0).update(false, 30);
+
+		assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-2");
+
+		routing.getReplicas().get(1).update(false, -1);
+
+		assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+	}
+
+	@Test
+	void pinnedUserReadsFromPrimary() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		ReadYourWrites readYourWrites = new ReadYourWrites(10);
+		readYourWrites.pin(42L);
+		readYourWrites.clear();
+
+		readYourWrites.bind(42L);
+		assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+		readYourWrites.bind(7L);
+		assertThat(routing.determineCurrentLookupKey()).isNotEqualTo(ReplicaRoutingDataSource.PRIMARY);
+	}
+
+	@Test
+	void replicaWithoutWalReceiverIsUnhealthyDespiteZeroLag() throws Exception {
+		HikariDataSource replica = mock(HikariDataSource.class);
+		when(replica.getPoolName()).thenReturn("replica-1");
+		Connection connection = mock(Connection.class);
+		Statement statement = mock(Statement.class);
+		ResultSet resultSet = mock(ResultSet.class);
+		when(replica.getConnection()).thenReturn(connection);
+		when(connection.createStatement()).thenReturn(statement);
+		when(statement.executeQuery(anyString())).thenReturn(resultSet);
+		when(resultSet.next()).thenReturn(true);
+		when(resultSet.getDouble(1)).thenReturn(0.0);
+		when(resultSet.getBoolean(2)).thenReturn(false, true);
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(pool("primary"), List.of(replica));
+		ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(routing, 5, 1, new SimpleMeterRegistry());
+
+		monitor.checkReplicas();
+		assertThat(routing.getReplicas().get(0).isHealthy()).isFalse();
+
+		// The receiver reconnects
+		monitor.checkReplicas();
+		assertThat(routing.getReplicas().get(0).isHealthy()).isTrue();
+	}
+
+	private HikariDataSource pool(String name) {
+		HikariDataSource dataSource = new HikariDataSource();
+		dataSource.setPoolName(name);
+		return dataSource;
+	}
+}
@@ -0,0 +1,63 @@
+package com.backend.fields;
+
+import com.backend.dto.AttendanceResponse;
+import com.backend.entity.Attendance;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FieldSetTest {
+
+	@Test
+	void selectsOnlyTheAttributesOfRequestedFields() {
+		FieldSet fields = FieldSet.parse("checkInTime, duration", AttendanceResponse.FIELDS);
+
+		assertThat(fields.selectClause("a"))
+				.isEqualTo("a.checkInTime AS checkInTime, a.checkOutTime AS checkOutTime");
+		assertThat(fields.selectClause("a", "id"))
+				.isEqualTo("a.id AS id, a.checkInTime AS checkInTime, a.checkOutTime AS checkOutTime");
+		assertThat(fields).hasToString("checkInTime,duration");
+	}
+
+	@Test
+	void rowsHoldOnlyRequestedFieldsInRequestedOrder() {
+		LocalDateTime checkIn = LocalDateTime.of(2024, 3, 5, 8, 0);
+		Tuple row = mock(Tuple.class);
+		when(row.get("checkInTime", LocalDateTime.class)).thenReturn(checkIn);
+		when(row.get("checkOutTime", LocalDateTime.class)).thenReturn(checkIn.plusHours(8).plusMinutes(5));
+		when(row.get("status", Attendance.AttendanceStatus.class)).thenReturn(Attendance.AttendanceStatus.CHECKED_OUT);
+
+		FieldSet fields = FieldSet.parse("status,duration", AttendanceResponse.FIELDS);
+
+		assertThat(fields.toMap(row)).containsExactly(
+				entry("status", "CHECKED_OUT"),
+				entry("duration", "8:05"));
+	}
+
+	@Test
+	void derivedFieldsAreNotComputedUnlessRequested() {
+		Tuple row = mock(Tuple.class);
+		when(row.get("checkInTime")).thenReturn(LocalDateTime.of(2024, 3, 5, 8, 0));
+
+		FieldSet.parse("checkInTime", AttendanceResponse.FIELDS).toMap(row);
+
+		verify(row, never()).get("checkOutTime", LocalDateTime.class);
+	}
+
+	@Test
+	void rejectsUnknownAndEmptyFields() {
+		assertThatThrownBy(() -> FieldSet.parse("checkInTime,password", AttendanceResponse.FIELDS))
+				.hasMessageStartingWith("Unknown field: password");
+		assertThatThrownBy(() -> FieldSet.parse(" , ", AttendanceResponse.FIELDS))
+				.hasMessage("fields must name at least one field");
+	}
+}
@@ -0,0 +1,79 @@
+package com.backend.filter;
+
+import com.backend.config.ResponseFormats;
+import com.backend.controller.AdminController;
+import com.backend.service.PasetoService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasetoAuthenticationFilterTest {
+
+	private final PasetoService pasetoService = mock(PasetoService.class);
+	private final PasetoAuthenticationFilter filter = new PasetoAuthenticationFilter(pasetoService,
+			new ResponseFormats(JsonMapper.builder().build(), CBORMapper.builder().build()), "boss");
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+			"/api/admin/sheets/rebuild",
+			"/api/admin;x/sheets/rebuild",
+			"/api/%61dmin/sheets/rebuild",
+			"/api//admin/sheets/rebuild",
+			"/api/auth/../admin/sheets/rebuild",
+			"/api/auth/..;/admin/sheets/rebuild"
+	})
+	void nonAdminCannotReachAdminPathsHoweverSpelled(String uri) throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = send(uri, "alice", chain);
+
+		assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_FORBIDDEN);
+		assertThat(chain.getRequest()).isNull();
+	}
+
+	@Test
+	void adminReachesAdminPaths() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = send("/api/%61dmin/sheets/rebuild", "boss", chain);
+
+		assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+		assertThat(chain.getRequest()).isNotNull();
+	}
+
+	@Test
+	void interceptorRejectsNonAdminOnAdminControllerWhateverThePath() throws Exception {
+		AdminAccessInterceptor interceptor = new AdminAccessInterceptor(filter);
+		HandlerMethod handler = new HandlerMethod(mock(AdminController.class),
+				AdminController.class.getMethod("getJfrStatus"));
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/anything");
+		request.setAttribute("username", "alice");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThat(interceptor.preHandle(request, response, handler)).isFalse();
+		assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_FORBIDDEN);
+
+		request.setAttribute("username", "boss");
+		assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), handler)).isTrue();
+	}
+
+	private MockHttpServletResponse send(String uri, String username, MockFilterChain chain) throws Exception {
+		when(pasetoService.isAccessToken("token")).thenReturn(true);
+		when(pasetoService.getUserIdFromToken("token")).thenReturn(1L);
+		when(pasetoService.getUsernameFromToken("token")).thenReturn(username);
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+		request.addHeader("Authorization", "Bearer token");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, chain);
+		return response;
+	}
+}
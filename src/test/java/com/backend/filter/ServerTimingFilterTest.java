@@ -0,0 +1,56 @@
+package com.backend.filter;
+
+import com.backend.config.ResponseFormats;
+import com.backend.service.PasetoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServerTimingFilterTest {
+
+	private final PasetoService pasetoService = mock(PasetoService.class);
+	private final ServerTimingFilter filter = new ServerTimingFilter(new PasetoAuthenticationFilter(pasetoService,
+			new ResponseFormats(JsonMapper.builder().build(), CBORMapper.builder().build()), "boss"), false);
+
+	@Test
+	void onlyAdminsGetTheirResponseBuffered() throws Exception {
+		MockFilterChain chain = send("/api/attendance/history", "alice");
+		assertThat(chain.getResponse()).isNotInstanceOf(ContentCachingResponseWrapper.class);
+
+		chain = send("/api/attendance/history", "boss");
+		assertThat(chain.getResponse()).isInstanceOf(ContentCachingResponseWrapper.class);
+	}
+
+	@Test
+	void streamedResponsesAreNeverBuffered() throws Exception {
+		MockFilterChain chain = send("/api/attendance/history?stream=true", "boss");
+		assertThat(chain.getResponse()).isNotInstanceOf(ContentCachingResponseWrapper.class);
+
+		chain = send("/api/admin/jfr/stop", "boss");
+		assertThat(chain.getResponse()).isNotInstanceOf(ContentCachingResponseWrapper.class);
+	}
+
+	private MockFilterChain send(String uri, String username) throws Exception {
+		when(pasetoService.isAccessToken("token")).thenReturn(true);
+		when(pasetoService.getUsernameFromToken("token")).thenReturn(username);
+		String[] pathAndQuery = uri.split("\\?");
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", pathAndQuery[0]);
+		if (pathAndQuery.length > 1) {
+			String[] parameter = pathAndQuery[1].split("=");
+			request.setParameter(parameter[0], parameter[1]);
+		}
+		request.addHeader("Authorization", "Bearer token");
+		request.addHeader(ServerTimingFilter.OPT_IN_HEADER, "true");
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, new MockHttpServletResponse(), chain);
+		return chain;
+	}
+}
@@ -0,0 +1,100 @@
+package com.backend.leader;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Starts a leader in a child JVM, kills it with SIGKILL and measures how long
+ * leader-only jobs stay down until this JVM takes over. Needs a Postgres.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=LeaderFailoverTest
+ *     -Dleader.jdbcUrl=jdbc:postgresql://localhost:5433/eros_attendance_test
+ *     -Dleader.username=testuser -Dleader.password=testpass
+ */
+@Tag("benchmark")
+class LeaderFailoverTest {
+
+	private static final String URL = System.getProperty("leader.jdbcUrl");
+	private static final String USERNAME = System.getProperty("leader.username", "testuser");
+	private static final String PASSWORD = System.getProperty("leader.password", "testpass");
+
+	@Test
+	void followerTakesOverAfterLeaderIsKilled() throws Exception {
+		assumeTrue(URL != null, "set -Dleader.jdbcUrl to run");
+
+		Process child = new ProcessBuilder(
+				System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+				"-cp", System.getProperty("java.class.path"),
+				"-Dleader.jdbcUrl=" + URL, "-Dleader.username=" + USERNAME, "-Dleader.password=" + PASSWORD,
+				LeaderProcess.class.getName())
+				.redirectErrorStream(true)
+				.start();
+
+		LeaderElection follower = election("follower");
+		try {
+			BufferedReader output = new BufferedReader(new InputStreamReader(child.getInputStream(), StandardCharsets.UTF_8));
+			String line;
+			while ((line = output.readLine()) != null && !line.equals("LEADER")) {
+				// Skip log output until the child reports it won
+			}
+			assertThat(line).as("child became leader").isEqualTo("LEADER");
+
+			follower.start();
+			Thread.sleep(3000);
+			assertThat(follower.isLeader()).isFalse();
+			assertThat(follower.describe().get("currentLeader")).isEqualTo("child");
+
+			long killedAt = System.nanoTime();
+			child.destroyForcibly();
+			while (!follower.isLeader() && System.nanoTime() - killedAt < TimeUnit.SECONDS.toNanos(60)) {
+				Thread.sleep(10);
+			}
+			long downMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - killedAt);
+
+			System.out.println("=== Leader failover ===");
+			System.out.printf("leader-only jobs down for %d ms after SIGKILL of the leader%n", downMillis);
+
+			assertThat(follower.isLeader()).isTrue();
+			assertThat(follower.describe().get("currentLeader")).isEqualTo("follower");
+		} finally {
+			child.destroyForcibly();
+			follower.stop();
+		}
+	}
+
+	private static LeaderElection election(String name) {
+		DataSourceProperties properties = new DataSourceProperties();
+		properties.setUrl(URL);
+		properties.setUsername(USERNAME);
+		properties.setPassword(PASSWORD);
+		return new LeaderElection(properties, new SimpleMeterRegistry(), name);
+	}
+
+	/**
+	 * Child JVM: win the election, report it and wait to be killed
+	 */
+	static class LeaderProcess {
+
+		public static void main(String[] args) throws Exception {
+			LeaderElection election = election("child");
+			election.start();
+			while (!election.isLeader()) {
+				Thread.sleep(10);
+			}
+			System.out.println("LEADER");
+			System.out.flush();
+			Thread.sleep(Long.MAX_VALUE);
+		}
+	}
+}
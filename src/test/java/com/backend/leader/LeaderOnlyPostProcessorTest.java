@@ -0,0 +1,62 @@
+package com.backend.leader;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderOnlyPostProcessorTest {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void leaderOnlyMethodsRunOnlyOnTheLeader() {
+		LeaderElection election = mock(LeaderElection.class);
+		ObjectProvider<LeaderElection> provider = mock(ObjectProvider.class);
+		when(provider.getObject()).thenReturn(election);
+		Job job = (Job) new LeaderOnlyPostProcessor(provider).postProcessAfterInitialization(new Job(), "job");
+
+		when(election.isLeader()).thenReturn(false);
+		job.sweep();
+		job.status();
+		assertThat(job.getSweeps()).isZero();
+		assertThat(job.getStatusCalls()).isEqualTo(1);
+
+		when(election.isLeader()).thenReturn(true);
+		job.sweep();
+		assertThat(job.getSweeps()).isEqualTo(1);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void beansWithoutLeaderOnlyMethodsAreNotProxied() {
+		Object bean = new Object();
+
+		assertThat(new LeaderOnlyPostProcessor(mock(ObjectProvider.class)).postProcessAfterInitialization(bean, "plain"))
+				.isSameAs(bean);
+	}
+
+	static class Job {
+
+		private int sweeps;
+		private int statusCalls;
+
+		@LeaderOnly
+		public void sweep() {
+			sweeps++;
+		}
+
+		public void status() {
+			statusCalls++;
+		}
+
+		public int getSweeps() {
+			return sweeps;
+		}
+
+		public int getStatusCalls() {
+			return statusCalls;
+		}
+	}
+}
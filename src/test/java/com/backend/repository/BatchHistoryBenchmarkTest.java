@@ -0,0 +1,133 @@
+package com.backend.repository;
+
+import com.backend.entity.Attendance;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Loads a year of check-ins for a manager's reports into a real database and
+ * compares one history query per user (what the screen does today through
+ * /api/attendance/history) with findHistoryForUsers, one query for all of them.
+ * The database needs the application schema (start the app against it once).
+ * Rows are written for user ids far above real ones and deleted afterwards.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=BatchHistoryBenchmarkTest
+ *     -Dbatchhistory.jdbcUrl=jdbc:postgresql://localhost:5433/eros_attendance_test
+ * Tune with -Dbatchhistory.users, -Dbatchhistory.days and -Dbatchhistory.iterations.
+ */
+@Tag("benchmark")
+class BatchHistoryBenchmarkTest {
+
+	private static final String URL = System.getProperty("batchhistory.jdbcUrl");
+	private static final String USERNAME = System.getProperty("batchhistory.username", "testuser");
+	private static final String PASSWORD = System.getProperty("batchhistory.password", "testpass");
+	private static final int USERS = Integer.getInteger("batchhistory.users", 50);
+	private static final int DAYS = Integer.getInteger("batchhistory.days", 365);
+	private static final int ITERATIONS = Integer.getInteger("batchhistory.iterations", 200);
+	private static final long FIRST_USER_ID = 910_000_000L;
+
+	// The SQL Hibernate runs for AttendanceRepository.findByUserIdAndCheckInTimeBetween
+	private static final String SINGLE_USER_SQL = "SELECT id, user_id, full_name, check_in_time, check_out_time, "
+			+ "status, duration_minutes FROM attendances WHERE user_id = ? AND check_in_time BETWEEN ? AND ?";
+
+	private static final String INSERT_ATTENDANCES = "INSERT INTO attendances (user_id, full_name, check_in_time, "
+			+ "check_out_time, duration_minutes, otp_code, status, created_at, updated_at, synced_to_sheets) "
+			+ "SELECT u, 'Report ' || u, d + interval '8 hours', d + interval '17 hours', 540, '000000', "
+			+ "'CHECKED_OUT', now(), now(), true "
+			+ "FROM generate_series(?::bigint, ?::bigint) u, "
+			+ "generate_series(?::timestamp, ?::timestamp, interval '1 day') d";
+
+	@Test
+	void oneQueryVersusOnePerUser() {
+		assumeTrue(URL != null, "set -Dbatchhistory.jdbcUrl to run");
+
+		try (HikariDataSource dataSource = new HikariDataSource()) {
+			dataSource.setJdbcUrl(URL);
+			dataSource.setUsername(USERNAME);
+			dataSource.setPassword(PASSWORD);
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+			AttendanceRepositoryImpl repository = new AttendanceRepositoryImpl(null, jdbcTemplate);
+
+			new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+			LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+			LocalDateTime end = start.plusDays(DAYS);
+			List<Long> userIds = new ArrayList<>();
+			for (long userId = FIRST_USER_ID; userId < FIRST_USER_ID + USERS; userId++) {
+				userIds.add(userId);
+			}
+
+			try {
+				jdbcTemplate.update(INSERT_ATTENDANCES, FIRST_USER_ID, FIRST_USER_ID + USERS - 1,
+						Timestamp.valueOf(start), Timestamp.valueOf(end.minusDays(1)));
+				jdbcTemplate.execute("ANALYZE attendances");
+
+				Supplier<Integer> perUser = () -> {
+					int rows = 0;
+					for (Long userId : userIds) {
+						rows += jdbcTemplate.queryForList(SINGLE_USER_SQL, userId,
+								Timestamp.valueOf(start), Timestamp.valueOf(end)).size();
+					}
+					return rows;
+				};
+				Supplier<Integer> batched = () -> {
+					List<Attendance> rows = repository.findHistoryForUsers(userIds, start, end, DAYS + 1);
+					return rows.size();
+				};
+
+				assertThat(batched.get()).isEqualTo(perUser.get()).isEqualTo(USERS * DAYS);
+
+				List<Long> perUserMicros = time(perUser);
+				List<Long> batchedMicros = time(batched);
+
+				System.out.println("=== Multi-user history benchmark ===");
+				System.out.printf("%d users x %d days (%d rows per screen), %d iterations%n",
+						USERS, DAYS, USERS * DAYS, ITERATIONS);
+				System.out.printf("one query per user: p50 %.1f ms, p99 %.1f ms%n",
+						percentile(perUserMicros, 0.50) / 1000.0, percentile(perUserMicros, 0.99) / 1000.0);
+				System.out.printf("one batched query:  p50 %.1f ms, p99 %.1f ms (%.1fx faster at p50)%n",
+						percentile(batchedMicros, 0.50) / 1000.0, percentile(batchedMicros, 0.99) / 1000.0,
+						(double) percentile(perUserMicros, 0.50) / percentile(batchedMicros, 0.50));
+			} finally {
+				jdbcTemplate.update("DELETE FROM attendances WHERE user_id >= ? AND user_id < ?",
+						FIRST_USER_ID, FIRST_USER_ID + USERS);
+			}
+		}
+	}
+
+	/**
+	 * Warm up, then time each of ITERATIONS runs in microseconds, sorted
+	 */
+	private List<Long> time(Supplier<Integer> screen) {
+		for (int i = 0; i < 10; i++) {
+			screen.get();
+		}
+		List<Long> micros = new ArrayList<>();
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			screen.get();
+			micros.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+		}
+		Collections.sort(micros);
+		return micros;
+	}
+
+	private long percentile(List<Long> sorted, double percentile) {
+		int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+		return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+	}
+}
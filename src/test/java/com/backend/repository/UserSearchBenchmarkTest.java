@@ -0,0 +1,105 @@
+package com.backend.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Loads a million generated users into the users table of a real database and
+ * times UserRepository.SEARCH_SQL for misspelled, partial and substring queries.
+ * The database needs the application schema (start the app against it once).
+ * Generated users are deleted afterwards.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=UserSearchBenchmarkTest
+ *     -Dsearch.jdbcUrl=jdbc:postgresql://localhost:5433/eros_attendance_test
+ * Tune with -Dsearch.users and -Dsearch.iterations.
+ */
+@Tag("benchmark")
+class UserSearchBenchmarkTest {
+
+	private static final String URL = System.getProperty("search.jdbcUrl");
+	private static final String USERNAME = System.getProperty("search.username", "testuser");
+	private static final String PASSWORD = System.getProperty("search.password", "testpass");
+	private static final int USERS = Integer.getInteger("search.users", 1_000_000);
+	private static final int ITERATIONS = Integer.getInteger("search.iterations", 200);
+	private static final long BUDGET_MILLIS = 20;
+
+	// Typos, partial words and mid-name substrings, as typed into an admin search box
+	private static final String[] QUERIES = {
+			"alce", "budi sant", "wijya", "siti nurh", "rahmat", "kusuma", "dewi", "prasetyo", "ayu lest", "gunawn"
+	};
+
+	private static final String INSERT_USERS = "INSERT INTO users (username, email, password, full_name, created_at, updated_at) "
+			+ "SELECT 'bench_' || g, 'bench_' || g || '@example.com', 'x', "
+			+ "(ARRAY['Alice','Budi','Siti','Rahmat','Dewi','Agus','Ayu','Joko','Putri','Hendra'])[1 + g % 10] || ' ' || "
+			+ "(ARRAY['Santoso','Wijaya','Nurhaliza','Kusuma','Prasetyo','Lestari','Gunawan','Hidayat','Saputra','Halim'])"
+			+ "[1 + (g / 10) % 10] || ' ' || substr(md5(g::text), 1, 6), now(), now() "
+			+ "FROM generate_series(1, :users) g";
+
+	@Test
+	void searchStaysUnderBudgetAtScale() {
+		assumeTrue(URL != null, "set -Dsearch.jdbcUrl to run");
+
+		try (HikariDataSource dataSource = new HikariDataSource()) {
+			dataSource.setJdbcUrl(URL);
+			dataSource.setUsername(USERNAME);
+			dataSource.setPassword(PASSWORD);
+			NamedParameterJdbcTemplate jdbc = new NamedParameterJdbcTemplate(dataSource);
+
+			new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+			try {
+				long loadStart = System.nanoTime();
+				jdbc.update(INSERT_USERS, new MapSqlParameterSource("users", USERS));
+				jdbc.getJdbcTemplate().execute("ANALYZE users");
+				System.out.printf("loaded %d users in %.1f s%n", USERS, (System.nanoTime() - loadStart) / 1e9);
+
+				System.out.println("plan for \"" + QUERIES[0] + "\":");
+				jdbc.queryForList("EXPLAIN " + UserRepository.SEARCH_SQL, params(QUERIES[0]), String.class)
+						.forEach(line -> System.out.println("  " + line));
+
+				for (int i = 0; i < 20; i++) {
+					jdbc.queryForList(UserRepository.SEARCH_SQL, params(QUERIES[i % QUERIES.length]));
+				}
+
+				List<Long> micros = new ArrayList<>();
+				for (int i = 0; i < ITERATIONS; i++) {
+					long start = System.nanoTime();
+					jdbc.queryForList(UserRepository.SEARCH_SQL, params(QUERIES[i % QUERIES.length]));
+					micros.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+				}
+				Collections.sort(micros);
+
+				long p50 = micros.get(micros.size() / 2);
+				long p99 = micros.get((int) Math.ceil(micros.size() * 0.99) - 1);
+				System.out.println("=== User search benchmark ===");
+				System.out.printf("%d users, %d searches: p50 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+						USERS, ITERATIONS, p50 / 1000.0, p99 / 1000.0, micros.get(micros.size() - 1) / 1000.0);
+
+				assertThat(p99).isLessThan(TimeUnit.MILLISECONDS.toMicros(BUDGET_MILLIS));
+			} finally {
+				jdbc.getJdbcTemplate().update("DELETE FROM users WHERE username LIKE 'bench\\_%'");
+			}
+		}
+	}
+
+	private MapSqlParameterSource params(String query) {
+		return new MapSqlParameterSource()
+				.addValue("q", query)
+				.addValue("substring", "%" + query + "%")
+				.addValue("prefix", query + "%")
+				.addValue("limit", 20)
+				.addValue("offset", 0);
+	}
+}
@@ -0,0 +1,73 @@
+package com.backend.service;
+
+import com.backend.cache.AttendanceAnalyticsCache;
+import com.backend.dto.AttendanceAnalyticsResponse;
+import com.backend.repository.AttendanceMonthStats;
+import com.backend.repository.AttendanceRepository;
+import com.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AttendanceAnalyticsServiceTest {
+
+	private final AttendanceRepository attendanceRepository = mock(AttendanceRepository.class);
+	private final UserRepository userRepository = mock(UserRepository.class);
+
+	@Test
+	void lateCheckOutIntoAnEndedMonthIsNotHiddenByTheCache() {
+		// An open-month TTL of zero keeps a month that is not closed out of the cache
+		AttendanceAnalyticsCache cache = new AttendanceAnalyticsCache(new SimpleMeterRegistry(), 10, 0, 24);
+		AttendanceAnalyticsService service = new AttendanceAnalyticsService(attendanceRepository, userRepository,
+				cache, mock(PlatformTransactionManager.class), "09:00", 480);
+		YearMonth january = YearMonth.of(2024, 1);
+		when(userRepository.count()).thenReturn(1L);
+
+		// A session from January 31st is still open long after the month ended
+		when(attendanceRepository.existsOpenSession(any(LocalDateTime.class), any(LocalDateTime.class)))
+				.thenReturn(true);
+		List<AttendanceMonthStats> open = List.of(stats(1, 0, 0));
+		when(attendanceRepository.findMonthStats(any(), any(), any(LocalTime.class), anyInt())).thenReturn(open);
+		AttendanceAnalyticsResponse beforeCheckOut = service.getMonth(january);
+		assertThat(beforeCheckOut.isClosed()).isFalse();
+		assertThat(beforeCheckOut.getTeam().getWorkedMinutes()).isZero();
+
+		// It is checked out later, writing worked minutes into January
+		when(attendanceRepository.existsOpenSession(any(LocalDateTime.class), any(LocalDateTime.class)))
+				.thenReturn(false);
+		List<AttendanceMonthStats> checkedOut = List.of(stats(1, 1, 540));
+		when(attendanceRepository.findMonthStats(any(), any(), any(LocalTime.class), anyInt())).thenReturn(checkedOut);
+		AttendanceAnalyticsResponse afterCheckOut = service.getMonth(january);
+		assertThat(afterCheckOut.isClosed()).isTrue();
+		assertThat(afterCheckOut.getTeam().getWorkedMinutes()).isEqualTo(540);
+
+		// Now closed for good, so served from the cache
+		assertThat(service.getMonth(january)).isSameAs(afterCheckOut);
+		verify(attendanceRepository, times(2)).findMonthStats(any(), any(), any(LocalTime.class), anyInt());
+	}
+
+	private static AttendanceMonthStats stats(long daysPresent, long completedDays, long workedMinutes) {
+		AttendanceMonthStats stats = mock(AttendanceMonthStats.class);
+		when(stats.getUserId()).thenReturn(1L);
+		when(stats.getFullName()).thenReturn("Budi");
+		when(stats.getDaysPresent()).thenReturn(daysPresent);
+		when(stats.getCompletedDays()).thenReturn(completedDays);
+		when(stats.getWorkedMinutes()).thenReturn(workedMinutes);
+		when(stats.getLateArrivals()).thenReturn(0L);
+		when(stats.getOvertimeMinutes()).thenReturn(Math.max(0, workedMinutes - 480));
+		return stats;
+	}
+}
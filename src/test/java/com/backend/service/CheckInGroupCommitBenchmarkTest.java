@@ -0,0 +1,138 @@
+package com.backend.service;
+
+import com.backend.cache.AttendanceVersions;
+import com.backend.cache.CacheInvalidationBus;
+import com.backend.cache.InvalidationListener;
+import com.backend.config.WorkerThreads;
+import com.backend.entity.Attendance;
+import com.backend.sink.AttendanceSinkDispatcher;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Inserts check-ins from many threads against a real database, once with one
+ * transaction per check-in and once through CheckInGroupCommitter, and reports
+ * throughput and group sizes. Rows are written for user ids far above real ones
+ * and deleted afterwards.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=CheckInGroupCommitBenchmarkTest
+ *     -Dgroupcommit.jdbcUrl=jdbc:postgresql://localhost:5433/eros_attendance_test
+ * Tune with -Dgroupcommit.threads, -Dgroupcommit.checkIns and -Dgroupcommit.poolSize.
+ */
+@Tag("benchmark")
+class CheckInGroupCommitBenchmarkTest {
+
+	private static final String URL = System.getProperty("groupcommit.jdbcUrl");
+	private static final String USERNAME = System.getProperty("groupcommit.username", "testuser");
+	private static final String PASSWORD = System.getProperty("groupcommit.password", "testpass");
+	private static final int THREADS = Integer.getInteger("groupcommit.threads", 200);
+	private static final int CHECK_INS = Integer.getInteger("groupcommit.checkIns", 5000);
+	private static final int POOL_SIZE = Integer.getInteger("groupcommit.poolSize", 10);
+	private static final long FIRST_USER_ID = 900_000_000L;
+
+	@Test
+	void perRequestVersusGroupCommit() throws Exception {
+		assumeTrue(URL != null, "set -Dgroupcommit.jdbcUrl to run");
+
+		try (HikariDataSource dataSource = new HikariDataSource()) {
+			dataSource.setJdbcUrl(URL);
+			dataSource.setUsername(USERNAME);
+			dataSource.setPassword(PASSWORD);
+			dataSource.setMaximumPoolSize(POOL_SIZE);
+			JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+			TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+			StaticListableBeanFactory beans = new StaticListableBeanFactory();
+			beans.addBean("jdbcTemplate", jdbcTemplate);
+			AttendanceVersions versions = new AttendanceVersions(beans.getBeanProvider(JdbcTemplate.class), 1000);
+
+			try {
+				double perRequest = run(attendance -> transactionTemplate.executeWithoutResult(status -> {
+					CheckInGroupCommitter.insert(jdbcTemplate, List.of(attendance));
+					versions.bump(attendance.getUserId());
+				}), FIRST_USER_ID);
+
+				SimpleMeterRegistry registry = new SimpleMeterRegistry();
+				CheckInGroupCommitter committer = committer(jdbcTemplate, transactionTemplate, beans, versions, registry);
+				double grouped;
+				try {
+					grouped = run(committer::commit, FIRST_USER_ID + CHECK_INS);
+				} finally {
+					committer.stop();
+				}
+
+				DistributionSummary sizes = registry.get("attendance.checkin.group.size").summary();
+				System.out.println("=== Check-in group commit benchmark ===");
+				System.out.printf("check-ins: %d from %d threads, connection pool: %d%n", CHECK_INS, THREADS, POOL_SIZE);
+				System.out.printf("one transaction per check-in: %.0f check-ins/s%n", perRequest);
+				System.out.printf("group commit: %.0f check-ins/s (%.1fx), %d transactions, mean group %.1f, max group %.0f%n",
+						grouped, grouped / perRequest, sizes.count(), sizes.mean(), sizes.max());
+
+				assertThat((long) sizes.totalAmount()).isEqualTo(CHECK_INS);
+			} finally {
+				jdbcTemplate.update("DELETE FROM attendances WHERE user_id >= ?", FIRST_USER_ID);
+			}
+		}
+	}
+
+	/**
+	 * Insert CHECK_INS rows from THREADS threads and return check-ins per second
+	 */
+	private double run(Consumer<Attendance> checkIn, long firstUserId) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		AtomicLong nextUserId = new AtomicLong(firstUserId);
+		List<Future<?>> results = new ArrayList<>();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < THREADS; i++) {
+			results.add(executor.submit(() -> {
+				long userId;
+				while ((userId = nextUserId.getAndIncrement()) < firstUserId + CHECK_INS) {
+					checkIn.accept(new Attendance(userId, "Benchmark " + userId, "000000"));
+				}
+			}));
+		}
+		for (Future<?> result : results) {
+			result.get();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+		return CHECK_INS / seconds;
+	}
+
+	private CheckInGroupCommitter committer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+			StaticListableBeanFactory beans, AttendanceVersions versions, SimpleMeterRegistry registry) {
+		// Not started and not enabled, so no NOTIFY is sent
+		CacheInvalidationBus bus = new CacheInvalidationBus(beans.getBeanProvider(InvalidationListener.class),
+				beans.getBeanProvider(JdbcTemplate.class), new DataSourceProperties(), registry);
+		AttendanceSinkDispatcher dispatcher = new AttendanceSinkDispatcher(Collections.emptyList(), registry, 10_000, 100);
+
+		CheckInGroupCommitter committer = new CheckInGroupCommitter(jdbcTemplate, transactionTemplate, dispatcher, bus,
+				versions, registry, WorkerThreads.platform());
+		ReflectionTestUtils.setField(committer, "enabled", true);
+		committer.start();
+		return committer;
+	}
+}
@@ -0,0 +1,88 @@
+package com.backend.service;
+
+import com.backend.cache.AttendanceVersions;
+import com.backend.cache.CacheInvalidationBus;
+import com.backend.cache.InvalidationListener;
+import com.backend.config.WorkerThreads;
+import com.backend.entity.Attendance;
+import com.backend.sink.AttendanceSinkDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CheckInGroupCommitterTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final CountDownLatch databaseStalled = new CountDownLatch(1);
+	private CheckInGroupCommitter committer;
+
+	@AfterEach
+	void tearDown() {
+		databaseStalled.countDown();
+		committer.stop();
+	}
+
+	@Test
+	void userStaysPendingUntilTheRowCommitsEvenAfterTheCallerTimesOut() throws Exception {
+		when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(Object[].class))).thenAnswer(invocation -> {
+			databaseStalled.await();
+			return List.of(41L);
+		}).thenReturn(List.of(42L));
+		committer = committer();
+
+		assertThatThrownBy(() -> committer.commit(new Attendance(7L, "Ada", "123456")))
+				.hasMessageContaining("taking longer than expected");
+		// The first row is still queued, so a retry must not queue a second one
+		assertThatThrownBy(() -> committer.commit(new Attendance(7L, "Ada", "123456")))
+				.hasMessageContaining("already in progress");
+
+		databaseStalled.countDown();
+		CompletableFuture<Attendance> retry = new CompletableFuture<>();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!retry.isDone() && System.nanoTime() < deadline) {
+			try {
+				retry.complete(committer.commit(new Attendance(7L, "Ada", "123456")));
+			} catch (RuntimeException stillPending) {
+				Thread.sleep(10);
+			}
+		}
+		assertThat(retry.get().getId()).isEqualTo(42L);
+	}
+
+	private CheckInGroupCommitter committer() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		StaticListableBeanFactory beans = new StaticListableBeanFactory();
+		beans.addBean("jdbcTemplate", jdbcTemplate);
+		CacheInvalidationBus bus = new CacheInvalidationBus(beans.getBeanProvider(InvalidationListener.class),
+				beans.getBeanProvider(JdbcTemplate.class), new DataSourceProperties(), registry);
+		CheckInGroupCommitter committer = new CheckInGroupCommitter(jdbcTemplate,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)),
+				new AttendanceSinkDispatcher(Collections.emptyList(), registry, 10_000, 100), bus,
+				new AttendanceVersions(beans.getBeanProvider(JdbcTemplate.class), 1000), registry,
+				WorkerThreads.platform());
+		ReflectionTestUtils.setField(committer, "enabled", true);
+		ReflectionTestUtils.setField(committer, "waitTimeoutSeconds", 1L);
+		committer.start();
+		return committer;
+	}
+}
@@ -0,0 +1,137 @@
+package com.backend.service;
+
+import com.backend.sheets.FakeSheetsServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GoogleSheetsServiceTest {
+
+	private FakeSheetsServer server;
+	private GoogleSheetsService sheetsService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = new FakeSheetsServer();
+		sheetsService = server.createSheetsService(new SheetsRateLimiter(60_000, 1_000));
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.close();
+	}
+
+	@Test
+	void writeAttendanceCreatesMonthSheetsAndMarksSummary() throws Exception {
+		LocalDateTime checkIn = LocalDateTime.of(2024, 3, 5, 8, 1, 0);
+
+		sheetsService.writeAttendance("Alice", checkIn, null);
+
+		assertThat(server.getSheetTitles()).contains("2024-03", "Summary-2024-03");
+		List<List<String>> detail = server.getValues("2024-03");
+		assertThat(detail).hasSize(2);
+		assertThat(detail.get(1)).containsExactly("Alice", "2024-03-05 08:01:00", "-", "-", "Checked In");
+
+		List<String> summaryRow = server.getValues("Summary-2024-03").get(1);
+		assertThat(summaryRow.get(0)).isEqualTo("Alice");
+		assertThat(summaryRow.get(5)).isEqualTo(GoogleSheetsService.CHECKMARK);
+		assertThat(summaryRow.get(32)).isEqualTo("1");
+	}
+
+	@Test
+	void updateAttendanceFillsCheckOut() throws Exception {
+		LocalDateTime checkIn = LocalDateTime.of(2024, 3, 5, 8, 0, 0);
+		sheetsService.writeAttendance("Alice", checkIn, null);
+
+		sheetsService.updateAttendance("Alice", checkIn, checkIn.plusHours(8).plusMinutes(5));
+
+		assertThat(server.getValues("2024-03").get(1))
+				.containsExactly("Alice", "2024-03-05 08:00:00", "2024-03-05 16:05:00", "8:05", "Completed");
+	}
+
+	@Test
+	void formatsNewSheetsWithTheSheetIdReturnedByAddSheet() throws Exception {
+		server.setRandomSheetIds(true);
+
+		sheetsService.prepareMonth(2024, 4);
+
+		assertThat(server.getSheetTitles()).contains("2024-04", "Summary-2024-04");
+		assertThat(server.getCallCount("batchUpdate")).isEqualTo(4);
+	}
+
+	@Test
+	void knownSheetsAreNotLookedUpAgain() throws Exception {
+		LocalDateTime checkIn = LocalDateTime.of(2024, 3, 5, 8, 0, 0);
+		sheetsService.writeAttendance("Alice", checkIn, null);
+		server.resetCounters();
+
+		sheetsService.writeAttendance("Bob", checkIn.plusMinutes(1), null);
+
+		assertThat(server.getCallCount("get")).isZero();
+		assertThat(server.getCallCount("batchUpdate")).isZero();
+	}
+
+	@Test
+	void replaceMonthUsesFixedNumberOfCalls() throws Exception {
+		sheetsService.getOrCreateMonthSheet(2024, 3);
+		sheetsService.getOrCreateMonthlySummarySheet(2024, 3);
+		server.resetCounters();
+
+		List<Object> detailRow = GoogleSheetsService.buildDetailRow("Bob", LocalDateTime.of(2024, 3, 1, 8, 0), null);
+		List<List<Object>> detailRows = Collections.nCopies(500, detailRow);
+		List<List<Object>> summaryRows = Collections.singletonList(Arrays.asList("Bob", GoogleSheetsService.CHECKMARK));
+
+		sheetsService.replaceMonth(2024, 3, detailRows, summaryRows);
+
+		assertThat(server.getCallCount("values.batchClear")).isEqualTo(1);
+		assertThat(server.getCallCount("values.update")).isEqualTo(2);
+		assertThat(server.getValues("2024-03")).hasSize(501);
+	}
+
+	@Test
+	void upsertMonthWritesManyRowsWithOneReadAndOneWrite() throws Exception {
+		LocalDateTime aliceIn = LocalDateTime.of(2024, 3, 5, 8, 0, 0);
+		sheetsService.writeAttendance("Alice", aliceIn, null);
+		server.resetCounters();
+
+		List<List<Object>> rows = new ArrayList<>();
+		rows.add(GoogleSheetsService.buildDetailRow("Alice", aliceIn, aliceIn.plusHours(8)));
+		for (int day = 1; day <= 20; day++) {
+			rows.add(GoogleSheetsService.buildDetailRow("Bob", LocalDateTime.of(2024, 3, day, 9, 0, 0), null));
+		}
+		sheetsService.upsertMonth(2024, 3, rows);
+
+		assertThat(server.getCallCount("values.batchGet")).isEqualTo(1);
+		assertThat(server.getCallCount("values.batchUpdate")).isEqualTo(1);
+		assertThat(server.getTotalCallCount()).isEqualTo(2);
+
+		List<List<String>> detail = server.getValues("2024-03");
+		assertThat(detail).hasSize(22);
+		assertThat(detail.get(1))
+				.containsExactly("Alice", "2024-03-05 08:00:00", "2024-03-05 16:00:00", "8:00", "Completed");
+		List<List<String>> summary = server.getValues("Summary-2024-03");
+		assertThat(summary.get(1).get(32)).isEqualTo("1");
+		assertThat(summary.get(2).get(0)).isEqualTo("Bob");
+		assertThat(summary.get(2).get(32)).isEqualTo("20");
+	}
+
+	@Test
+	void upsertMonthKeepsACheckOutWhenReplayingTheCheckIn() throws Exception {
+		LocalDateTime checkIn = LocalDateTime.of(2024, 3, 5, 8, 0, 0);
+		sheetsService.upsertMonth(2024, 3, List.of(GoogleSheetsService.buildDetailRow("Alice", checkIn, checkIn.plusHours(8))));
+
+		sheetsService.upsertMonth(2024, 3, List.of(GoogleSheetsService.buildDetailRow("Alice", checkIn, null)));
+
+		assertThat(server.getValues("2024-03")).hasSize(2);
+		assertThat(server.getValues("2024-03").get(1).get(4)).isEqualTo("Completed");
+		assertThat(server.getValues("Summary-2024-03").get(1).get(32)).isEqualTo("1");
+	}
+}
@@ -0,0 +1,134 @@
+package com.backend.service;
+
+import com.backend.dto.ApiResponse;
+import com.backend.entity.IdempotencyRecord;
+import com.backend.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+	private static final TypeReference<ApiResponse<String>> BODY_TYPE = new TypeReference<ApiResponse<String>>() {};
+
+	private IdempotencyRecordRepository repository;
+	private IdempotencyService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(IdempotencyRecordRepository.class);
+		service = new IdempotencyService(repository, JsonMapper.builder().build(), new SimpleMeterRegistry(), 1000, 24);
+		ReflectionTestUtils.setField(service, "inFlightTimeoutSeconds", 10L);
+	}
+
+	@Test
+	void retryReplaysFirstResponseWithoutRunningAgain() {
+		AtomicInteger runs = new AtomicInteger();
+		String fingerprint = IdempotencyService.fingerprint("check-in", "123456");
+
+		ResponseEntity<ApiResponse<String>> first = service.execute(1L, "key-1", fingerprint, BODY_TYPE,
+				() -> ResponseEntity.ok(ApiResponse.success("Check-in successful", "run " + runs.incrementAndGet())));
+		ResponseEntity<ApiResponse<String>> retry = service.execute(1L, "key-1", fingerprint, BODY_TYPE,
+				() -> ResponseEntity.ok(ApiResponse.success("Check-in successful", "run " + runs.incrementAndGet())));
+
+		assertThat(runs.get()).isEqualTo(1);
+		assertThat(retry.getBody().getData()).isEqualTo("run 1");
+		assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+		assertThat(first.getHeaders().containsHeader(IdempotencyService.REPLAYED_HEADER)).isFalse();
+	}
+
+	@Test
+	void serviceUnavailableIsNotStoredSoTheRetryRunsAgain() {
+		AtomicInteger runs = new AtomicInteger();
+		String fingerprint = IdempotencyService.fingerprint("check-in", "123456");
+
+		ResponseEntity<ApiResponse<String>> first = service.execute(1L, "key-1", fingerprint, BODY_TYPE,
+				() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+						.body(ApiResponse.error("Too many check-ins in progress, please retry")));
+		ResponseEntity<ApiResponse<String>> retry = service.execute(1L, "key-1", fingerprint, BODY_TYPE,
+				() -> ResponseEntity.ok(ApiResponse.success("Check-in successful", "run " + runs.incrementAndGet())));
+
+		assertThat(first.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(retry.getBody().getData()).isEqualTo("run 1");
+		assertThat(retry.getHeaders().containsHeader(IdempotencyService.REPLAYED_HEADER)).isFalse();
+	}
+
+	@Test
+	void concurrentDuplicatesWaitForTheInFlightRequest() throws Exception {
+		AtomicInteger runs = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		String fingerprint = IdempotencyService.fingerprint("check-in", "123456");
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+
+		List<Future<ResponseEntity<ApiResponse<String>>>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(callers.submit(() -> service.execute(1L, "key-1", fingerprint, BODY_TYPE, () -> {
+				runs.incrementAndGet();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return ResponseEntity.ok(ApiResponse.success("Check-in successful", "done"));
+			})));
+		}
+		Thread.sleep(200);
+		release.countDown();
+
+		for (Future<ResponseEntity<ApiResponse<String>>> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS).getBody().getData()).isEqualTo("done");
+		}
+		callers.shutdown();
+		assertThat(runs.get()).isEqualTo(1);
+	}
+
+	@Test
+	void keyReusedForDifferentRequestIsRejected() {
+		service.execute(1L, "key-1", IdempotencyService.fingerprint("check-in", "123456"), BODY_TYPE,
+				() -> ResponseEntity.ok(ApiResponse.success("Check-in successful", "done")));
+
+		assertThatThrownBy(() -> service.execute(1L, "key-1", IdempotencyService.fingerprint("check-out", "123456"),
+				BODY_TYPE, () -> ResponseEntity.ok(ApiResponse.success("Check-out successful", "done"))))
+				.hasMessageContaining("different request");
+	}
+
+	@Test
+	void persistedResponseFromAnotherNodeIsReplayed() {
+		ReflectionTestUtils.setField(service, "persistent", true);
+		String fingerprint = IdempotencyService.fingerprint("check-in", "123456");
+		IdempotencyRecord record = new IdempotencyRecord(1L, "key-1", fingerprint, 200,
+				"{\"success\":true,\"message\":\"Check-in successful\",\"data\":\"other node\"}");
+		when(repository.findByUserIdAndIdempotencyKey(1L, "key-1")).thenReturn(Optional.of(record));
+
+		ResponseEntity<ApiResponse<String>> response = service.execute(1L, "key-1", fingerprint, BODY_TYPE,
+				() -> {
+					throw new IllegalStateException("must not run");
+				});
+
+		assertThat(response.getBody().getData()).isEqualTo("other node");
+		verify(repository, never()).save(any());
+	}
+}
@@ -0,0 +1,31 @@
+package com.backend.service;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasetoServiceTest {
+
+	@Test
+	void mintAndParseLatencyAreBothScraped() {
+		PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+		PasetoService pasetoService = new PasetoService(registry);
+		ReflectionTestUtils.setField(pasetoService, "secretKeyString", "test-secret");
+		ReflectionTestUtils.setField(pasetoService, "accessTokenExpiration", 900L);
+
+		String token = pasetoService.generateAccessToken(1L, "alice");
+		pasetoService.validateAndParseToken(token);
+		assertThatThrownBy(() -> pasetoService.validateAndParseToken("v2.local.garbage"))
+				.isInstanceOf(RuntimeException.class);
+
+		String scrape = registry.scrape();
+		assertThat(scrape)
+				.contains("paseto_token_seconds_count{operation=\"mint\",outcome=\"success\",type=\"access\"} 1")
+				.contains("paseto_token_seconds_count{operation=\"parse\",outcome=\"valid\",type=\"access\"} 1")
+				.contains("paseto_token_seconds_count{operation=\"parse\",outcome=\"invalid\",type=\"none\"} 1");
+	}
+}
@@ -0,0 +1,63 @@
+package com.backend.service;
+
+import com.backend.entity.Attendance;
+import com.backend.leader.LeaderElection;
+import com.backend.repository.AttendanceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SheetsBackfillServiceTest {
+
+	@Test
+	void stopsWritingOnceLeadershipIsLost() throws Exception {
+		AttendanceRepository repository = mock(AttendanceRepository.class);
+		GoogleSheetsService sheetsService = mock(GoogleSheetsService.class);
+		LeaderElection leaderElection = mock(LeaderElection.class);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		SheetsWriteLanes lanes = new SheetsWriteLanes(2, 20, registry);
+		SheetsBackfillService backfill = new SheetsBackfillService(repository, sheetsService,
+				new SheetsRateLimiter(60_000, 1_000), lanes, leaderElection, registry);
+		ReflectionTestUtils.setField(backfill, "pageSize", 100);
+		ReflectionTestUtils.setField(backfill, "maxRunSeconds", 60L);
+
+		when(repository.countBySyncedToSheetsFalse()).thenReturn(3L);
+		when(repository.findUnsyncedAttendances(any(), any(), any(), any())).thenReturn(List.of(
+				attendance(1L, LocalDateTime.of(2024, 1, 10, 8, 0)),
+				attendance(2L, LocalDateTime.of(2024, 2, 10, 8, 0)),
+				attendance(3L, LocalDateTime.of(2024, 3, 10, 8, 0))));
+		// Another node takes over after the first month is written
+		when(leaderElection.isLeader()).thenReturn(true, false);
+
+		try {
+			backfill.backfill();
+		} finally {
+			lanes.shutdown();
+		}
+
+		verify(sheetsService, times(1)).upsertMonth(anyInt(), anyInt(), anyList());
+		verify(sheetsService).upsertMonth(eq(2024), eq(1), anyList());
+		verify(repository, times(1)).markSyncedToSheets(anyLong(), anyBoolean());
+	}
+
+	private Attendance attendance(Long id, LocalDateTime checkIn) {
+		Attendance attendance = new Attendance(7L, "Ada", "123456");
+		attendance.setId(id);
+		attendance.setCheckInTime(checkIn);
+		return attendance;
+	}
+}
@@ -0,0 +1,49 @@
+package com.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SheetsRateLimiterTest {
+
+	@Test
+	void callersQueuedDuringBackOffLeaveOneIntervalApartAfterIt() {
+		// 60 requests per minute: one permit per second
+		SheetsRateLimiter limiter = new SheetsRateLimiter(60, 5);
+		long start = System.nanoTime();
+		long pauseEnd = start + TimeUnit.SECONDS.toNanos(10);
+		limiter.backOff(Duration.ofSeconds(10), start);
+
+		int callers = 20;
+		long previousRelease = 0;
+		for (int i = 0; i < callers; i++) {
+			long now = start + TimeUnit.MILLISECONDS.toNanos(100 + i);
+			long release = now + limiter.reserve(now);
+
+			assertThat(release).isGreaterThan(pauseEnd);
+			if (i > 0) {
+				assertThat(release - previousRelease).isCloseTo(TimeUnit.SECONDS.toNanos(1),
+						within(TimeUnit.MILLISECONDS.toNanos(2)));
+			}
+			previousRelease = release;
+		}
+	}
+
+	@Test
+	void callersAfterBackOffDoNotWaitForTheOldPause() {
+		SheetsRateLimiter limiter = new SheetsRateLimiter(60, 5);
+		long start = System.nanoTime();
+		limiter.backOff(Duration.ofSeconds(10), start);
+
+		// Three seconds after the pause three permits have accrued
+		long later = start + TimeUnit.SECONDS.toNanos(13);
+		assertThat(limiter.reserve(later)).isZero();
+		assertThat(limiter.reserve(later)).isZero();
+		assertThat(limiter.reserve(later)).isZero();
+		assertThat(limiter.reserve(later)).isCloseTo(TimeUnit.SECONDS.toNanos(1), within(1_000L));
+	}
+}
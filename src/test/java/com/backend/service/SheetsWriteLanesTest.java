@@ -0,0 +1,110 @@
+package com.backend.service;
+
+import com.backend.sheets.FakeSheetsServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SheetsWriteLanesTest {
+
+	private static final int CHECK_INS = 200;
+	private static final int MONTHS = 4;
+
+	private FakeSheetsServer server;
+	private GoogleSheetsService sheetsService;
+	private SheetsWriteLanes lanes;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = new FakeSheetsServer();
+		server.setLatency(2, 2);
+		sheetsService = server.createSheetsService(new SheetsRateLimiter(600_000, 1_000));
+		lanes = new SheetsWriteLanes(4, 20, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		lanes.shutdown();
+		server.close();
+	}
+
+	@Test
+	void simultaneousCheckInsGetOneSummaryRowEach() throws Exception {
+		ExecutorService callers = Executors.newFixedThreadPool(CHECK_INS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<CompletableFuture<Void>> writes = new ArrayList<>();
+
+		for (int i = 0; i < CHECK_INS; i++) {
+			String name = "Employee " + i;
+			LocalDateTime checkIn = LocalDateTime.of(2024, 1 + i % MONTHS, 5, 8, 0, 0);
+			CompletableFuture<Void> write = new CompletableFuture<>();
+			writes.add(write);
+			callers.execute(() -> {
+				try {
+					start.await();
+					lanes.run(YearMonth.from(checkIn), () -> {
+						sheetsService.writeAttendance(name, checkIn, null);
+						return null;
+					});
+					write.complete(null);
+				} catch (Throwable e) {
+					write.completeExceptionally(e);
+				}
+			});
+		}
+
+		start.countDown();
+		CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+		callers.shutdown();
+
+		int perMonth = CHECK_INS / MONTHS;
+		for (int month = 1; month <= MONTHS; month++) {
+			assertThat(server.getValues(GoogleSheetsService.monthSheetName(2024, month))).hasSize(perMonth + 1);
+
+			List<List<String>> summary = server.getValues(GoogleSheetsService.summarySheetName(2024, month));
+			assertThat(summary).hasSize(perMonth + 1);
+			Set<String> names = new HashSet<>();
+			for (List<String> row : summary.subList(1, summary.size())) {
+				names.add(row.get(0));
+				assertThat(row.get(5)).isEqualTo(GoogleSheetsService.CHECKMARK);
+				assertThat(row.get(row.size() - 1)).isEqualTo("1");
+			}
+			assertThat(names).hasSize(perMonth);
+		}
+	}
+
+	@Test
+	void tasksOnOneLaneRunInSubmissionOrder() throws Exception {
+		List<Integer> order = new ArrayList<>();
+		List<CompletableFuture<Integer>> results = new ArrayList<>();
+		YearMonth month = YearMonth.of(2024, 1);
+
+		for (int i = 0; i < 100; i++) {
+			int value = i;
+			results.add(lanes.submit(month, () -> {
+				order.add(value);
+				return value;
+			}));
+		}
+		CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(order.get(i)).isEqualTo(i);
+		}
+	}
+}
@@ -0,0 +1,607 @@
+package com.backend.sheets;
+
+import com.backend.service.GoogleSheetsService;
+import com.backend.service.SheetsRateLimiter;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Embedded stand-in for the parts of the Sheets v4 API that GoogleSheetsService uses:
+ * spreadsheets.get, spreadsheets.batchUpdate (addSheet; formatting is ignored)
+ * and values.get / update / append / batchGet / batchUpdate / batchClear.
+ *
+ * Keeps one in-memory spreadsheet, can inject latency and 429 quota errors,
+ * and counts calls per operation.
+ */
+public class FakeSheetsServer implements AutoCloseable {
+
+	public static final String SPREADSHEET_ID = "fake-spreadsheet";
+
+	private static final Gson GSON = new Gson();
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final Map<String, AtomicInteger> callCounts = new ConcurrentHashMap<>();
+	private final AtomicInteger quotaErrors = new AtomicInteger();
+
+	// Spreadsheet model, guarded by "this"
+	private final Map<String, SheetModel> sheets = new LinkedHashMap<>();
+	private int nextSheetId = 0;
+	private volatile boolean randomSheetIds;
+
+	// Fault injection
+	private volatile long latencyMillis;
+	private volatile long latencyJitterMillis;
+	private volatile double quotaErrorRate;
+	private volatile int requestsPerMinuteLimit;
+	private final Deque<Long> recentRequests = new ArrayDeque<>();
+
+	public FakeSheetsServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		this.executor = Executors.newFixedThreadPool(32);
+		this.server.setExecutor(executor);
+		this.server.createContext("/v4/spreadsheets/", this::handle);
+		this.server.start();
+
+		// A new spreadsheet always starts with one sheet
+		addSheet("Sheet1");
+	}
+
+	/**
+	 * Root URL to pass to Sheets.Builder.setRootUrl (google.sheets.root-url)
+	 */
+	public String getRootUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+	}
+
+	/**
+	 * GoogleSheetsService wired to this server, without credentials
+	 */
+	public GoogleSheetsService createSheetsService(SheetsRateLimiter rateLimiter) {
+		GoogleSheetsService service = new GoogleSheetsService(rateLimiter, new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "spreadsheetId", SPREADSHEET_ID);
+		ReflectionTestUtils.setField(service, "credentialsPath", "");
+		ReflectionTestUtils.setField(service, "rootUrl", getRootUrl());
+		ReflectionTestUtils.setField(service, "quotaBackoffSeconds", 1L);
+		return service;
+	}
+
+	public void setLatency(long latencyMillis, long jitterMillis) {
+		this.latencyMillis = latencyMillis;
+		this.latencyJitterMillis = jitterMillis;
+	}
+
+	/**
+	 * Give new sheets random ids like the real API, instead of 0, 1, 2, ...
+	 */
+	public void setRandomSheetIds(boolean randomSheetIds) {
+		this.randomSheetIds = randomSheetIds;
+	}
+
+	/**
+	 * Fail this fraction of requests with 429, independent of load
+	 */
+	public void setQuotaErrorRate(double quotaErrorRate) {
+		this.quotaErrorRate = quotaErrorRate;
+	}
+
+	/**
+	 * Fail requests with 429 once more than this many arrived in the last minute (0 = unlimited)
+	 */
+	public void setRequestsPerMinuteLimit(int requestsPerMinuteLimit) {
+		this.requestsPerMinuteLimit = requestsPerMinuteLimit;
+	}
+
+	public int getCallCount(String operation) {
+		AtomicInteger count = callCounts.get(operation);
+		return count == null ? 0 : count.get();
+	}
+
+	public int getTotalCallCount() {
+		return callCounts.values().stream().mapToInt(AtomicInteger::get).sum();
+	}
+
+	public Map<String, Integer> getCallCounts() {
+		Map<String, Integer> counts = new TreeMap<>();
+		callCounts.forEach((operation, count) -> counts.put(operation, count.get()));
+		return counts;
+	}
+
+	public int getQuotaErrorCount() {
+		return quotaErrors.get();
+	}
+
+	public void resetCounters() {
+		callCounts.clear();
+		quotaErrors.set(0);
+	}
+
+	public synchronized Set<String> getSheetTitles() {
+		return new LinkedHashSet<>(sheets.keySet());
+	}
+
+	/**
+	 * Copy of a sheet's cells as strings, trailing empty cells trimmed
+	 */
+	public synchronized List<List<String>> getValues(String title) {
+		SheetModel sheet = sheets.get(title);
+		if (sheet == null) {
+			return Collections.emptyList();
+		}
+		List<List<String>> copy = new ArrayList<>();
+		for (List<String> row : sheet.rows) {
+			copy.add(trimRow(new ArrayList<>(row)));
+		}
+		return copy;
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	// ---------------------------------------------------------------- routing
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			injectLatency();
+
+			// /v4/spreadsheets/{id}[:batchUpdate | /values/{range}[:append] | /values:batchGet | /values:batchUpdate | /values:batchClear]
+			String path = exchange.getRequestURI().getPath().substring("/v4/spreadsheets/".length());
+			String method = exchange.getRequestMethod();
+			String operation = operationFor(method, path);
+			callCounts.computeIfAbsent(operation, key -> new AtomicInteger()).incrementAndGet();
+
+			if (shouldRejectForQuota()) {
+				quotaErrors.incrementAndGet();
+				JsonObject error = new JsonObject();
+				error.addProperty("code", 429);
+				error.addProperty("message", "Quota exceeded for quota metric 'Write requests'");
+				error.addProperty("status", "RESOURCE_EXHAUSTED");
+				JsonObject body = new JsonObject();
+				body.add("error", error);
+				send(exchange, 429, body);
+				return;
+			}
+
+			JsonObject request = "GET".equals(method) ? null : readBody(exchange);
+			JsonObject response;
+			switch (operation) {
+				case "get":
+					response = getSpreadsheet();
+					break;
+				case "batchUpdate":
+					response = batchUpdate(request);
+					break;
+				case "values.batchGet":
+					response = batchGet(queryParams(exchange).getOrDefault("ranges", Collections.emptyList()));
+					break;
+				case "values.batchUpdate":
+					response = batchUpdateValues(request);
+					break;
+				case "values.batchClear":
+					response = batchClear(request);
+					break;
+				case "values.append":
+					response = append(rangeOf(path, ":append"), request);
+					break;
+				case "values.update":
+					response = update(rangeOf(path, ""), request);
+					break;
+				case "values.get":
+					response = readValues(rangeOf(path, ""));
+					break;
+				default:
+					send(exchange, 404, errorBody(404, "Unknown operation " + method + " " + path));
+					return;
+			}
+			send(exchange, 200, response);
+		} catch (IllegalArgumentException e) {
+			send(exchange, 400, errorBody(400, e.getMessage()));
+		} catch (Exception e) {
+			send(exchange, 500, errorBody(500, String.valueOf(e.getMessage())));
+		}
+	}
+
+	private String operationFor(String method, String path) {
+		if (path.endsWith(":batchUpdate") && !path.contains("/values")) {
+			return "batchUpdate";
+		}
+		if (path.endsWith("/values:batchGet")) {
+			return "values.batchGet";
+		}
+		if (path.endsWith("/values:batchUpdate")) {
+			return "values.batchUpdate";
+		}
+		if (path.endsWith("/values:batchClear")) {
+			return "values.batchClear";
+		}
+		if (path.contains("/values/")) {
+			if (path.endsWith(":append")) {
+				return "values.append";
+			}
+			return "PUT".equals(method) ? "values.update" : "values.get";
+		}
+		return "get";
+	}
+
+	private String rangeOf(String path, String suffix) {
+		String range = path.substring(path.indexOf("/values/") + "/values/".length());
+		return range.substring(0, range.length() - suffix.length());
+	}
+
+	// ---------------------------------------------------------------- operations
+
+	private synchronized JsonObject getSpreadsheet() {
+		JsonArray sheetArray = new JsonArray();
+		int index = 0;
+		for (SheetModel sheet : sheets.values()) {
+			JsonObject wrapper = new JsonObject();
+			wrapper.add("properties", sheet.properties(index++));
+			sheetArray.add(wrapper);
+		}
+		JsonObject response = new JsonObject();
+		response.addProperty("spreadsheetId", SPREADSHEET_ID);
+		response.add("sheets", sheetArray);
+		return response;
+	}
+
+	private synchronized JsonObject batchUpdate(JsonObject request) {
+		JsonArray replies = new JsonArray();
+		for (JsonElement element : request.getAsJsonArray("requests")) {
+			JsonObject subRequest = element.getAsJsonObject();
+			JsonObject reply = new JsonObject();
+			if (subRequest.has("addSheet")) {
+				String title = subRequest.getAsJsonObject("addSheet")
+						.getAsJsonObject("properties").get("title").getAsString();
+				if (sheets.containsKey(title)) {
+					throw new IllegalArgumentException("A sheet with the name \"" + title + "\" already exists.");
+				}
+				SheetModel sheet = addSheet(title);
+				JsonObject addSheet = new JsonObject();
+				addSheet.add("properties", sheet.properties(sheets.size() - 1));
+				reply.add("addSheet", addSheet);
+			} else if (subRequest.has("repeatCell") || subRequest.has("updateSheetProperties")) {
+				int sheetId = subRequest.has("repeatCell")
+						? subRequest.getAsJsonObject("repeatCell").getAsJsonObject("range").get("sheetId").getAsInt()
+						: subRequest.getAsJsonObject("updateSheetProperties").getAsJsonObject("properties").get("sheetId").getAsInt();
+				if (sheets.values().stream().noneMatch(sheet -> sheet.sheetId == sheetId)) {
+					throw new IllegalArgumentException("No grid with id: " + sheetId);
+				}
+			}
+			replies.add(reply);
+		}
+		JsonObject response = new JsonObject();
+		response.addProperty("spreadsheetId", SPREADSHEET_ID);
+		response.add("replies", replies);
+		return response;
+	}
+
+	private synchronized JsonObject readValues(String a1Range) {
+		Range range = parseRange(a1Range);
+		SheetModel sheet = requireSheet(range.sheet);
+
+		JsonArray values = new JsonArray();
+		int lastRow = Math.min(range.endRow, sheet.rows.size() - 1);
+		List<JsonArray> rows = new ArrayList<>();
+		for (int r = range.startRow; r <= lastRow; r++) {
+			List<String> row = sheet.rows.get(r);
+			List<String> slice = new ArrayList<>();
+			for (int c = range.startCol; c <= range.endCol && c < row.size(); c++) {
+				slice.add(row.get(c));
+			}
+			JsonArray jsonRow = new JsonArray();
+			trimRow(slice).forEach(jsonRow::add);
+			rows.add(jsonRow);
+		}
+		// Sheets omits trailing empty rows
+		while (!rows.isEmpty() && rows.get(rows.size() - 1).isEmpty()) {
+			rows.remove(rows.size() - 1);
+		}
+		rows.forEach(values::add);
+
+		JsonObject response = new JsonObject();
+		response.addProperty("range", a1Range);
+		response.addProperty("majorDimension", "ROWS");
+		if (!rows.isEmpty()) {
+			response.add("values", values);
+		}
+		return response;
+	}
+
+	private synchronized JsonObject batchGet(List<String> ranges) {
+		JsonArray valueRanges = new JsonArray();
+		for (String range : ranges) {
+			valueRanges.add(readValues(range));
+		}
+		JsonObject response = new JsonObject();
+		response.addProperty("spreadsheetId", SPREADSHEET_ID);
+		response.add("valueRanges", valueRanges);
+		return response;
+	}
+
+	private synchronized JsonObject update(String a1Range, JsonObject request) {
+		Range range = parseRange(a1Range);
+		SheetModel sheet = requireSheet(range.sheet);
+		JsonArray values = request.getAsJsonArray("values");
+		writeRows(sheet, range.startRow, range.startCol, values);
+
+		JsonObject response = new JsonObject();
+		response.addProperty("spreadsheetId", SPREADSHEET_ID);
+		response.addProperty("updatedRange", a1Range);
+		response.addProperty("updatedRows", values == null ? 0 : values.size());
+		return response;
+	}
+
+	private synchronized JsonObject batchUpdateValues(JsonObject request) {
+		JsonArray responses = new JsonArray();
+		for (JsonElement element : request.getAsJsonArray("data")) {
+			JsonObject valueRange = element.getAsJsonObject();
+			responses.add(update(valueRange.get("range").getAsString(), valueRange));
+		}
+		JsonObject response = new JsonObject();
+		response.addProperty("spreadsheetId", SPREADSHEET_ID);
+		response.add("responses", responses);
+		return response;
+	}
+
+	private synchronized JsonObject append(String a1Range, JsonObject request) {
+		Range range = parseRange(a1Range);
+		SheetModel sheet = requireSheet(range.sheet);
+
+		// Append after the last row that has any content
+		int nextRow = sheet.rows.size();
+		while (nextRow > 0 && trimRow(new ArrayList<>(sheet.rows.get(nextRow - 1))).isEmpty()) {
+			nextRow--;
+		}
+		JsonArray values = request.getAsJsonArray("values");
+		writeRows(sheet, nextRow, range.startCol, values);
+
+		JsonObject updates = new JsonObject();
+		updates.addProperty("spreadsheetId", SPREADSHEET_ID);
+		updates.addProperty("updatedRange", range.sheet + "!A" + (nextRow + 1));
+		updates.addProperty("updatedRows", values == null ? 0 : values.size());
+		JsonObject response = new JsonObject();
+		response.addProperty("spreadsheetId", SPREADSHEET_ID);
+		response.add("updates", updates);
+		return response;
+	}
+
+	private synchronized JsonObject batchClear(JsonObject request) {
+		JsonArray cleared = new JsonArray();
+		for (JsonElement element : request.getAsJsonArray("ranges")) {
+			Range range = parseRange(element.getAsString());
+			SheetModel sheet = requireSheet(range.sheet);
+			for (int r = range.startRow; r <= range.endRow && r < sheet.rows.size(); r++) {
+				List<String> row = sheet.rows.get(r);
+				for (int c = range.startCol; c <= range.endCol && c < row.size(); c++) {
+					row.set(c, "");
+				}
+			}
+			cleared.add(element.getAsString());
+		}
+		JsonObject response = new JsonObject();
+		response.addProperty("spreadsheetId", SPREADSHEET_ID);
+		response.add("clearedRanges", cleared);
+		return response;
+	}
+
+	private void writeRows(SheetModel sheet, int startRow, int startCol, JsonArray values) {
+		if (values == null) {
+			return;
+		}
+		for (int i = 0; i < values.size(); i++) {
+			int rowIndex = startRow + i;
+			while (sheet.rows.size() <= rowIndex) {
+				sheet.rows.add(new ArrayList<>());
+			}
+			List<String> row = sheet.rows.get(rowIndex);
+			JsonArray cells = values.get(i).getAsJsonArray();
+			for (int j = 0; j < cells.size(); j++) {
+				int col = startCol + j;
+				while (row.size() <= col) {
+					row.add("");
+				}
+				JsonElement cell = cells.get(j);
+				row.set(col, cell.isJsonNull() ? "" : cell.getAsString());
+			}
+		}
+	}
+
+	private synchronized SheetModel addSheet(String title) {
+		int sheetId = randomSheetIds ? ThreadLocalRandom.current().nextInt(1, Integer.MAX_VALUE) : nextSheetId++;
+		SheetModel sheet = new SheetModel(sheetId, title);
+		sheets.put(title, sheet);
+		return sheet;
+	}
+
+	private SheetModel requireSheet(String title) {
+		SheetModel sheet = sheets.get(title);
+		if (sheet == null) {
+			throw new IllegalArgumentException("Unable to parse range: " + title);
+		}
+		return sheet;
+	}
+
+	// ---------------------------------------------------------------- A1 ranges
+
+	/**
+	 * Parse "Sheet", "Sheet!A:E", "Sheet!A1", "Sheet!B3:AJ3" into zero-based bounds
+	 */
+	static Range parseRange(String a1) {
+		int bang = a1.indexOf('!');
+		Range range = new Range();
+		range.sheet = bang < 0 ? a1 : a1.substring(0, bang);
+		range.startRow = 0;
+		range.startCol = 0;
+		range.endRow = Integer.MAX_VALUE - 1;
+		range.endCol = Integer.MAX_VALUE - 1;
+		if (bang < 0) {
+			return range;
+		}
+
+		String[] parts = a1.substring(bang + 1).split(":");
+		int[] start = parseCell(parts[0]);
+		range.startCol = Math.max(start[0], 0);
+		range.startRow = Math.max(start[1], 0);
+		if (parts.length > 1) {
+			int[] end = parseCell(parts[1]);
+			range.endCol = end[0] < 0 ? Integer.MAX_VALUE - 1 : end[0];
+			range.endRow = end[1] < 0 ? Integer.MAX_VALUE - 1 : end[1];
+		} else if (start[1] >= 0) {
+			// Single cell: an update may still write a whole block starting here
+			range.endCol = Integer.MAX_VALUE - 1;
+			range.endRow = Integer.MAX_VALUE - 1;
+		}
+		return range;
+	}
+
+	/**
+	 * Returns {column, row}, zero-based, -1 when absent
+	 */
+	private static int[] parseCell(String cell) {
+		int i = 0;
+		int col = 0;
+		while (i < cell.length() && Character.isLetter(cell.charAt(i))) {
+			col = col * 26 + (Character.toUpperCase(cell.charAt(i)) - 'A' + 1);
+			i++;
+		}
+		int row = i < cell.length() ? Integer.parseInt(cell.substring(i)) : 0;
+		return new int[] { col - 1, row - 1 };
+	}
+
+	// ---------------------------------------------------------------- plumbing
+
+	private void injectLatency() throws InterruptedException {
+		long delay = latencyMillis;
+		if (latencyJitterMillis > 0) {
+			delay += ThreadLocalRandom.current().nextLong(latencyJitterMillis + 1);
+		}
+		if (delay > 0) {
+			Thread.sleep(delay);
+		}
+	}
+
+	private boolean shouldRejectForQuota() {
+		if (quotaErrorRate > 0 && ThreadLocalRandom.current().nextDouble() < quotaErrorRate) {
+			return true;
+		}
+		int limit = requestsPerMinuteLimit;
+		if (limit <= 0) {
+			return false;
+		}
+		long now = System.nanoTime();
+		synchronized (recentRequests) {
+			while (!recentRequests.isEmpty() && now - recentRequests.peekFirst() > 60_000_000_000L) {
+				recentRequests.pollFirst();
+			}
+			if (recentRequests.size() >= limit) {
+				return true;
+			}
+			recentRequests.addLast(now);
+			return false;
+		}
+	}
+
+	private static Map<String, List<String>> queryParams(HttpExchange exchange) {
+		Map<String, List<String>> params = new HashMap<>();
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query == null) {
+			return params;
+		}
+		for (String pair : query.split("&")) {
+			int eq = pair.indexOf('=');
+			String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+			String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+			params.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+		}
+		return params;
+	}
+
+	private static JsonObject readBody(HttpExchange exchange) throws IOException {
+		InputStream body = exchange.getRequestBody();
+		if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+			// The Google client gzips request bodies by default
+			body = new GZIPInputStream(body);
+		}
+		try (InputStream in = body) {
+			String json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			return json.isBlank() ? new JsonObject() : JsonParser.parseString(json).getAsJsonObject();
+		}
+	}
+
+	private static JsonObject errorBody(int code, String message) {
+		JsonObject error = new JsonObject();
+		error.addProperty("code", code);
+		error.addProperty("message", message);
+		JsonObject body = new JsonObject();
+		body.add("error", error);
+		return body;
+	}
+
+	private static void send(HttpExchange exchange, int status, JsonObject body) throws IOException {
+		byte[] bytes = GSON.toJson(body).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static List<String> trimRow(List<String> row) {
+		int end = row.size();
+		while (end > 0 && row.get(end - 1).isEmpty()) {
+			end--;
+		}
+		return new ArrayList<>(row.subList(0, end));
+	}
+
+	static class Range {
+		String sheet;
+		int startRow;
+		int startCol;
+		int endRow;
+		int endCol;
+	}
+
+	private static class SheetModel {
+		private final int sheetId;
+		private final String title;
+		private final List<List<String>> rows = new ArrayList<>();
+
+		SheetModel(int sheetId, String title) {
+			this.sheetId = sheetId;
+			this.title = title;
+		}
+
+		JsonObject properties(int index) {
+			JsonObject properties = new JsonObject();
+			properties.addProperty("sheetId", sheetId);
+			properties.addProperty("title", title);
+			properties.addProperty("index", index);
+			return properties;
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package com.backend.sheets;
+
+import com.backend.repository.AttendanceRepository;
+import com.backend.service.GoogleSheetsService;
+import com.backend.service.SheetsRateLimiter;
+import com.backend.service.SheetsWriteLanes;
+import com.backend.sink.AttendanceEvent;
+import com.backend.sink.AttendanceSink;
+import com.backend.sink.AttendanceSinkDispatcher;
+import com.backend.sink.GoogleSheetsAttendanceSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Replays a morning rush of check-ins through the sink pipeline against FakeSheetsServer
+ * and reports Sheets API calls, p50/p99 sync lag and dropped events, and compares
+ * per-month writer lanes with a single global queue.
+ *
+ * Run with: ./mvnw test -Pbenchmark -Dtest=SheetsSyncBenchmarkTest
+ * Tune with -Dbenchmark.users, -Dbenchmark.rushSeconds, -Dbenchmark.latencyMillis,
+ * -Dbenchmark.quotaErrorRate and -Dbenchmark.queueCapacity.
+ */
+@Tag("benchmark")
+class SheetsSyncBenchmarkTest {
+
+	private static final int USERS = Integer.getInteger("benchmark.users", 300);
+	private static final int RUSH_SECONDS = Integer.getInteger("benchmark.rushSeconds", 10);
+	private static final long LATENCY_MILLIS = Long.getLong("benchmark.latencyMillis", 30);
+	private static final double QUOTA_ERROR_RATE = Double.parseDouble(System.getProperty("benchmark.quotaErrorRate", "0"));
+	private static final int QUEUE_CAPACITY = Integer.getInteger("benchmark.queueCapacity", 10_000);
+
+	@Test
+	void morningRush() throws Exception {
+		try (FakeSheetsServer server = new FakeSheetsServer()) {
+			server.setLatency(LATENCY_MILLIS, LATENCY_MILLIS / 2);
+			server.setQuotaErrorRate(QUOTA_ERROR_RATE);
+
+			// The limiter is opened up so the benchmark measures the pipeline, not the quota
+			GoogleSheetsService sheetsService = server.createSheetsService(new SheetsRateLimiter(600_000, 1_000));
+			SheetsWriteLanes lanes = new SheetsWriteLanes(4, 20, new SimpleMeterRegistry());
+			LagRecordingSink sink = new LagRecordingSink(
+					new GoogleSheetsAttendanceSink(sheetsService, mock(AttendanceRepository.class), lanes));
+
+			SimpleMeterRegistry registry = new SimpleMeterRegistry();
+			AttendanceSinkDispatcher dispatcher = new AttendanceSinkDispatcher(
+					Collections.singletonList(sink), registry, QUEUE_CAPACITY, 100);
+
+			long start = System.nanoTime();
+			replayRush(dispatcher);
+
+			double dropped = registry.counter("attendance.sink.dropped", "sink", sink.getName()).count();
+			// Failed batches (e.g. injected 429s) are left to the backfill
+			Counter failed = registry.counter("attendance.sink.failed", "sink", sink.getName());
+			long deadline = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(5);
+			while (sink.delivered() + dropped + failed.count() < USERS && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+			double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+			dispatcher.shutdown();
+			lanes.shutdown();
+
+			List<Long> lags = sink.lagsMillis();
+			Collections.sort(lags);
+			System.out.println("=== Sheets sync benchmark: morning rush ===");
+			System.out.printf("check-ins: %d over %ds, api latency: %d ms, injected 429 rate: %.3f%n",
+					USERS, RUSH_SECONDS, LATENCY_MILLIS, QUOTA_ERROR_RATE);
+			System.out.printf("wall time: %.1f s, delivered: %d, dropped: %.0f, failed: %.0f, 429s: %d%n",
+					elapsedSeconds, sink.delivered(), dropped, failed.count(), server.getQuotaErrorCount());
+			System.out.printf("api calls: %d total (%.1f per check-in) %s%n",
+					server.getTotalCallCount(), (double) server.getTotalCallCount() / USERS, server.getCallCounts());
+			System.out.printf("sync lag: p50 %d ms, p99 %d ms, max %d ms%n",
+					percentile(lags, 0.50), percentile(lags, 0.99), lags.isEmpty() ? 0 : lags.get(lags.size() - 1));
+
+			assertThat(sink.delivered() + (long) dropped + (long) failed.count()).isEqualTo(USERS);
+		}
+	}
+
+	/**
+	 * Backfill-shaped load spread over several months, written once through a single
+	 * global queue (one writer thread) and once through per-month lanes.
+	 */
+	@Test
+	void perMonthLanesVersusGlobalQueue() throws Exception {
+		int months = 4;
+		int perMonth = Integer.getInteger("benchmark.rowsPerMonth", 50);
+
+		double global = writeAcrossMonths(1, months, perMonth);
+		double laned = writeAcrossMonths(months, months, perMonth);
+
+		System.out.println("=== Sheets writers: global queue vs per-month lanes ===");
+		System.out.printf("%d rows over %d months, api latency: %d ms%n", months * perMonth, months, LATENCY_MILLIS);
+		System.out.printf("single global queue: %.1f rows/s%n", global);
+		System.out.printf("per-month lanes (%d threads): %.1f rows/s (%.1fx)%n", months, laned, laned / global);
+	}
+
+	private double writeAcrossMonths(int threads, int months, int perMonth) throws Exception {
+		try (FakeSheetsServer server = new FakeSheetsServer()) {
+			server.setLatency(LATENCY_MILLIS, LATENCY_MILLIS / 2);
+			GoogleSheetsService sheetsService = server.createSheetsService(new SheetsRateLimiter(600_000, 1_000));
+			SheetsWriteLanes lanes = new SheetsWriteLanes(threads, 20, new SimpleMeterRegistry());
+
+			List<CompletableFuture<Void>> writes = new ArrayList<>();
+			long start = System.nanoTime();
+			for (int i = 0; i < perMonth; i++) {
+				for (int month = 1; month <= months; month++) {
+					String name = "Employee " + i;
+					LocalDateTime checkIn = LocalDateTime.of(2024, month, 5, 8, 0);
+					writes.add(lanes.submit(YearMonth.from(checkIn), () -> {
+						sheetsService.writeAttendance(name, checkIn, null);
+						return null;
+					}));
+				}
+			}
+			CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+			double seconds = (System.nanoTime() - start) / 1e9;
+			lanes.shutdown();
+
+			return writes.size() / seconds;
+		}
+	}
+
+	/**
+	 * Publish USERS check-ins with a peak in the middle of the rush window
+	 */
+	private void replayRush(AttendanceSinkDispatcher dispatcher) throws InterruptedException {
+		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+		LocalDateTime shiftStart = LocalDateTime.of(2024, 3, 4, 8, 0);
+		long windowMillis = TimeUnit.SECONDS.toMillis(RUSH_SECONDS);
+
+		for (int i = 0; i < USERS; i++) {
+			// Sum of two uniforms gives a triangular distribution peaking mid-window
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			long offset = (long) ((random.nextDouble() + random.nextDouble()) / 2 * windowMillis);
+			long userId = i + 1;
+			LocalDateTime checkIn = shiftStart.plusSeconds(offset / 1000);
+			// Built inside the task so the publish timestamp is the replayed arrival time
+			scheduler.schedule(() -> dispatcher.publish(new AttendanceEvent(AttendanceEvent.Type.CHECK_IN,
+					userId, userId, "Employee " + userId, checkIn, null)), offset, TimeUnit.MILLISECONDS);
+		}
+
+		scheduler.shutdown();
+		scheduler.awaitTermination(RUSH_SECONDS + 10, TimeUnit.SECONDS);
+	}
+
+	private long percentile(List<Long> sorted, double percentile) {
+		if (sorted.isEmpty()) {
+			return 0;
+		}
+		int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+		return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+	}
+
+	/**
+	 * Wraps a sink and records publish-to-delivery lag per event
+	 */
+	private static class LagRecordingSink implements AttendanceSink {
+
+		private final AttendanceSink delegate;
+		private final List<Long> lagsMillis = new ArrayList<>();
+
+		LagRecordingSink(AttendanceSink delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public String getName() {
+			return delegate.getName();
+		}
+
+		@Override
+		public void accept(List<AttendanceEvent> events) throws Exception {
+			delegate.accept(events);
+			long now = System.nanoTime();
+			synchronized (lagsMillis) {
+				for (AttendanceEvent event : events) {
+					lagsMillis.add(TimeUnit.NANOSECONDS.toMillis(now - event.getPublishedAtNanos()));
+				}
+			}
+		}
+
+		long delivered() {
+			synchronized (lagsMillis) {
+				return lagsMillis.size();
+			}
+		}
+
+		List<Long> lagsMillis() {
+			synchronized (lagsMillis) {
+				return new ArrayList<>(lagsMillis);
+			}
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.backend.sink;
+
+import com.backend.repository.AttendanceRepository;
+import com.backend.service.GoogleSheetsService;
+import com.backend.service.SheetsWriteLanes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class GoogleSheetsAttendanceSinkTest {
+
+	private final GoogleSheetsService sheetsService = mock(GoogleSheetsService.class);
+	private final AttendanceRepository repository = mock(AttendanceRepository.class);
+	private final SheetsWriteLanes lanes = new SheetsWriteLanes(2, 20, new SimpleMeterRegistry());
+	private final GoogleSheetsAttendanceSink sink = new GoogleSheetsAttendanceSink(sheetsService, repository, lanes);
+
+	@AfterEach
+	void tearDown() {
+		lanes.shutdown();
+	}
+
+	@Test
+	void writesEachMonthOnceAndReportsFailures() throws Exception {
+		doThrow(new IOException("quota exceeded")).when(sheetsService).upsertMonth(eq(2024), eq(4), anyList());
+
+		assertThatThrownBy(() -> sink.accept(List.of(
+				event(1L, LocalDateTime.of(2024, 3, 4, 8, 0)),
+				event(2L, LocalDateTime.of(2024, 3, 5, 8, 0)),
+				event(3L, LocalDateTime.of(2024, 4, 1, 8, 0)))))
+				.isInstanceOf(IOException.class)
+				.hasMessage("quota exceeded");
+
+		verify(sheetsService).upsertMonth(eq(2024), eq(3), anyList());
+		verify(repository).markSyncedToSheets(1L, false);
+		verify(repository).markSyncedToSheets(2L, false);
+		// Left unsynced for the backfill
+		verify(repository, never()).markSyncedToSheets(3L, false);
+	}
+
+	private AttendanceEvent event(Long id, LocalDateTime checkIn) {
+		return new AttendanceEvent(AttendanceEvent.Type.CHECK_IN, id, 7L, "Ada", checkIn, null);
+	}
+}
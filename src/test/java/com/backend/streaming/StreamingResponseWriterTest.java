@@ -0,0 +1,141 @@
+package com.backend.streaming;
+
+import com.backend.config.ResponseFormats;
+import com.backend.dto.ApiResponse;
+import com.backend.dto.UserResponse;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StreamingResponseWriterTest {
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().build();
+	private final CBORMapper cborMapper = CBORMapper.builder().build();
+	private final StreamingResponseWriter writer =
+			new StreamingResponseWriter(new ResponseFormats(objectMapper, cborMapper));
+	private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+	@Test
+	void writesTheSameEnvelopeAsApiResponse() throws Exception {
+		List<UserResponse> users = List.of(user(1), user(2));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		writer.<UserResponse>write(request, response, "Users retrieved successfully", users::forEach);
+
+		assertThat(response.getContentAsString())
+				.isEqualTo(objectMapper.writeValueAsString(ApiResponse.success("Users retrieved successfully", users)));
+	}
+
+	@Test
+	void writesCborWhenAccepted() throws Exception {
+		List<UserResponse> users = List.of(user(1), user(2));
+		request.addHeader(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.5");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		writer.<UserResponse>write(request, response, "Users retrieved successfully", users::forEach);
+
+		assertThat(response.getContentType()).isEqualTo("application/cbor");
+		// The streamed array has indefinite length, so compare decoded trees rather than bytes
+		assertThat(cborMapper.readTree(response.getContentAsByteArray())).isEqualTo(cborMapper.readTree(
+				cborMapper.writeValueAsBytes(ApiResponse.success("Users retrieved successfully", users))));
+	}
+
+	@Test
+	void failureBeforeAnythingIsSentPropagates() {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertThatThrownBy(() -> writer.<UserResponse>write(request, response, "Users retrieved successfully",
+				consumer -> { throw new RuntimeException("query failed"); }))
+				.hasMessage("query failed");
+		assertThat(response.getContentAsByteArray()).isEmpty();
+	}
+
+	/**
+	 * Streams half a million rows into a discarding output and checks that neither the
+	 * rows nor the heap are held on to while writing
+	 */
+	@Test
+	void heapStaysFlatWhileStreaming() throws Exception {
+		int rows = 500_000;
+		CountingOutputStream output = new CountingOutputStream();
+		HttpServletResponse response = mock(HttpServletResponse.class);
+		when(response.getOutputStream()).thenReturn(output);
+
+		long[] heap = new long[2];
+		WeakReference<?>[] firstRow = new WeakReference<?>[1];
+		Consumer<Consumer<UserResponse>> producer = consumer -> {
+			heap[0] = usedHeapAfterGc();
+			for (int i = 1; i <= rows; i++) {
+				UserResponse user = user(i);
+				if (i == 1) {
+					firstRow[0] = new WeakReference<>(user);
+				}
+				consumer.accept(user);
+			}
+			heap[1] = usedHeapAfterGc();
+		};
+
+		writer.write(request, response, "Users retrieved successfully", producer);
+
+		long growth = heap[1] - heap[0];
+		System.out.printf("streamed %d rows, %d KB written, heap growth %d KB%n",
+				rows, output.count / 1024, growth / 1024);
+		assertThat(firstRow[0].get()).isNull();
+		// The same rows as a List<UserResponse> would need well over 100 MB
+		assertThat(growth).isLessThan(16L * 1024 * 1024);
+	}
+
+	private UserResponse user(long id) {
+		return new UserResponse(id, "user" + id, "user" + id + "@example.com", "User " + id,
+				LocalDateTime.of(2024, 1, 1, 8, 0));
+	}
+
+	private long usedHeapAfterGc() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static class CountingOutputStream extends ServletOutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.backend.timing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTimingsTest {
+
+	@Test
+	void headerSumsRepeatedPhasesAndEndsWithTotal() {
+		RequestTimings timings = RequestTimings.begin("POST /api/attendance/check-in");
+		try (RequestTimings.Phase phase = RequestTimings.start("auth")) {
+			// token checks
+		}
+		try (RequestTimings.Phase phase = RequestTimings.start("db", "AttendanceRepository.findById")) {
+			// first query
+		}
+		try (RequestTimings.Phase phase = RequestTimings.start("db", "AttendanceRepository.save")) {
+			// second query
+		}
+		RequestTimings.startSerialization();
+		RequestTimings.end();
+
+		String header = timings.toServerTimingHeader();
+
+		assertThat(header).matches("auth;dur=\\d+\\.\\d{3}, db;desc=\"2 calls\";dur=\\d+\\.\\d{3}, "
+				+ "serialize;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}");
+	}
+
+	@Test
+	void phasesOutsideARequestAreNotRecorded() {
+		try (RequestTimings.Phase phase = RequestTimings.start("db")) {
+			// background work, e.g. the backfill worker
+		}
+
+		RequestTimings timings = RequestTimings.begin("GET /api/users/me");
+		RequestTimings.end();
+
+		assertThat(timings.toServerTimingHeader()).startsWith("total;dur=");
+	}
+}